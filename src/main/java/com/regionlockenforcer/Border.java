@@ -1,25 +1,47 @@
 package com.regionlockenforcer;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import net.runelite.api.Constants;
 import net.runelite.api.coords.WorldPoint;
 import java.awt.Color;
 
 /**
  * Represents a single border within a region.
  * Holds its own boundary and inner tiles and can notify listeners when it changes.
+ * Tiles are kept in one {@link TileLayer} per plane; planes without tiles have no layer at all.
+ * Bulk changes go through {@link #edit}, which fires a single {@link BorderChange} for all of them.
  */
 @Data
 public class Border
 {
     private String name;
-    private Set<WorldPoint> boundaryTiles = ConcurrentHashMap.newKeySet();
-    private Set<WorldPoint> innerTiles = ConcurrentHashMap.newKeySet();
 
-    // Cache of boundary + inner tiles for quick click checks
-    private transient Set<WorldPoint> cachedClickableTiles = null;
+    // Per-plane tile storage, indexed by plane. A null entry means the plane is empty.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private TileLayer[] boundaryLayers = new TileLayer[Constants.MAX_Z];
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private TileLayer[] innerLayers = new TileLayer[Constants.MAX_Z];
+
+    // Materialized WorldPoint views for callers that iterate, rebuilt lazily after changes
+    private transient Set<WorldPoint> cachedBoundaryTiles = null;
+    private transient Set<WorldPoint> cachedInnerTiles = null;
+
+    // Bumped whenever the border's tiles change so background work can detect stale snapshots
+    private transient volatile int revision = 0;
+
+    // Outline traced from the finished area, rebuilt lazily after changes
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile BorderPolygons cachedPolygons = null;
 
     // Optional per-border styling
     private RenderMode renderMode = RenderMode.LINES;
@@ -27,7 +49,31 @@ public class Border
     private Color lineColor = null;
 
     // Optional callback to signal parent region that cached aggregates should be invalidated
-    private transient Runnable onChange;
+    private transient Consumer<BorderChange> onChange;
+
+    // Open edit transaction; nested edits join it and the outermost one fires the notification
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient Edit activeEdit;
+
+    // Undo/redo steps for edits made since the tiles were last loaded
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient BorderHistory history;
+
+    // Open history group: its edits share one recorder and become a single undo step when it ends
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient boolean historyGroupOpen;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient BorderHistory.Recorder groupRecorder;
+
+    // Live closed/open state of the marked tiles, created when the editor first asks
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient BorderEnclosure enclosure;
 
     public Border()
     {
@@ -39,106 +85,357 @@ public class Border
         this.name = name != null ? name : "Border 1";
     }
 
-    public void setOnChange(Runnable onChange)
+    public void setOnChange(Consumer<BorderChange> onChange)
     {
         this.onChange = onChange;
     }
 
+    /**
+     * Apply any number of tile mutations and notify listeners once.
+     *
+     * @return the combined change, or null if nothing changed
+     */
+    public BorderChange edit(Consumer<Edit> body)
+    {
+        Edit tx = begin();
+        BorderChange change = null;
+        try
+        {
+            body.accept(tx);
+        }
+        finally
+        {
+            change = commit(tx);
+        }
+        return change;
+    }
+
+    /**
+     * Read-only view of the marked/outline tiles on every plane.
+     * Prefer {@link #isBoundaryTile} or {@link #getBoundaryLayer} on hot paths.
+     */
     public Set<WorldPoint> getBoundaryTiles()
     {
-        if (boundaryTiles == null)
+        Set<WorldPoint> cached = cachedBoundaryTiles;
+        if (cached == null)
         {
-            boundaryTiles = ConcurrentHashMap.newKeySet();
+            cached = materialize(boundaryLayers);
+            cachedBoundaryTiles = cached;
         }
-        return boundaryTiles;
+        return cached;
     }
 
+    /**
+     * Read-only view of the interior tiles on every plane.
+     */
     public Set<WorldPoint> getInnerTiles()
     {
-        if (innerTiles == null)
+        Set<WorldPoint> cached = cachedInnerTiles;
+        if (cached == null)
         {
-            innerTiles = ConcurrentHashMap.newKeySet();
+            cached = materialize(innerLayers);
+            cachedInnerTiles = cached;
         }
-        return innerTiles;
+        return cached;
+    }
+
+    /**
+     * @return the boundary tiles on the given plane, or null if the plane has none
+     */
+    public TileLayer getBoundaryLayer(int plane)
+    {
+        return layerAt(boundaryLayers, plane);
+    }
+
+    /**
+     * @return the inner tiles on the given plane, or null if the plane has none
+     */
+    public TileLayer getInnerLayer(int plane)
+    {
+        return layerAt(innerLayers, plane);
+    }
+
+    public boolean hasBoundaryTiles()
+    {
+        return hasAnyTiles(boundaryLayers);
+    }
+
+    public boolean hasInnerTiles()
+    {
+        return hasAnyTiles(innerLayers);
+    }
+
+    public boolean hasInnerTiles(int plane)
+    {
+        TileLayer layer = layerAt(innerLayers, plane);
+        return layer != null && !layer.isEmpty();
+    }
+
+    public boolean isBoundaryTile(WorldPoint tile)
+    {
+        TileLayer layer = layerAt(boundaryLayers, tile.getPlane());
+        return layer != null && layer.contains(tile.getX(), tile.getY());
+    }
+
+    /**
+     * Whether the tile is part of this border (outline or interior).
+     */
+    public boolean isClickable(WorldPoint tile)
+    {
+        int plane = tile.getPlane();
+        TileLayer inner = layerAt(innerLayers, plane);
+        if (inner != null && inner.contains(tile.getX(), tile.getY()))
+        {
+            return true;
+        }
+        TileLayer boundary = layerAt(boundaryLayers, plane);
+        return boundary != null && boundary.contains(tile.getX(), tile.getY());
     }
 
     public boolean addTile(WorldPoint tile)
     {
-        boolean added = getBoundaryTiles().add(tile);
-        if (added)
+        Edit tx = begin();
+        try
         {
-            invalidate();
+            return tx.addTile(tile);
+        }
+        finally
+        {
+            commit(tx);
         }
-        return added;
     }
 
     public boolean removeTile(WorldPoint tile)
     {
-        boolean removed = getBoundaryTiles().remove(tile);
-        if (removed)
+        Edit tx = begin();
+        try
         {
-            invalidate();
+            return tx.removeTile(tile);
+        }
+        finally
+        {
+            commit(tx);
         }
-        return removed;
     }
 
     public boolean toggleTile(WorldPoint tile)
     {
-        if (getBoundaryTiles().contains(tile))
+        Edit tx = begin();
+        try
+        {
+            return tx.toggleTile(tile);
+        }
+        finally
+        {
+            commit(tx);
+        }
+    }
+
+    /**
+     * Replace the boundary tiles wholesale, as when loading. Not undoable; clears the edit history.
+     */
+    public void setBoundaryTiles(Set<WorldPoint> boundaryTiles)
+    {
+        edit(tx ->
+        {
+            tx.record = false;
+            tx.replaceBoundaryLayers(buildLayers(boundaryTiles));
+        });
+        clearHistory();
+    }
+
+    /**
+     * Replace the inner tiles wholesale, as when loading. Not undoable; clears the edit history.
+     */
+    public void setInnerTiles(Set<WorldPoint> innerTiles)
+    {
+        edit(tx ->
+        {
+            tx.record = false;
+            tx.replaceInnerLayers(buildLayers(innerTiles));
+        });
+        clearHistory();
+    }
+
+    /**
+     * Revert the most recent recorded edit.
+     *
+     * @return false if there is nothing to undo or an edit or history group is in progress
+     */
+    public boolean undo()
+    {
+        if (history == null || activeEdit != null || historyGroupOpen)
         {
-            getBoundaryTiles().remove(tile);
-            invalidate();
             return false;
         }
-        else
+        BorderHistory.Delta delta = history.popUndo();
+        if (delta == null)
         {
-            getBoundaryTiles().add(tile);
-            invalidate();
-            return true;
+            return false;
+        }
+        applyHistory(delta);
+        return true;
+    }
+
+    /**
+     * Reapply the most recently undone edit.
+     *
+     * @return false if there is nothing to redo or an edit or history group is in progress
+     */
+    public boolean redo()
+    {
+        if (history == null || activeEdit != null || historyGroupOpen)
+        {
+            return false;
+        }
+        BorderHistory.Delta delta = history.popRedo();
+        if (delta == null)
+        {
+            return false;
         }
+        applyHistory(delta);
+        return true;
+    }
+
+    public boolean canUndo()
+    {
+        return history != null && history.canUndo();
     }
 
-    public Set<WorldPoint> getAllClickableTiles()
+    public boolean canRedo()
     {
-        if (cachedClickableTiles != null)
+        return history != null && history.canRedo();
+    }
+
+    public void clearHistory()
+    {
+        if (history != null)
         {
-            return cachedClickableTiles;
+            history.clear();
         }
+        // Tiles captured by an open group predate the reset; later edits of the group start a new recorder
+        groupRecorder = null;
+    }
 
-        Set<WorldPoint> all = new HashSet<>(getBoundaryTiles());
-        all.addAll(getInnerTiles());
-        cachedClickableTiles = all;
-        return cachedClickableTiles;
+    /**
+     * Record the edits made until {@link #endHistoryGroup} as one undo step, e.g. a brush stroke
+     * that is applied once per frame. Listeners are still notified after every edit.
+     */
+    public void beginHistoryGroup()
+    {
+        endHistoryGroup();
+        historyGroupOpen = true;
     }
 
-    public void ensureCacheComputed()
+    /**
+     * Close the open history group and push its edits as a single step. Does nothing if no group is open.
+     */
+    public void endHistoryGroup()
     {
-        if (cachedClickableTiles == null)
+        BorderHistory.Recorder recorder = groupRecorder;
+        historyGroupOpen = false;
+        groupRecorder = null;
+        if (recorder != null)
         {
-            getAllClickableTiles();
+            pushHistory(recorder.finish(boundaryLayers, innerLayers));
         }
     }
 
-    public void setBoundaryTiles(Set<WorldPoint> boundaryTiles)
+    public void clearInnerTiles()
     {
-        Set<WorldPoint> newSet = ConcurrentHashMap.newKeySet();
-        if (boundaryTiles != null)
+        if (!hasAnyTiles(innerLayers))
         {
-            newSet.addAll(boundaryTiles);
+            return;
         }
-        this.boundaryTiles = newSet;
-        invalidate();
+        edit(Edit::clearInnerTiles);
     }
 
-    public void setInnerTiles(Set<WorldPoint> innerTiles)
+    /**
+     * Vector outline of the finished area (outline and interior), or null while the border is unfinished.
+     */
+    public BorderPolygons getPolygons()
+    {
+        if (!hasAnyTiles(innerLayers))
+        {
+            return null;
+        }
+        BorderPolygons cached = cachedPolygons;
+        if (cached == null)
+        {
+            cached = BorderPolygons.trace(snapshotAreaLayers());
+            cachedPolygons = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Copy of the area this border covers (outline and interior) per plane, for set operations.
+     */
+    public TileLayer[] snapshotAreaLayers()
+    {
+        TileLayer[] area = snapshotBoundaryLayers();
+        for (int plane = 0; plane < area.length; plane++)
+        {
+            TileLayer inner = layerAt(innerLayers, plane);
+            if (inner != null && !inner.isEmpty())
+            {
+                if (area[plane] == null)
+                {
+                    area[plane] = new TileLayer();
+                }
+                area[plane].addAll(inner);
+            }
+        }
+        return area;
+    }
+
+    /**
+     * Copy the boundary layers so background work can read them while the border is edited.
+     */
+    public TileLayer[] snapshotBoundaryLayers()
+    {
+        TileLayer[] source = boundaryLayers;
+        TileLayer[] copy = new TileLayer[Constants.MAX_Z];
+        for (int plane = 0; plane < copy.length; plane++)
+        {
+            if (source[plane] != null && !source[plane].isEmpty())
+            {
+                copy[plane] = source[plane].copy();
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Replace the boundary and inner tiles in one step so readers never see
+     * a finished interior paired with the unpruned outline.
+     * The layers are adopted as-is and must not be modified by the caller afterwards.
+     */
+    public void applyFinishedTiles(TileLayer[] boundaryLayers, TileLayer[] innerLayers)
+    {
+        edit(tx ->
+        {
+            tx.replaceBoundaryLayers(adoptLayers(boundaryLayers));
+            tx.replaceInnerLayers(adoptLayers(innerLayers));
+        });
+    }
+
+    public int getRevision()
+    {
+        return revision;
+    }
+
+    /**
+     * Whether the marked tiles enclose an area on every plane, and where an open outline leaks.
+     * Kept up to date with each edit once requested, so the editor can show it before Finish.
+     */
+    BorderEnclosure getEnclosure()
     {
-        Set<WorldPoint> newSet = ConcurrentHashMap.newKeySet();
-        if (innerTiles != null)
+        if (enclosure == null)
         {
-            newSet.addAll(innerTiles);
+            enclosure = new BorderEnclosure(this);
         }
-        this.innerTiles = newSet;
-        invalidate();
+        return enclosure;
     }
 
     public RegionLockEnforcerConfig.PropStyle getPropStyle()
@@ -149,7 +446,7 @@ public class Border
     public void setPropStyle(RegionLockEnforcerConfig.PropStyle propStyle)
     {
         this.propStyle = propStyle;
-        invalidate();
+        notifyChanged(BorderChange.style());
     }
 
     public RenderMode getRenderMode()
@@ -160,7 +457,7 @@ public class Border
     public void setRenderMode(RenderMode renderMode)
     {
         this.renderMode = renderMode;
-        invalidate();
+        notifyChanged(BorderChange.style());
     }
 
     public Color getLineColor()
@@ -171,7 +468,7 @@ public class Border
     public void setLineColor(Color lineColor)
     {
         this.lineColor = lineColor;
-        invalidate();
+        notifyChanged(BorderChange.style());
     }
 
     public enum RenderMode
@@ -180,56 +477,117 @@ public class Border
         PROPS
     }
 
-    public int addArea(int startX, int startY, int plane, int size)
+    /**
+     * Boolean operation for combining the areas of borders or regions.
+     */
+    public enum SetOperation
     {
-        if (size <= 0)
+        UNION("Union"),
+        INTERSECTION("Intersection"),
+        DIFFERENCE("Difference"),
+        XOR("Symmetric difference");
+
+        private final String label;
+
+        SetOperation(String label)
         {
-            return 0;
+            this.label = label;
         }
 
-        int added = 0;
+        @Override
+        public String toString()
+        {
+            return label;
+        }
+    }
 
-        for (int x = 0; x < size; x++)
+    /**
+     * Combine two areas plane by plane, a row word at a time. The inputs are not modified.
+     *
+     * @return the resulting layers, with null for planes left empty
+     */
+    public static TileLayer[] combineAreas(TileLayer[] left, TileLayer[] right, SetOperation op)
+    {
+        TileLayer[] result = new TileLayer[Constants.MAX_Z];
+        for (int plane = 0; plane < result.length; plane++)
         {
-            for (int y = 0; y < size; y++)
+            TileLayer a = layerAt(left, plane);
+            TileLayer b = layerAt(right, plane);
+            TileLayer out = a != null ? a.copy() : new TileLayer();
+            switch (op)
             {
-                WorldPoint tile = new WorldPoint(startX + x, startY + y, plane);
-                if (getBoundaryTiles().add(tile))
-                {
-                    added++;
-                }
+                case UNION:
+                    out.addAll(b);
+                    break;
+                case INTERSECTION:
+                    out.retainAll(b);
+                    break;
+                case DIFFERENCE:
+                    out.removeAll(b);
+                    break;
+                case XOR:
+                    out.xorAll(b);
+                    break;
+            }
+            if (!out.isEmpty())
+            {
+                result[plane] = out;
             }
         }
-
-        getInnerTiles().clear();
-        invalidate();
-        return added;
+        return result;
     }
 
-    public int removeArea(int startX, int startY, int plane, int size)
+    /**
+     * Replace the tiles so the border covers exactly the given area: tiles with a neighbour
+     * outside the area become the outline and the rest the interior.
+     * Areas without interior tiles leave an unfinished outline. The layers are not modified.
+     */
+    public void setArea(TileLayer[] area)
     {
-        if (size <= 0)
+        TileLayer[] outline = new TileLayer[Constants.MAX_Z];
+        TileLayer[] inner = new TileLayer[Constants.MAX_Z];
+        for (int plane = 0; plane < outline.length; plane++)
         {
-            return 0;
+            TileLayer layer = layerAt(area, plane);
+            if (layer == null || layer.isEmpty())
+            {
+                continue;
+            }
+            inner[plane] = layer.interior();
+            outline[plane] = layer.copy();
+            outline[plane].removeAll(inner[plane]);
         }
+        edit(tx ->
+        {
+            tx.replaceBoundaryLayers(adoptLayers(outline));
+            tx.replaceInnerLayers(adoptLayers(inner));
+        });
+    }
 
-        int removed = 0;
-
-        for (int x = 0; x < size; x++)
+    public int addArea(int startX, int startY, int plane, int size)
+    {
+        Edit tx = begin();
+        try
         {
-            for (int y = 0; y < size; y++)
-            {
-                WorldPoint tile = new WorldPoint(startX + x, startY + y, plane);
-                if (getBoundaryTiles().remove(tile))
-                {
-                    removed++;
-                }
-            }
+            return tx.addArea(startX, startY, plane, size);
         }
+        finally
+        {
+            commit(tx);
+        }
+    }
 
-        getInnerTiles().clear();
-        invalidate();
-        return removed;
+    public int removeArea(int startX, int startY, int plane, int size)
+    {
+        Edit tx = begin();
+        try
+        {
+            return tx.removeArea(startX, startY, plane, size);
+        }
+        finally
+        {
+            commit(tx);
+        }
     }
 
     public int addChunk(int chunkX, int chunkY, int plane)
@@ -244,59 +602,599 @@ public class Border
 
     public boolean hasAnyTileInArea(int startX, int startY, int plane, int size)
     {
-        if (size <= 0)
+        return size > 0 && !isRectEmpty(plane, startX, startY, startX + size - 1, startY + size - 1);
+    }
+
+    public boolean isAreaFullyContained(int startX, int startY, int plane, int size)
+    {
+        return size > 0 && isRectFull(plane, startX, startY, startX + size - 1, startY + size - 1);
+    }
+
+    /**
+     * Whether no boundary tile lies in the inclusive rectangle.
+     */
+    public boolean isRectEmpty(int plane, int minX, int minY, int maxX, int maxY)
+    {
+        TileLayer layer = layerAt(boundaryLayers, plane);
+        return layer == null || layer.isRangeEmpty(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Whether every tile of the inclusive rectangle is a boundary tile.
+     */
+    public boolean isRectFull(int plane, int minX, int minY, int maxX, int maxY)
+    {
+        TileLayer layer = layerAt(boundaryLayers, plane);
+        return layer != null && layer.isRangeFull(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Whether the whole 64x64 chunk is marked. One probe: full chunks share a single bitmap.
+     */
+    public boolean isChunkFullyContained(int chunkX, int chunkY, int plane)
+    {
+        TileLayer layer = layerAt(boundaryLayers, plane);
+        return layer != null && layer.isChunkFull(chunkX, chunkY);
+    }
+
+    private static TileLayer layerAt(TileLayer[] layers, int plane)
+    {
+        if (layers == null || plane < 0 || plane >= layers.length)
         {
-            return false;
+            return null;
+        }
+        return layers[plane];
+    }
+
+    private static TileLayer layerForWrite(TileLayer[] layers, int plane)
+    {
+        if (plane < 0 || plane >= layers.length)
+        {
+            return null;
         }
+        if (layers[plane] == null)
+        {
+            layers[plane] = new TileLayer();
+        }
+        return layers[plane];
+    }
 
-        for (int x = 0; x < size; x++)
+    private static void releaseIfEmpty(TileLayer[] layers, int plane)
+    {
+        if (layers[plane] != null && layers[plane].isEmpty())
         {
-            for (int y = 0; y < size; y++)
+            layers[plane] = null;
+        }
+    }
+
+    private static boolean hasAnyTiles(TileLayer[] layers)
+    {
+        for (TileLayer layer : layers)
+        {
+            if (layer != null && !layer.isEmpty())
             {
-                WorldPoint tile = new WorldPoint(startX + x, startY + y, plane);
-                if (getBoundaryTiles().contains(tile))
-                {
-                    return true;
-                }
+                return true;
             }
         }
         return false;
     }
 
-    public boolean isAreaFullyContained(int startX, int startY, int plane, int size)
+    private static TileLayer[] buildLayers(Set<WorldPoint> tiles)
     {
-        if (size <= 0)
+        TileLayer[] layers = new TileLayer[Constants.MAX_Z];
+        if (tiles != null)
         {
-            return false;
+            for (WorldPoint tile : tiles)
+            {
+                TileLayer layer = layerForWrite(layers, tile.getPlane());
+                if (layer != null)
+                {
+                    layer.add(tile.getX(), tile.getY());
+                }
+            }
         }
+        return layers;
+    }
 
-        for (int x = 0; x < size; x++)
+    private static TileLayer[] adoptLayers(TileLayer[] source)
+    {
+        TileLayer[] layers = new TileLayer[Constants.MAX_Z];
+        if (source != null)
         {
-            for (int y = 0; y < size; y++)
+            for (int plane = 0; plane < layers.length && plane < source.length; plane++)
             {
-                WorldPoint tile = new WorldPoint(startX + x, startY + y, plane);
-                if (!getBoundaryTiles().contains(tile))
+                if (source[plane] != null && !source[plane].isEmpty())
                 {
-                    return false;
+                    layers[plane] = source[plane];
                 }
             }
         }
+        return layers;
+    }
 
-        return true;
+    private static Set<WorldPoint> materialize(TileLayer[] layers)
+    {
+        Set<WorldPoint> tiles = new HashSet<>();
+        for (int plane = 0; plane < layers.length; plane++)
+        {
+            TileLayer layer = layers[plane];
+            if (layer != null)
+            {
+                final int z = plane;
+                layer.forEach((x, y) -> tiles.add(new WorldPoint(x, y, z)));
+            }
+        }
+        return Collections.unmodifiableSet(tiles);
     }
 
-    public boolean isChunkFullyContained(int chunkX, int chunkY, int plane)
+    private Edit begin()
+    {
+        Edit tx = activeEdit;
+        if (tx == null)
+        {
+            tx = new Edit();
+            activeEdit = tx;
+        }
+        tx.depth++;
+        return tx;
+    }
+
+    /**
+     * Close one level of the transaction; the outermost level notifies listeners.
+     *
+     * @return the change that was fired, or null if nothing was fired
+     */
+    private BorderChange commit(Edit tx)
     {
-        return isAreaFullyContained(chunkX * 64, chunkY * 64, plane, 64);
+        if (--tx.depth > 0)
+        {
+            return null;
+        }
+        activeEdit = null;
+        if (!tx.boundaryChanged && !tx.innerChanged)
+        {
+            return null;
+        }
+        // A group's recorder keeps collecting until the group ends
+        if (tx.recorder != null && tx.recorder != groupRecorder)
+        {
+            pushHistory(tx.recorder.finish(boundaryLayers, innerLayers));
+        }
+        BorderChange change = tx.toChange();
+        notifyChanged(change);
+        return change;
     }
 
-    private void invalidate()
+    private void pushHistory(BorderHistory.Delta delta)
     {
-        cachedClickableTiles = null;
+        if (delta == null)
+        {
+            return;
+        }
+        if (history == null)
+        {
+            history = new BorderHistory();
+        }
+        history.push(delta);
+    }
+
+    private void applyHistory(BorderHistory.Delta delta)
+    {
+        Edit tx = begin();
+        tx.record = false;
+        try
+        {
+            tx.applyDelta(delta);
+        }
+        finally
+        {
+            commit(tx);
+        }
+    }
+
+    private void notifyChanged(BorderChange change)
+    {
+        // Style changes leave the tiles, their caches and running finishes alone
+        if (change.hasTiles())
+        {
+            revision++;
+            cachedBoundaryTiles = null;
+            cachedInnerTiles = null;
+            cachedPolygons = null;
+        }
+        if (enclosure != null)
+        {
+            enclosure.update(change);
+        }
         if (onChange != null)
         {
-            onChange.run();
+            onChange.accept(change);
         }
     }
-}
 
+    /**
+     * A batch of tile mutations on this border. Obtain one through {@link Border#edit};
+     * it records the touched planes and bounding rectangle for the single change notification.
+     */
+    public final class Edit
+    {
+        private int depth;
+        private int planeMask;
+        private int minX = Integer.MAX_VALUE;
+        private int minY = Integer.MAX_VALUE;
+        private int maxX = Integer.MIN_VALUE;
+        private int maxY = Integer.MIN_VALUE;
+        private boolean boundaryChanged;
+        private boolean innerChanged;
+        // Undo capture; off for loads and for undo/redo themselves
+        private boolean record = true;
+        private BorderHistory.Recorder recorder;
+
+        private Edit()
+        {
+        }
+
+        public boolean addTile(WorldPoint tile)
+        {
+            return addTile(tile.getX(), tile.getY(), tile.getPlane());
+        }
+
+        public boolean addTile(int x, int y, int plane)
+        {
+            captureBoundary(plane, x, y, x, y);
+            TileLayer layer = layerForWrite(boundaryLayers, plane);
+            if (layer == null || !layer.add(x, y))
+            {
+                return false;
+            }
+            markBoundary(plane, x, y, x, y);
+            return true;
+        }
+
+        public boolean removeTile(WorldPoint tile)
+        {
+            return removeTile(tile.getX(), tile.getY(), tile.getPlane());
+        }
+
+        public boolean removeTile(int x, int y, int plane)
+        {
+            captureBoundary(plane, x, y, x, y);
+            TileLayer layer = layerAt(boundaryLayers, plane);
+            if (layer == null || !layer.remove(x, y))
+            {
+                return false;
+            }
+            releaseIfEmpty(boundaryLayers, plane);
+            markBoundary(plane, x, y, x, y);
+            return true;
+        }
+
+        /**
+         * @return true if the tile is now marked
+         */
+        public boolean toggleTile(WorldPoint tile)
+        {
+            if (isBoundaryTile(tile))
+            {
+                removeTile(tile);
+                return false;
+            }
+            addTile(tile);
+            return true;
+        }
+
+        /**
+         * Mark a size x size square and drop the finished interior.
+         *
+         * @return the number of tiles added
+         */
+        public int addArea(int startX, int startY, int plane, int size)
+        {
+            if (size <= 0)
+            {
+                return 0;
+            }
+            int added = fillRect(plane, startX, startY, startX + size - 1, startY + size - 1);
+            clearInnerTiles();
+            return added;
+        }
+
+        /**
+         * Unmark a size x size square and drop the finished interior.
+         *
+         * @return the number of tiles removed
+         */
+        public int removeArea(int startX, int startY, int plane, int size)
+        {
+            if (size <= 0)
+            {
+                return 0;
+            }
+            int removed = clearRect(plane, startX, startY, startX + size - 1, startY + size - 1);
+            clearInnerTiles();
+            return removed;
+        }
+
+        /**
+         * Mark every tile of the inclusive rectangle, a row word at a time.
+         *
+         * @return the number of tiles added
+         */
+        public int fillRect(int plane, int minX, int minY, int maxX, int maxY)
+        {
+            captureBoundary(plane, minX, minY, maxX, maxY);
+            TileLayer layer = layerForWrite(boundaryLayers, plane);
+            int added = layer != null ? layer.fillRect(minX, minY, maxX, maxY) : 0;
+            if (added > 0)
+            {
+                markBoundary(plane, minX, minY, maxX, maxY);
+            }
+            else
+            {
+                releaseIfEmpty(boundaryLayers, plane);
+            }
+            return added;
+        }
+
+        /**
+         * Unmark every tile of the inclusive rectangle.
+         *
+         * @return the number of tiles removed
+         */
+        public int clearRect(int plane, int minX, int minY, int maxX, int maxY)
+        {
+            captureBoundary(plane, minX, minY, maxX, maxY);
+            TileLayer layer = layerAt(boundaryLayers, plane);
+            int removed = layer != null ? layer.clearRect(minX, minY, maxX, maxY) : 0;
+            if (removed > 0)
+            {
+                releaseIfEmpty(boundaryLayers, plane);
+                markBoundary(plane, minX, minY, maxX, maxY);
+            }
+            return removed;
+        }
+
+        /**
+         * Mark the tiles whose centres lie inside the polygon (vertices in tile-corner coordinates).
+         *
+         * @return the number of tiles added
+         */
+        public int fillPolygon(int plane, int[] xs, int[] ys)
+        {
+            int n = Math.min(xs.length, ys.length);
+            int minX = Integer.MAX_VALUE;
+            int minY = Integer.MAX_VALUE;
+            int maxX = Integer.MIN_VALUE;
+            int maxY = Integer.MIN_VALUE;
+            for (int i = 0; i < n; i++)
+            {
+                minX = Math.min(minX, xs[i]);
+                minY = Math.min(minY, ys[i]);
+                maxX = Math.max(maxX, xs[i]);
+                maxY = Math.max(maxY, ys[i]);
+            }
+            if (n >= 3)
+            {
+                captureBoundary(plane, minX, minY, maxX - 1, maxY - 1);
+            }
+            TileLayer layer = layerForWrite(boundaryLayers, plane);
+            int added = layer != null ? layer.fillPolygon(xs, ys, n) : 0;
+            if (added > 0)
+            {
+                markBoundary(plane, minX, minY, maxX - 1, maxY - 1);
+            }
+            else
+            {
+                releaseIfEmpty(boundaryLayers, plane);
+            }
+            return added;
+        }
+
+        /**
+         * Mark every tile of a layer on the given plane.
+         *
+         * @return the number of tiles added
+         */
+        public int addTiles(int plane, TileLayer tiles)
+        {
+            int[] bounds = tiles != null ? tiles.bounds() : null;
+            if (bounds == null)
+            {
+                return 0;
+            }
+            captureBoundaryChunks(plane, tiles);
+            TileLayer layer = layerForWrite(boundaryLayers, plane);
+            int added = layer != null ? layer.addAll(tiles) : 0;
+            if (added > 0)
+            {
+                markBoundary(plane, bounds[0], bounds[1], bounds[2], bounds[3]);
+            }
+            else
+            {
+                releaseIfEmpty(boundaryLayers, plane);
+            }
+            return added;
+        }
+
+        /**
+         * Unmark every tile of a layer on the given plane.
+         *
+         * @return the number of tiles removed
+         */
+        public int removeTiles(int plane, TileLayer tiles)
+        {
+            int[] bounds = tiles != null ? tiles.bounds() : null;
+            if (bounds == null)
+            {
+                return 0;
+            }
+            captureBoundaryChunks(plane, tiles);
+            TileLayer layer = layerAt(boundaryLayers, plane);
+            int removed = layer != null ? layer.removeAll(tiles) : 0;
+            if (removed > 0)
+            {
+                releaseIfEmpty(boundaryLayers, plane);
+                markBoundary(plane, bounds[0], bounds[1], bounds[2], bounds[3]);
+            }
+            return removed;
+        }
+
+        public void clearInnerTiles()
+        {
+            TileLayer[] old = innerLayers;
+            if (!hasAnyTiles(old))
+            {
+                return;
+            }
+            captureReplace(Constants.MAX_Z, old, null);
+            innerLayers = new TileLayer[Constants.MAX_Z];
+            innerChanged = true;
+            markLayers(old);
+        }
+
+        void replaceBoundaryLayers(TileLayer[] layers)
+        {
+            captureReplace(0, boundaryLayers, layers);
+            markLayers(boundaryLayers);
+            boundaryLayers = layers;
+            markLayers(layers);
+            boundaryChanged = true;
+        }
+
+        void replaceInnerLayers(TileLayer[] layers)
+        {
+            captureReplace(Constants.MAX_Z, innerLayers, layers);
+            markLayers(innerLayers);
+            innerLayers = layers;
+            markLayers(layers);
+            innerChanged = true;
+        }
+
+        /**
+         * XOR a history step into the layers; applying the same step twice restores the tiles.
+         */
+        private void applyDelta(BorderHistory.Delta delta)
+        {
+            int offset = 0;
+            for (int i = 0; i < delta.count; i++)
+            {
+                int slot = delta.slots[i];
+                boolean inner = slot >= Constants.MAX_Z;
+                int plane = inner ? slot - Constants.MAX_Z : slot;
+                TileLayer[] layers = inner ? innerLayers : boundaryLayers;
+                int key = delta.keys[i];
+                long rowMask = delta.rowMasks[i];
+
+                layerForWrite(layers, plane).xorChunk(key, rowMask, delta.words, offset);
+                offset += Long.bitCount(rowMask);
+                releaseIfEmpty(layers, plane);
+
+                int baseX = TileLayer.chunkX(key) << TileLayer.CHUNK_SHIFT;
+                int baseY = TileLayer.chunkY(key) << TileLayer.CHUNK_SHIFT;
+                mark(plane, baseX, baseY + Long.numberOfTrailingZeros(rowMask),
+                    baseX + TileLayer.CHUNK_MASK, baseY + 63 - Long.numberOfLeadingZeros(rowMask));
+                if (inner)
+                {
+                    innerChanged = true;
+                }
+                else
+                {
+                    boundaryChanged = true;
+                }
+            }
+        }
+
+        private BorderHistory.Recorder recorder()
+        {
+            if (!record)
+            {
+                return null;
+            }
+            if (recorder == null)
+            {
+                if (historyGroupOpen)
+                {
+                    // Chunks are captured once per recorder, so a shared one keeps the state from before the group
+                    if (groupRecorder == null)
+                    {
+                        groupRecorder = new BorderHistory.Recorder();
+                    }
+                    recorder = groupRecorder;
+                }
+                else
+                {
+                    recorder = new BorderHistory.Recorder();
+                }
+            }
+            return recorder;
+        }
+
+        private void captureBoundary(int plane, int minX, int minY, int maxX, int maxY)
+        {
+            BorderHistory.Recorder r = plane >= 0 && plane < Constants.MAX_Z && minX <= maxX && minY <= maxY ? recorder() : null;
+            if (r != null)
+            {
+                r.captureRect(plane, boundaryLayers[plane], minX, minY, maxX, maxY);
+            }
+        }
+
+        private void captureBoundaryChunks(int plane, TileLayer tiles)
+        {
+            BorderHistory.Recorder r = plane >= 0 && plane < Constants.MAX_Z ? recorder() : null;
+            if (r != null)
+            {
+                r.captureChunksOf(plane, boundaryLayers[plane], tiles);
+            }
+        }
+
+        /**
+         * Capture every chunk that swapping {@code current} for {@code replacement} can change.
+         */
+        private void captureReplace(int firstSlot, TileLayer[] current, TileLayer[] replacement)
+        {
+            BorderHistory.Recorder r = recorder();
+            if (r == null)
+            {
+                return;
+            }
+            for (int plane = 0; plane < Constants.MAX_Z; plane++)
+            {
+                TileLayer old = layerAt(current, plane);
+                r.captureChunksOf(firstSlot + plane, old, old);
+                r.captureChunksOf(firstSlot + plane, old, layerAt(replacement, plane));
+            }
+        }
+
+        private void markBoundary(int plane, int x0, int y0, int x1, int y1)
+        {
+            boundaryChanged = true;
+            mark(plane, x0, y0, x1, y1);
+        }
+
+        private void mark(int plane, int x0, int y0, int x1, int y1)
+        {
+            planeMask |= 1 << plane;
+            minX = Math.min(minX, x0);
+            minY = Math.min(minY, y0);
+            maxX = Math.max(maxX, x1);
+            maxY = Math.max(maxY, y1);
+        }
+
+        private void markLayers(TileLayer[] layers)
+        {
+            for (int plane = 0; plane < layers.length; plane++)
+            {
+                int[] bounds = layers[plane] != null ? layers[plane].bounds() : null;
+                if (bounds != null)
+                {
+                    mark(plane, bounds[0], bounds[1], bounds[2], bounds[3]);
+                }
+            }
+        }
+
+        private BorderChange toChange()
+        {
+            return new BorderChange(planeMask, minX, minY, maxX, maxY, boundaryChanged, innerChanged, false);
+        }
+    }
+}
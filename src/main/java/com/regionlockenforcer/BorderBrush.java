@@ -0,0 +1,209 @@
+package com.regionlockenforcer;
+
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Drag-to-paint stroke for the border editor.
+ * Samples along the mouse path are joined with straight cell lines and stamped into a pending
+ * layer; the pending tiles are applied to the border as one edit per frame and on mouse-up,
+ * so a fast drag costs one border notification per frame rather than one per mouse event.
+ * The edits of one stroke are grouped into a single undo step.
+ * Whether the stroke paints or erases is decided by the first cell it touches.
+ * {@link #press} and {@link #release} may be called from any thread; everything else runs on the client thread.
+ */
+class BorderBrush
+{
+    enum Target
+    {
+        SCENE,
+        WORLD_MAP
+    }
+
+    // Button state reported by the input thread; the target stays latched until the
+    // client thread has seen the release, so a click shorter than a frame still paints
+    private volatile Target pressedTarget;
+    private volatile boolean held;
+
+    private Border border;
+    private Target target;
+    private int plane;
+    private int cellSize;
+    private boolean erase;
+    private int lastCellX;
+    private int lastCellY;
+    private TileLayer pending = new TileLayer();
+
+    void press(Target target)
+    {
+        pressedTarget = target;
+        held = true;
+    }
+
+    void release()
+    {
+        held = false;
+    }
+
+    Target getPressedTarget()
+    {
+        return pressedTarget;
+    }
+
+    boolean isHeld()
+    {
+        return held;
+    }
+
+    /**
+     * Forget a press that did not start a stroke, even while the button is still held.
+     */
+    void dropPress()
+    {
+        held = false;
+        pressedTarget = null;
+    }
+
+    /**
+     * Forget a press once its release has been handled.
+     */
+    void clearPress()
+    {
+        if (!held)
+        {
+            pressedTarget = null;
+        }
+    }
+
+    boolean isStroking()
+    {
+        return border != null;
+    }
+
+    Target getTarget()
+    {
+        return target;
+    }
+
+    Border getBorder()
+    {
+        return border;
+    }
+
+    /**
+     * Start a stroke at the given tile. Tiles are painted in square cells of {@code cellSize}
+     * aligned to multiples of it; a cell that already has a marked tile starts an erasing stroke.
+     */
+    void begin(Border border, Target target, WorldPoint start, int cellSize)
+    {
+        end();
+        this.border = border;
+        this.target = target;
+        this.plane = start.getPlane();
+        this.cellSize = Math.max(1, cellSize);
+        this.lastCellX = Math.floorDiv(start.getX(), this.cellSize);
+        this.lastCellY = Math.floorDiv(start.getY(), this.cellSize);
+        this.erase = border.hasAnyTileInArea(lastCellX * this.cellSize, lastCellY * this.cellSize, plane, this.cellSize);
+        border.beginHistoryGroup();
+        stamp(lastCellX, lastCellY);
+    }
+
+    /**
+     * Extend the stroke to a new sample, stamping every cell on the straight line from the previous one.
+     * Samples on another plane are ignored.
+     */
+    void moveTo(WorldPoint point)
+    {
+        if (border == null || point == null || point.getPlane() != plane)
+        {
+            return;
+        }
+
+        int cellX = Math.floorDiv(point.getX(), cellSize);
+        int cellY = Math.floorDiv(point.getY(), cellSize);
+        if (cellX == lastCellX && cellY == lastCellY)
+        {
+            return;
+        }
+
+        // Bresenham between cell centres; the start cell was stamped by the previous sample
+        int x = lastCellX;
+        int y = lastCellY;
+        int dx = Math.abs(cellX - x);
+        int dy = -Math.abs(cellY - y);
+        int sx = x < cellX ? 1 : -1;
+        int sy = y < cellY ? 1 : -1;
+        int err = dx + dy;
+        while (x != cellX || y != cellY)
+        {
+            int e2 = 2 * err;
+            if (e2 >= dy)
+            {
+                err += dy;
+                x += sx;
+            }
+            if (e2 <= dx)
+            {
+                err += dx;
+                y += sy;
+            }
+            stamp(x, y);
+        }
+        lastCellX = cellX;
+        lastCellY = cellY;
+    }
+
+    /**
+     * Apply the pending tiles to the border as a single edit, recorded into the stroke's undo step.
+     *
+     * @return true if the border changed
+     */
+    boolean flush()
+    {
+        if (border == null || pending.isEmpty())
+        {
+            return false;
+        }
+
+        TileLayer tiles = pending;
+        pending = new TileLayer();
+        BorderChange change = border.edit(tx ->
+        {
+            if (erase)
+            {
+                tx.removeTiles(plane, tiles);
+            }
+            else
+            {
+                tx.addTiles(plane, tiles);
+            }
+            // Clear inner tiles when boundary changes; one notification covers both
+            tx.clearInnerTiles();
+        });
+        return change != null && change.hasTiles();
+    }
+
+    /**
+     * Flush and finish the current stroke, pushing its undo step.
+     *
+     * @return true if the final flush changed the border
+     */
+    boolean end()
+    {
+        boolean changed = flush();
+        if (border != null)
+        {
+            border.endHistoryGroup();
+        }
+        border = null;
+        target = null;
+        pending.clear();
+        return changed;
+    }
+
+    private void stamp(int cellX, int cellY)
+    {
+        int x = cellX * cellSize;
+        int y = cellY * cellSize;
+        pending.fillRect(x, y, x + cellSize - 1, y + cellSize - 1);
+    }
+}
@@ -0,0 +1,74 @@
+package com.regionlockenforcer;
+
+import lombok.Getter;
+
+/**
+ * Describes one change notification from a {@link Border}: which tile sets changed,
+ * on which planes, and the bounding rectangle of every touched tile.
+ * Listeners can use the rectangle to refresh only the affected part of their caches.
+ */
+@Getter
+public final class BorderChange
+{
+    // Bit per plane with touched tiles
+    private final int planeMask;
+    // Inclusive world-tile bounds of the touched tiles; minX > maxX when no tile was touched
+    private final int minX;
+    private final int minY;
+    private final int maxX;
+    private final int maxY;
+    private final boolean boundaryChanged;
+    private final boolean innerChanged;
+    // Rendering settings (colour, mode, prop style) changed
+    private final boolean styleChanged;
+
+    BorderChange(int planeMask, int minX, int minY, int maxX, int maxY,
+        boolean boundaryChanged, boolean innerChanged, boolean styleChanged)
+    {
+        this.planeMask = planeMask;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.boundaryChanged = boundaryChanged;
+        this.innerChanged = innerChanged;
+        this.styleChanged = styleChanged;
+    }
+
+    static BorderChange style()
+    {
+        return new BorderChange(0, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE,
+            false, false, true);
+    }
+
+    public boolean hasTiles()
+    {
+        return minX <= maxX && minY <= maxY;
+    }
+
+    public boolean affectsPlane(int plane)
+    {
+        return plane >= 0 && plane < 32 && (planeMask & (1 << plane)) != 0;
+    }
+
+    /**
+     * Whether the change touched any tile inside the given inclusive rectangle on the given plane.
+     */
+    public boolean intersects(int plane, int minX, int minY, int maxX, int maxY)
+    {
+        return affectsPlane(plane) && hasTiles()
+            && this.minX <= maxX && this.maxX >= minX
+            && this.minY <= maxY && this.maxY >= minY;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BorderChange{planes=" + Integer.toBinaryString(planeMask)
+            + (hasTiles() ? ", rect=" + minX + "," + minY + ".." + maxX + "," + maxY : "")
+            + (boundaryChanged ? ", boundary" : "")
+            + (innerChanged ? ", inner" : "")
+            + (styleChanged ? ", style" : "")
+            + "}";
+    }
+}
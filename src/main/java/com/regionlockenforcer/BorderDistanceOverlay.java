@@ -0,0 +1,58 @@
+package com.regionlockenforcer;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.client.ui.overlay.OverlayPanel;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LineComponent;
+
+/**
+ * Small panel showing how many steps the player is from the edge of the current region.
+ * The value is read from the plugin, which looks it up once per game tick.
+ */
+@Singleton
+public class BorderDistanceOverlay extends OverlayPanel
+{
+    private static final Color WARNING_COLOR = new Color(255, 80, 80);
+
+    private final RegionLockEnforcerConfig config;
+    RegionLockEnforcerPlugin plugin; // set by plugin.startUp()
+
+    @Inject
+    public BorderDistanceOverlay(RegionLockEnforcerConfig config)
+    {
+        this.config = config;
+        setPosition(OverlayPosition.TOP_LEFT);
+    }
+
+    public void setPlugin(RegionLockEnforcerPlugin p) { this.plugin = p; }
+
+    @Override
+    public Dimension render(Graphics2D graphics)
+    {
+        if (plugin == null || !config.showBorderDistance() || config.disableBorder())
+        {
+            return null;
+        }
+
+        int distance = plugin.getBorderDistance();
+        if (distance <= 0)
+        {
+            return null;
+        }
+
+        int alert = config.borderDistanceAlert();
+        String value = distance >= RegionDistanceField.MAX_DISTANCE
+            ? RegionDistanceField.MAX_DISTANCE + "+"
+            : String.valueOf(distance);
+        panelComponent.getChildren().add(LineComponent.builder()
+            .left("Border")
+            .right(value)
+            .rightColor(alert > 0 && distance <= alert ? WARNING_COLOR : Color.WHITE)
+            .build());
+        return super.render(graphics);
+    }
+}
@@ -0,0 +1,578 @@
+package com.regionlockenforcer;
+
+import net.runelite.api.Constants;
+
+/**
+ * Live answer to "would Finish succeed?" for a border's marked tiles, kept up to date edit by edit.
+ * Per plane, the marked tiles' 8-connected components are tracked with a union-find and their
+ * Euler number with 2x2 bit-quad counts. The number of enclosed areas (4-connected pockets the
+ * finish flood fill cannot reach) is then components minus Euler number, with no flood fill.
+ * Marking a tile costs a few unions and quad updates. Unmarking one costs the same unless it was
+ * the only link between its neighbours; a search bounded by the smaller side (or the distance the
+ * neighbours are apart) then tells whether they split. Only when that search runs past its limit,
+ * as when cutting a large closed outline, are the plane's components recounted from its marked
+ * tiles on the next query. Line ends (tiles with one marked neighbour) are kept as the likely
+ * leaks of an open outline. Client thread only.
+ */
+final class BorderEnclosure
+{
+    // Neighbour offsets in ring order: N, NE, E, SE, S, SW, W, NW
+    private static final int[] RING_DX = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final int[] RING_DY = {1, 1, 0, -1, -1, -1, 0, 1};
+    // Number of 8-connected groups formed by each combination of marked ring neighbours
+    private static final byte[] RING_COMPONENTS = new byte[256];
+
+    // Dirty rectangles larger than this (beyond the plane's tile count) are resynced from scratch
+    private static final int MAX_DIFF_AREA = 1 << 12;
+    // Tiles the split search after an unmark may visit before leaving the plane to a recount
+    private static final int MAX_SPLIT_SEARCH = 1 << 12;
+
+    static
+    {
+        for (int mask = 0; mask < 256; mask++)
+        {
+            int[] group = new int[8];
+            for (int i = 0; i < 8; i++)
+            {
+                group[i] = i;
+            }
+            int count = Integer.bitCount(mask);
+            for (int i = 0; i < 8; i++)
+            {
+                for (int j = i + 1; j < 8; j++)
+                {
+                    if ((mask & (1 << i)) == 0 || (mask & (1 << j)) == 0
+                        || Math.abs(RING_DX[i] - RING_DX[j]) > 1 || Math.abs(RING_DY[i] - RING_DY[j]) > 1)
+                    {
+                        continue;
+                    }
+                    int a = group[i];
+                    int b = group[j];
+                    if (a != b)
+                    {
+                        for (int k = 0; k < 8; k++)
+                        {
+                            if (group[k] == b)
+                            {
+                                group[k] = a;
+                            }
+                        }
+                        count--;
+                    }
+                }
+            }
+            RING_COMPONENTS[mask] = (byte) count;
+        }
+    }
+
+    private final Border border;
+    private final Plane[] planes = new Plane[Constants.MAX_Z];
+
+    BorderEnclosure(Border border)
+    {
+        this.border = border;
+        for (int plane = 0; plane < planes.length; plane++)
+        {
+            resync(plane);
+        }
+    }
+
+    /**
+     * Apply a change of the border's marked tiles: tiles in the dirty rectangle are compared with
+     * the tracked ones, or the plane is rebuilt when the rectangle is large.
+     */
+    void update(BorderChange change)
+    {
+        if (!change.isBoundaryChanged() || !change.hasTiles())
+        {
+            return;
+        }
+        for (int plane = 0; plane < planes.length; plane++)
+        {
+            if (!change.affectsPlane(plane))
+            {
+                continue;
+            }
+            TileLayer layer = border.getBoundaryLayer(plane);
+            Plane state = planes[plane];
+            long area = (long) (change.getMaxX() - change.getMinX() + 1) * (change.getMaxY() - change.getMinY() + 1);
+            if (area > MAX_DIFF_AREA + (layer != null ? layer.size() : 0))
+            {
+                resync(plane);
+                continue;
+            }
+            for (int y = change.getMinY(); y <= change.getMaxY(); y++)
+            {
+                for (int x = change.getMinX(); x <= change.getMaxX(); x++)
+                {
+                    boolean marked = layer != null && layer.contains(x, y);
+                    if (marked != state.isMarked(x, y))
+                    {
+                        if (marked)
+                        {
+                            state.add(x, y);
+                        }
+                        else
+                        {
+                            state.remove(x, y);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether every plane with marked tiles encloses at least one area, i.e. Finish would succeed.
+     * False when nothing is marked.
+     */
+    boolean isClosed()
+    {
+        boolean any = false;
+        for (int plane = 0; plane < planes.length; plane++)
+        {
+            Plane state = planes[plane];
+            if (state.tileCount == 0)
+            {
+                continue;
+            }
+            if (state.enclosedAreas(border.getBoundaryLayer(plane)) <= 0)
+            {
+                return false;
+            }
+            any = true;
+        }
+        return any;
+    }
+
+    /**
+     * Whether the marked tiles on the plane enclose at least one area.
+     */
+    boolean isClosed(int plane)
+    {
+        return getEnclosedAreas(plane) > 0;
+    }
+
+    /**
+     * Number of separate areas the marked tiles on the plane enclose.
+     */
+    int getEnclosedAreas(int plane)
+    {
+        if (plane < 0 || plane >= planes.length || planes[plane].tileCount == 0)
+        {
+            return 0;
+        }
+        return planes[plane].enclosedAreas(border.getBoundaryLayer(plane));
+    }
+
+    /**
+     * Line ends on the plane: marked tiles with exactly one marked neighbour, where an open outline
+     * usually has its gap.
+     */
+    TileLayer getLeaks(int plane)
+    {
+        return plane >= 0 && plane < planes.length ? planes[plane].leaks : null;
+    }
+
+    private void resync(int plane)
+    {
+        Plane state = new Plane();
+        TileLayer layer = border.getBoundaryLayer(plane);
+        if (layer != null)
+        {
+            layer.forEach(state::add);
+        }
+        planes[plane] = state;
+    }
+
+    private static final class Plane
+    {
+        // Union-find node of each marked tile, per 64x64 chunk, stored as node + 1 (0 = unmarked)
+        private final IntObjectMap<int[]> nodes = new IntObjectMap<>();
+        private int[] parent = new int[64];
+        private int[] setSize = new int[64];
+        private int nodeCount;
+        private int tileCount;
+        private int components;
+        private boolean componentsStale;
+        // Sum over all 2x2 quads of (one marked) - (three marked) - 2 * (two marked diagonally):
+        // four times the Euler number of the marked tiles under 8-connectivity
+        private int quadSum;
+        private final TileLayer leaks = new TileLayer();
+
+        int enclosedAreas(TileLayer layer)
+        {
+            if (componentsStale)
+            {
+                recount(layer);
+            }
+            return components - quadSum / 4;
+        }
+
+        boolean isMarked(int x, int y)
+        {
+            return node(x, y) >= 0;
+        }
+
+        void add(int x, int y)
+        {
+            quadSum -= quadsAround(x, y);
+            int node = newNode();
+            setNode(x, y, node);
+            quadSum += quadsAround(x, y);
+            tileCount++;
+            components++;
+
+            for (int i = 0; i < 8; i++)
+            {
+                int neighbour = node(x + RING_DX[i], y + RING_DY[i]);
+                if (neighbour >= 0 && union(node, neighbour))
+                {
+                    components--;
+                }
+            }
+            updateLeaks(x, y);
+        }
+
+        void remove(int x, int y)
+        {
+            quadSum -= quadsAround(x, y);
+            setNode(x, y, -1);
+            quadSum += quadsAround(x, y);
+            tileCount--;
+
+            // The old node may stay in the union-find: it is only skipped when the neighbours
+            // remain connected without it, so it never joins sets that are really apart
+            int groups = RING_COMPONENTS[ringMask(x, y)];
+            if (groups == 0)
+            {
+                components--;
+            }
+            else if (groups > 1 && !componentsStale && !splitLocally(x, y))
+            {
+                // Split is possible but too costly to settle here: recount when asked
+                componentsStale = true;
+            }
+            if (nodeCount > 2 * tileCount + 64)
+            {
+                // Too many dropped nodes have piled up
+                componentsStale = true;
+            }
+            updateLeaks(x, y);
+        }
+
+        /**
+         * Settle whether the marked neighbours of an unmarked tile are still connected. One
+         * breadth-first search per neighbour group runs in lockstep and searches that meet are merged;
+         * a search that runs out of tiles has walked a component that split off, which is moved to a
+         * fresh union-find node.
+         *
+         * @return false if the searches visited too many tiles to finish
+         */
+        private boolean splitLocally(int x, int y)
+        {
+            long[] seeds = new long[8];
+            int count = 0;
+            for (int i = 0; i < 8; i++)
+            {
+                if (isMarked(x + RING_DX[i], y + RING_DY[i]))
+                {
+                    seeds[count++] = pack(x + RING_DX[i], y + RING_DY[i]);
+                }
+            }
+
+            int[] alias = new int[count];
+            boolean[] finished = new boolean[count];
+            java.util.List<java.util.ArrayDeque<Long>> queues = new java.util.ArrayList<>(count);
+            java.util.Map<Long, Integer> owner = new java.util.HashMap<>();
+            for (int s = 0; s < count; s++)
+            {
+                alias[s] = s;
+                queues.add(new java.util.ArrayDeque<>());
+                queues.get(s).add(seeds[s]);
+                owner.put(seeds[s], s);
+            }
+            int live = count;
+            // Neighbours touching each other around the ring start as one search
+            for (int i = 0; i < count; i++)
+            {
+                for (int j = i + 1; j < count; j++)
+                {
+                    if (Math.abs(unpackX(seeds[i]) - unpackX(seeds[j])) <= 1 && Math.abs(unpackY(seeds[i]) - unpackY(seeds[j])) <= 1
+                        && mergeSearch(alias, queues, resolve(alias, i), resolve(alias, j)))
+                    {
+                        live--;
+                    }
+                }
+            }
+
+            int visited = count;
+            while (live > 1)
+            {
+                for (int s = 0; s < count && live > 1; s++)
+                {
+                    if (alias[s] != s || finished[s])
+                    {
+                        continue;
+                    }
+                    java.util.ArrayDeque<Long> queue = queues.get(s);
+                    Long tile = queue.poll();
+                    if (tile == null)
+                    {
+                        // Everything reachable from this group was seen without meeting another group
+                        int node = newNode();
+                        for (java.util.Map.Entry<Long, Integer> entry : owner.entrySet())
+                        {
+                            if (resolve(alias, entry.getValue()) == s)
+                            {
+                                setNode(unpackX(entry.getKey()), unpackY(entry.getKey()), node);
+                            }
+                        }
+                        components++;
+                        finished[s] = true;
+                        live--;
+                        continue;
+                    }
+                    int tx = unpackX(tile);
+                    int ty = unpackY(tile);
+                    for (int i = 0; i < 8; i++)
+                    {
+                        int nx = tx + RING_DX[i];
+                        int ny = ty + RING_DY[i];
+                        if (!isMarked(nx, ny))
+                        {
+                            continue;
+                        }
+                        long key = pack(nx, ny);
+                        Integer other = owner.get(key);
+                        if (other == null)
+                        {
+                            if (++visited > MAX_SPLIT_SEARCH)
+                            {
+                                return false;
+                            }
+                            owner.put(key, s);
+                            queue.add(key);
+                        }
+                        else if (mergeSearch(alias, queues, s, resolve(alias, other)))
+                        {
+                            live--;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Fold search {@code from} into search {@code into}.
+         *
+         * @return true if they were separate searches
+         */
+        private static boolean mergeSearch(int[] alias, java.util.List<java.util.ArrayDeque<Long>> queues, int into, int from)
+        {
+            if (into == from)
+            {
+                return false;
+            }
+            alias[from] = into;
+            queues.get(into).addAll(queues.get(from));
+            queues.get(from).clear();
+            return true;
+        }
+
+        private static int resolve(int[] alias, int search)
+        {
+            while (alias[search] != search)
+            {
+                search = alias[search];
+            }
+            return search;
+        }
+
+        private static long pack(int x, int y)
+        {
+            return ((long) x << 32) | (y & 0xFFFFFFFFL);
+        }
+
+        private static int unpackX(long key)
+        {
+            return (int) (key >> 32);
+        }
+
+        private static int unpackY(long key)
+        {
+            return (int) key;
+        }
+
+        /**
+         * Rebuild the union-find from the marked tiles, dropping nodes of unmarked tiles.
+         */
+        private void recount(TileLayer layer)
+        {
+            nodeCount = 0;
+            components = 0;
+            if (layer != null)
+            {
+                layer.forEach((x, y) -> setNode(x, y, newNode()));
+                components = nodeCount;
+                layer.forEach((x, y) ->
+                {
+                    int node = node(x, y);
+                    for (int i = 0; i < 4; i++)
+                    {
+                        // Half the ring covers every pair once
+                        int neighbour = node(x + RING_DX[i], y + RING_DY[i]);
+                        if (neighbour >= 0 && union(node, neighbour))
+                        {
+                            components--;
+                        }
+                    }
+                });
+            }
+            componentsStale = false;
+        }
+
+        private void updateLeaks(int x, int y)
+        {
+            updateLeak(x, y);
+            for (int i = 0; i < 8; i++)
+            {
+                updateLeak(x + RING_DX[i], y + RING_DY[i]);
+            }
+        }
+
+        private void updateLeak(int x, int y)
+        {
+            if (isMarked(x, y) && Integer.bitCount(ringMask(x, y)) == 1)
+            {
+                leaks.add(x, y);
+            }
+            else
+            {
+                leaks.remove(x, y);
+            }
+        }
+
+        private int ringMask(int x, int y)
+        {
+            int mask = 0;
+            for (int i = 0; i < 8; i++)
+            {
+                if (isMarked(x + RING_DX[i], y + RING_DY[i]))
+                {
+                    mask |= 1 << i;
+                }
+            }
+            return mask;
+        }
+
+        /**
+         * Quad terms of the four 2x2 quads that contain the tile.
+         */
+        private int quadsAround(int x, int y)
+        {
+            return quad(x - 1, y - 1) + quad(x, y - 1) + quad(x - 1, y) + quad(x, y);
+        }
+
+        private int quad(int x, int y)
+        {
+            boolean a = isMarked(x, y);
+            boolean b = isMarked(x + 1, y);
+            boolean c = isMarked(x, y + 1);
+            boolean d = isMarked(x + 1, y + 1);
+            int count = (a ? 1 : 0) + (b ? 1 : 0) + (c ? 1 : 0) + (d ? 1 : 0);
+            if (count == 1)
+            {
+                return 1;
+            }
+            if (count == 3)
+            {
+                return -1;
+            }
+            if (count == 2 && a == d)
+            {
+                return -2;
+            }
+            return 0;
+        }
+
+        private int node(int x, int y)
+        {
+            int[] chunk = nodes.get(TileLayer.chunkKey(x >> TileLayer.CHUNK_SHIFT, y >> TileLayer.CHUNK_SHIFT));
+            return chunk != null ? chunk[index(x, y)] - 1 : -1;
+        }
+
+        private void setNode(int x, int y, int node)
+        {
+            int key = TileLayer.chunkKey(x >> TileLayer.CHUNK_SHIFT, y >> TileLayer.CHUNK_SHIFT);
+            int[] chunk = nodes.get(key);
+            if (chunk == null)
+            {
+                if (node < 0)
+                {
+                    return;
+                }
+                chunk = new int[TileLayer.CHUNK_SIZE * TileLayer.CHUNK_SIZE];
+                nodes.put(key, chunk);
+            }
+            chunk[index(x, y)] = node + 1;
+        }
+
+        private static int index(int x, int y)
+        {
+            return (y & TileLayer.CHUNK_MASK) * TileLayer.CHUNK_SIZE + (x & TileLayer.CHUNK_MASK);
+        }
+
+        private int newNode()
+        {
+            if (nodeCount == parent.length)
+            {
+                parent = java.util.Arrays.copyOf(parent, parent.length * 2);
+                setSize = java.util.Arrays.copyOf(setSize, setSize.length * 2);
+            }
+            parent[nodeCount] = nodeCount;
+            setSize[nodeCount] = 1;
+            return nodeCount++;
+        }
+
+        private int find(int node)
+        {
+            int root = node;
+            while (parent[root] != root)
+            {
+                root = parent[root];
+            }
+            while (parent[node] != root)
+            {
+                int next = parent[node];
+                parent[node] = root;
+                node = next;
+            }
+            return root;
+        }
+
+        /**
+         * @return true if the nodes were in different sets
+         */
+        private boolean union(int a, int b)
+        {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB)
+            {
+                return false;
+            }
+            // Union by size; with path compression each operation is amortized near constant
+            if (setSize[rootA] < setSize[rootB])
+            {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+            parent[rootB] = rootA;
+            setSize[rootA] += setSize[rootB];
+            return true;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.regionlockenforcer;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import javax.swing.SwingUtilities;
+
+/**
+ * Background job that turns a border's marked tiles into a finished border.
+ * Computes the interior (exterior flood fill) and the pruned outline from a snapshot,
+ * so the client thread and the EDT never block on large borders.
+ * Every plane with marked tiles is filled independently and must enclose an area.
+ */
+public class BorderFinishTask
+{
+    private static final byte CELL_OPEN = 0;
+    private static final byte CELL_BOUNDARY = 1;
+    private static final byte CELL_OUTSIDE = 2;
+
+    // Progress is reported per this many processed cells to keep EDT traffic low
+    private static final int PROGRESS_STRIDE = 1 << 16;
+
+    public enum Result
+    {
+        FINISHED,
+        NOT_ENCLOSED,
+        CANCELLED,
+        STALE,
+        FAILED
+    }
+
+    /**
+     * Callbacks are always delivered on the Swing EDT.
+     */
+    public interface Listener
+    {
+        void onProgress(int percent);
+
+        void onFinished(Result result);
+    }
+
+    /**
+     * Interior and pruned outline produced by a successful finish, indexed by plane.
+     */
+    public static final class Outcome
+    {
+        private final TileLayer[] boundaryLayers;
+        private final TileLayer[] innerLayers;
+
+        private Outcome(TileLayer[] boundaryLayers, TileLayer[] innerLayers)
+        {
+            this.boundaryLayers = boundaryLayers;
+            this.innerLayers = innerLayers;
+        }
+
+        public TileLayer[] getBoundaryLayers()
+        {
+            return boundaryLayers;
+        }
+
+        public TileLayer[] getInnerLayers()
+        {
+            return innerLayers;
+        }
+    }
+
+    private final Border border;
+    private final Listener listener;
+    // Taken together on the client thread, so the snapshot always matches its revision
+    private TileLayer[] boundarySnapshot;
+    private int startRevision;
+
+    private volatile boolean cancelled = false;
+    private volatile Future<?> future;
+    private int lastReportedPercent = -1;
+
+    BorderFinishTask(Border border, Listener listener)
+    {
+        this.border = border;
+        this.listener = listener;
+    }
+
+    /**
+     * Snapshot the marked tiles and the revision they belong to. Client thread only, where every
+     * edit happens, and before the task is submitted.
+     */
+    void takeSnapshot()
+    {
+        boundarySnapshot = border.snapshotBoundaryLayers();
+        startRevision = border.getRevision();
+    }
+
+    public Border getBorder()
+    {
+        return border;
+    }
+
+    int getStartRevision()
+    {
+        return startRevision;
+    }
+
+    void setFuture(Future<?> future)
+    {
+        this.future = future;
+        if (cancelled)
+        {
+            // Cancelled while it was being submitted
+            future.cancel(true);
+        }
+    }
+
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * Request cancellation. The worker stops at its next checkpoint and the result is discarded.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+        Future<?> f = future;
+        if (f != null)
+        {
+            f.cancel(true);
+        }
+    }
+
+    /**
+     * Run the computation on the calling (worker) thread.
+     *
+     * @return the finished tiles, or null if the marked tiles on some plane do not enclose any area
+     * @throws CancellationException if the task was cancelled while running
+     */
+    Outcome compute()
+    {
+        reportProgress(0);
+
+        int planeCount = 0;
+        for (TileLayer layer : boundarySnapshot)
+        {
+            if (layer != null)
+            {
+                planeCount++;
+            }
+        }
+        if (planeCount == 0)
+        {
+            return null;
+        }
+
+        TileLayer[] boundaryLayers = new TileLayer[boundarySnapshot.length];
+        TileLayer[] innerLayers = new TileLayer[boundarySnapshot.length];
+        int done = 0;
+        for (int plane = 0; plane < boundarySnapshot.length; plane++)
+        {
+            TileLayer marked = boundarySnapshot[plane];
+            if (marked == null)
+            {
+                continue;
+            }
+
+            int progressBase = done * 100 / planeCount;
+            int progressSpan = 100 / planeCount;
+            TileLayer inner = new TileLayer();
+            TileLayer outline = new TileLayer();
+            if (!finishPlane(marked, inner, outline, progressBase, progressSpan))
+            {
+                return null;
+            }
+            boundaryLayers[plane] = outline;
+            innerLayers[plane] = inner;
+            done++;
+        }
+        checkpoint(100);
+
+        return new Outcome(boundaryLayers, innerLayers);
+    }
+
+    /**
+     * Flood fill one plane.
+     *
+     * @return false if the marked tiles on this plane do not enclose any area
+     */
+    private boolean finishPlane(TileLayer marked, TileLayer inner, TileLayer outline, int progressBase, int progressSpan)
+    {
+        int[] bounds = marked.bounds();
+        if (bounds == null)
+        {
+            return false;
+        }
+
+        // Pad by one tile so the exterior always surrounds the shape
+        final int baseX = bounds[0] - 1;
+        final int baseY = bounds[1] - 1;
+        final int width = bounds[2] - bounds[0] + 3;
+        int height = bounds[3] - bounds[1] + 3;
+        if (width <= 2 || height <= 2)
+        {
+            return false;
+        }
+
+        int cellCount = width * height;
+        byte[] cells = new byte[cellCount];
+        marked.forEach((x, y) -> cells[(y - baseY) * width + (x - baseX)] = CELL_BOUNDARY);
+
+        // Exterior flood fill from the padded frame (70% of the work)
+        int[] queue = new int[cellCount];
+        int head = 0;
+        int tail = 0;
+        for (int x = 0; x < width; x++)
+        {
+            tail = markOutside(cells, queue, tail, x);
+            tail = markOutside(cells, queue, tail, (height - 1) * width + x);
+        }
+        for (int y = 1; y < height - 1; y++)
+        {
+            tail = markOutside(cells, queue, tail, y * width);
+            tail = markOutside(cells, queue, tail, y * width + width - 1);
+        }
+
+        while (head < tail)
+        {
+            int index = queue[head++];
+            if ((head & (PROGRESS_STRIDE - 1)) == 0)
+            {
+                checkpoint(progressBase + head * (progressSpan * 70L / 100) / cellCount);
+            }
+
+            int x = index % width;
+            if (x + 1 < width)
+            {
+                tail = markOutside(cells, queue, tail, index + 1);
+            }
+            if (x > 0)
+            {
+                tail = markOutside(cells, queue, tail, index - 1);
+            }
+            if (index + width < cellCount)
+            {
+                tail = markOutside(cells, queue, tail, index + width);
+            }
+            if (index - width >= 0)
+            {
+                tail = markOutside(cells, queue, tail, index - width);
+            }
+        }
+        queue = null;
+
+        // Collect the interior (70% - 90%)
+        for (int y = 1; y < height - 1; y++)
+        {
+            checkpoint(progressBase + (progressSpan * 70L / 100) + (long) y * (progressSpan * 20L / 100) / height);
+            int row = y * width;
+            for (int x = 1; x < width - 1; x++)
+            {
+                if (cells[row + x] == CELL_OPEN)
+                {
+                    inner.add(baseX + x, baseY + y);
+                }
+            }
+        }
+
+        if (inner.isEmpty())
+        {
+            return false;
+        }
+
+        // Keep only marked tiles that touch the exterior (90% - 100%).
+        // The padded frame guarantees every neighbour index is in range.
+        marked.forEach((x, y) ->
+        {
+            int index = (y - baseY) * width + (x - baseX);
+            if (cells[index + 1] == CELL_OUTSIDE
+                || cells[index - 1] == CELL_OUTSIDE
+                || cells[index + width] == CELL_OUTSIDE
+                || cells[index - width] == CELL_OUTSIDE)
+            {
+                outline.add(x, y);
+            }
+        });
+        checkpoint(progressBase + progressSpan);
+
+        return true;
+    }
+
+    private static int markOutside(byte[] cells, int[] queue, int tail, int index)
+    {
+        if (cells[index] != CELL_OPEN)
+        {
+            return tail;
+        }
+        cells[index] = CELL_OUTSIDE;
+        queue[tail] = index;
+        return tail + 1;
+    }
+
+    private void checkpoint(long percent)
+    {
+        if (cancelled || Thread.currentThread().isInterrupted())
+        {
+            throw new CancellationException();
+        }
+        reportProgress((int) percent);
+    }
+
+    private void reportProgress(int percent)
+    {
+        if (listener == null || percent == lastReportedPercent)
+        {
+            return;
+        }
+        lastReportedPercent = percent;
+        SwingUtilities.invokeLater(() -> listener.onProgress(percent));
+    }
+
+    void complete(Result result)
+    {
+        if (listener != null)
+        {
+            SwingUtilities.invokeLater(() -> listener.onFinished(result));
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.regionlockenforcer;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import net.runelite.api.Constants;
+
+/**
+ * Undo/redo history of one border, kept as compact chunk deltas.
+ * An entry stores, per touched 64x64 chunk, only the rows that changed as old XOR new words,
+ * so the same entry undoes and redoes a step in O(changed words) and a single tile toggle costs one word.
+ * The history is capped by entry count and total words; the oldest steps are dropped first.
+ */
+final class BorderHistory
+{
+    static final int MAX_ENTRIES = 200;
+    // Row words kept per border across undo and redo (8 MiB)
+    static final int MAX_WORDS = 1 << 20;
+
+    // Layer slots: boundary planes first, then inner planes
+    static final int SLOTS = Constants.MAX_Z * 2;
+
+    private static final long[] EMPTY_CHUNK = new long[TileLayer.CHUNK_SIZE];
+
+    /**
+     * One undoable step. Chunk {@code i} lives in layer slot {@code slots[i]} at {@code keys[i]};
+     * its changed rows are the set bits of {@code rowMasks[i]}, with their XOR words packed in order.
+     */
+    static final class Delta
+    {
+        final int count;
+        final byte[] slots;
+        final int[] keys;
+        final long[] rowMasks;
+        final long[] words;
+
+        private Delta(int count, byte[] slots, int[] keys, long[] rowMasks, long[] words)
+        {
+            this.count = count;
+            this.slots = slots;
+            this.keys = keys;
+            this.rowMasks = rowMasks;
+            this.words = words;
+        }
+
+        int weight()
+        {
+            // Chunk headers count as two words (key and row mask)
+            return words.length + count * 2;
+        }
+    }
+
+    /**
+     * Captures the prior state of every chunk an edit touches, then diffs it into a {@link Delta}.
+     * Each chunk is copied once per edit, before its first write.
+     */
+    static final class Recorder
+    {
+        @SuppressWarnings("unchecked")
+        private final IntObjectMap<long[]>[] before = new IntObjectMap[SLOTS];
+        private byte[] slots = new byte[16];
+        private int[] keys = new int[16];
+        private int count;
+
+        void capture(int slot, TileLayer layer, int key)
+        {
+            IntObjectMap<long[]> seen = before[slot];
+            if (seen == null)
+            {
+                seen = new IntObjectMap<>();
+                before[slot] = seen;
+            }
+            else if (seen.get(key) != null)
+            {
+                return;
+            }
+
+            long[] rows = layer != null ? layer.copyChunk(key) : null;
+            seen.put(key, rows != null ? rows : EMPTY_CHUNK);
+            if (count == keys.length)
+            {
+                slots = Arrays.copyOf(slots, count * 2);
+                keys = Arrays.copyOf(keys, count * 2);
+            }
+            slots[count] = (byte) slot;
+            keys[count] = key;
+            count++;
+        }
+
+        void captureRect(int slot, TileLayer layer, int minX, int minY, int maxX, int maxY)
+        {
+            for (int cy = minY >> TileLayer.CHUNK_SHIFT; cy <= maxY >> TileLayer.CHUNK_SHIFT; cy++)
+            {
+                for (int cx = minX >> TileLayer.CHUNK_SHIFT; cx <= maxX >> TileLayer.CHUNK_SHIFT; cx++)
+                {
+                    capture(slot, layer, TileLayer.chunkKey(cx, cy));
+                }
+            }
+        }
+
+        /**
+         * Capture the chunks of {@code layer} that also appear in {@code keysFrom}.
+         */
+        void captureChunksOf(int slot, TileLayer layer, TileLayer keysFrom)
+        {
+            if (keysFrom == null)
+            {
+                return;
+            }
+            for (int key : keysFrom.chunkKeys())
+            {
+                capture(slot, layer, key);
+            }
+        }
+
+        /**
+         * Diff the captured chunks against the current layers.
+         *
+         * @return the delta, or null if no word changed
+         */
+        Delta finish(TileLayer[] boundaryLayers, TileLayer[] innerLayers)
+        {
+            byte[] outSlots = new byte[count];
+            int[] outKeys = new int[count];
+            long[] outMasks = new long[count];
+            long[] outWords = new long[Math.max(16, count)];
+            int chunks = 0;
+            int words = 0;
+
+            for (int i = 0; i < count; i++)
+            {
+                int slot = slots[i];
+                long[] old = before[slot].get(keys[i]);
+                TileLayer layer = layerFor(slot, boundaryLayers, innerLayers);
+                long[] now = layer != null ? layer.chunkAt(keys[i]) : null;
+                if (now == null)
+                {
+                    now = EMPTY_CHUNK;
+                }
+
+                long mask = 0;
+                for (int row = 0; row < TileLayer.CHUNK_SIZE; row++)
+                {
+                    long xor = old[row] ^ now[row];
+                    if (xor == 0)
+                    {
+                        continue;
+                    }
+                    if (words == outWords.length)
+                    {
+                        outWords = Arrays.copyOf(outWords, words * 2);
+                    }
+                    outWords[words++] = xor;
+                    mask |= 1L << row;
+                }
+
+                if (mask != 0)
+                {
+                    outSlots[chunks] = (byte) slot;
+                    outKeys[chunks] = keys[i];
+                    outMasks[chunks] = mask;
+                    chunks++;
+                }
+            }
+
+            if (chunks == 0)
+            {
+                return null;
+            }
+            return new Delta(chunks, Arrays.copyOf(outSlots, chunks), Arrays.copyOf(outKeys, chunks),
+                Arrays.copyOf(outMasks, chunks), Arrays.copyOf(outWords, words));
+        }
+    }
+
+    private final ArrayDeque<Delta> undo = new ArrayDeque<>();
+    private final ArrayDeque<Delta> redo = new ArrayDeque<>();
+    private int words;
+
+    static TileLayer layerFor(int slot, TileLayer[] boundaryLayers, TileLayer[] innerLayers)
+    {
+        return slot < Constants.MAX_Z ? boundaryLayers[slot] : innerLayers[slot - Constants.MAX_Z];
+    }
+
+    /**
+     * Record a new step. Any redo steps are discarded.
+     */
+    void push(Delta delta)
+    {
+        for (Delta dropped : redo)
+        {
+            words -= dropped.weight();
+        }
+        redo.clear();
+
+        if (delta.weight() > MAX_WORDS)
+        {
+            // Older steps cannot be undone without this one
+            clear();
+            return;
+        }
+
+        undo.addLast(delta);
+        words += delta.weight();
+        while (!undo.isEmpty() && (undo.size() + redo.size() > MAX_ENTRIES || words > MAX_WORDS))
+        {
+            words -= undo.pollFirst().weight();
+        }
+    }
+
+    /**
+     * @return the step to undo, now moved to the redo stack, or null
+     */
+    Delta popUndo()
+    {
+        Delta delta = undo.pollLast();
+        if (delta != null)
+        {
+            redo.addLast(delta);
+        }
+        return delta;
+    }
+
+    /**
+     * @return the step to redo, now moved back to the undo stack, or null
+     */
+    Delta popRedo()
+    {
+        Delta delta = redo.pollLast();
+        if (delta != null)
+        {
+            undo.addLast(delta);
+        }
+        return delta;
+    }
+
+    boolean canUndo()
+    {
+        return !undo.isEmpty();
+    }
+
+    boolean canRedo()
+    {
+        return !redo.isEmpty();
+    }
+
+    void clear()
+    {
+        undo.clear();
+        redo.clear();
+        words = 0;
+    }
+}
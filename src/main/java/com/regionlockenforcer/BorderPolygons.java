@@ -0,0 +1,545 @@
+package com.regionlockenforcer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.runelite.api.Constants;
+
+/**
+ * Vector form of a border's area: rectilinear rings per plane, in tile-corner coordinates
+ * (corner (x, y) is the south-west corner of tile (x, y)). Outer rings run counter-clockwise
+ * and holes clockwise; a tile is inside when its centre is inside under the even-odd rule.
+ * Containment and rasterization use a scanline edge table of the vertical edges, built per plane on first use.
+ * Instances are immutable.
+ */
+public final class BorderPolygons
+{
+    private static final int[] DX = {1, 0, -1, 0};
+    private static final int[] DY = {0, 1, 0, -1};
+
+    // Tile-corner coordinates of world tiles lie within [0, WORLD_SIZE] on both axes
+    static final int WORLD_SIZE = 1 << 15;
+    // Most vertices accepted from untrusted rings; the edge table takes time quadratic in the count
+    static final int MAX_VERTICES = 1 << 16;
+
+    /**
+     * Receives polygon edges as corner coordinates.
+     */
+    public interface SegmentVisitor
+    {
+        void visit(int x0, int y0, int x1, int y1);
+    }
+
+    /**
+     * Horizontal slabs between consecutive vertex rows, each with the sorted x of the vertical edges crossing it.
+     */
+    private static final class EdgeTable
+    {
+        final int[] ys;
+        final int[][] crossings;
+
+        EdgeTable(int[] ys, int[][] crossings)
+        {
+            this.ys = ys;
+            this.crossings = crossings;
+        }
+    }
+
+    // Rings per plane as interleaved x, y corner coordinates
+    private final List<List<int[]>> rings;
+    private final EdgeTable[] tables = new EdgeTable[Constants.MAX_Z];
+
+    private BorderPolygons(List<List<int[]>> rings)
+    {
+        this.rings = rings;
+    }
+
+    /**
+     * Build from rings given per plane (list index = plane). Rings are not copied.
+     */
+    public static BorderPolygons fromRings(List<List<int[]>> ringsByPlane)
+    {
+        List<List<int[]>> rings = new ArrayList<>(Constants.MAX_Z);
+        for (int plane = 0; plane < Constants.MAX_Z; plane++)
+        {
+            List<int[]> planeRings = new ArrayList<>();
+            if (ringsByPlane != null && plane < ringsByPlane.size() && ringsByPlane.get(plane) != null)
+            {
+                for (int[] ring : ringsByPlane.get(plane))
+                {
+                    if (ring != null && ring.length >= 8 && (ring.length & 1) == 0)
+                    {
+                        planeRings.add(ring);
+                    }
+                }
+            }
+            rings.add(planeRings);
+        }
+        return new BorderPolygons(rings);
+    }
+
+    /**
+     * Check rings from an untrusted source, such as an imported file, before they are rasterized:
+     * every ring needs at least four vertices inside the world, every edge (including the closing
+     * one) must be horizontal or vertical, and all planes together may hold at most
+     * {@link #MAX_VERTICES} vertices.
+     *
+     * @throws IllegalArgumentException describing the first ring that fails
+     */
+    public static void validateRings(List<List<int[]>> ringsByPlane)
+    {
+        if (ringsByPlane == null)
+        {
+            return;
+        }
+        long vertices = 0;
+        for (int plane = 0; plane < ringsByPlane.size(); plane++)
+        {
+            List<int[]> planeRings = ringsByPlane.get(plane);
+            if (planeRings == null || planeRings.isEmpty())
+            {
+                continue;
+            }
+            if (plane >= Constants.MAX_Z)
+            {
+                throw new IllegalArgumentException("Rings on invalid plane " + plane);
+            }
+            for (int[] ring : planeRings)
+            {
+                if (ring == null || ring.length < 8 || (ring.length & 1) != 0)
+                {
+                    throw new IllegalArgumentException("Ring on plane " + plane + " is not a list of at least four corners");
+                }
+                vertices += ring.length / 2;
+                if (vertices > MAX_VERTICES)
+                {
+                    throw new IllegalArgumentException("Rings have more than " + MAX_VERTICES + " vertices");
+                }
+                int n = ring.length;
+                for (int i = 0; i < n; i += 2)
+                {
+                    int x0 = ring[i];
+                    int y0 = ring[i + 1];
+                    int x1 = ring[(i + 2) % n];
+                    int y1 = ring[(i + 3) % n];
+                    if (x0 < 0 || y0 < 0 || x0 > WORLD_SIZE || y0 > WORLD_SIZE)
+                    {
+                        throw new IllegalArgumentException("Corner (" + x0 + ", " + y0 + ") on plane " + plane + " is outside the world");
+                    }
+                    if (x0 != x1 && y0 != y1)
+                    {
+                        throw new IllegalArgumentException("Edge (" + x0 + ", " + y0 + ") to (" + x1 + ", " + y1
+                            + ") on plane " + plane + " is not horizontal or vertical");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Trace the outline of an area, per plane, into rings with one vertex per corner.
+     */
+    public static BorderPolygons trace(TileLayer[] area)
+    {
+        List<List<int[]>> rings = new ArrayList<>(Constants.MAX_Z);
+        for (int plane = 0; plane < Constants.MAX_Z; plane++)
+        {
+            TileLayer layer = area != null && plane < area.length ? area[plane] : null;
+            rings.add(layer != null && !layer.isEmpty() ? tracePlane(layer) : new ArrayList<>());
+        }
+        return new BorderPolygons(rings);
+    }
+
+    public List<int[]> getRings(int plane)
+    {
+        if (plane < 0 || plane >= rings.size())
+        {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(rings.get(plane));
+    }
+
+    public boolean isEmpty()
+    {
+        for (List<int[]> planeRings : rings)
+        {
+            if (!planeRings.isEmpty())
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getVertexCount()
+    {
+        int count = 0;
+        for (List<int[]> planeRings : rings)
+        {
+            for (int[] ring : planeRings)
+            {
+                count += ring.length / 2;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Whether the tile's centre lies inside the polygons on its plane.
+     */
+    public boolean contains(int x, int y, int plane)
+    {
+        EdgeTable table = table(plane);
+        if (table == null)
+        {
+            return false;
+        }
+        int[] ys = table.ys;
+        if (y < ys[0] || y >= ys[ys.length - 1])
+        {
+            return false;
+        }
+        // Slab with ys[slab] <= y < ys[slab + 1]
+        int slab = upperBound(ys, y) - 1;
+        // Edges at or left of x are crossed by a ray from the centre x + 0.5 towards -x
+        return (upperBound(table.crossings[slab], x) & 1) == 1;
+    }
+
+    public void forEachSegment(int plane, SegmentVisitor visitor)
+    {
+        forEachSegmentInRange(plane, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, visitor);
+    }
+
+    /**
+     * Visit the edges on a plane whose bounding box meets the inclusive corner rectangle.
+     */
+    public void forEachSegmentInRange(int plane, int minX, int minY, int maxX, int maxY, SegmentVisitor visitor)
+    {
+        if (plane < 0 || plane >= rings.size())
+        {
+            return;
+        }
+        for (int[] ring : rings.get(plane))
+        {
+            int n = ring.length;
+            for (int i = 0; i < n; i += 2)
+            {
+                int x0 = ring[i];
+                int y0 = ring[i + 1];
+                int x1 = ring[(i + 2) % n];
+                int y1 = ring[(i + 3) % n];
+                if (Math.max(x0, x1) >= minX && Math.min(x0, x1) <= maxX
+                    && Math.max(y0, y1) >= minY && Math.min(y0, y1) <= maxY)
+                {
+                    visitor.visit(x0, y0, x1, y1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fill the tiles inside the polygons, one span per edge-table slab and crossing pair.
+     *
+     * @return layers per plane, with null for planes without tiles
+     */
+    public TileLayer[] rasterize()
+    {
+        TileLayer[] layers = new TileLayer[Constants.MAX_Z];
+        for (int plane = 0; plane < layers.length; plane++)
+        {
+            EdgeTable table = table(plane);
+            if (table == null)
+            {
+                continue;
+            }
+            TileLayer layer = new TileLayer();
+            for (int slab = 0; slab < table.crossings.length; slab++)
+            {
+                int[] xs = table.crossings[slab];
+                for (int k = 0; k + 1 < xs.length; k += 2)
+                {
+                    layer.fillRect(xs[k], table.ys[slab], xs[k + 1] - 1, table.ys[slab + 1] - 1);
+                }
+            }
+            if (!layer.isEmpty())
+            {
+                layers[plane] = layer;
+            }
+        }
+        return layers;
+    }
+
+    private EdgeTable table(int plane)
+    {
+        if (plane < 0 || plane >= rings.size() || rings.get(plane).isEmpty())
+        {
+            return null;
+        }
+        EdgeTable table = tables[plane];
+        if (table == null)
+        {
+            table = buildTable(rings.get(plane));
+            tables[plane] = table;
+        }
+        return table;
+    }
+
+    private static EdgeTable buildTable(List<int[]> planeRings)
+    {
+        // Vertical edges as (x, lowY, highY)
+        int edgeCount = 0;
+        for (int[] ring : planeRings)
+        {
+            edgeCount += ring.length / 2;
+        }
+        int[] ex = new int[edgeCount];
+        int[] ey0 = new int[edgeCount];
+        int[] ey1 = new int[edgeCount];
+        int[] ys = new int[edgeCount * 2];
+        int edges = 0;
+        int yCount = 0;
+        for (int[] ring : planeRings)
+        {
+            int n = ring.length;
+            for (int i = 0; i < n; i += 2)
+            {
+                int x0 = ring[i];
+                int y0 = ring[i + 1];
+                int x1 = ring[(i + 2) % n];
+                int y1 = ring[(i + 3) % n];
+                if (x0 == x1 && y0 != y1)
+                {
+                    ex[edges] = x0;
+                    ey0[edges] = Math.min(y0, y1);
+                    ey1[edges] = Math.max(y0, y1);
+                    ys[yCount++] = y0;
+                    ys[yCount++] = y1;
+                    edges++;
+                }
+            }
+        }
+
+        int[] sortedYs = distinctSorted(ys, yCount);
+        int[][] crossings = new int[Math.max(0, sortedYs.length - 1)][];
+        int[] buffer = new int[edges];
+        for (int slab = 0; slab < crossings.length; slab++)
+        {
+            int lo = sortedYs[slab];
+            int hi = sortedYs[slab + 1];
+            int count = 0;
+            for (int e = 0; e < edges; e++)
+            {
+                if (ey0[e] <= lo && ey1[e] >= hi)
+                {
+                    buffer[count++] = ex[e];
+                }
+            }
+            int[] xs = Arrays.copyOf(buffer, count);
+            Arrays.sort(xs);
+            crossings[slab] = xs;
+        }
+        return new EdgeTable(sortedYs, crossings);
+    }
+
+    private static List<int[]> tracePlane(TileLayer layer)
+    {
+        // Unit edges only occur on outline tiles; interior tiles have all four neighbours
+        TileLayer outline = layer.copy();
+        outline.removeAll(layer.interior());
+
+        // Directed unit edges with the area on their left
+        int[][] edges = {new int[256], new int[256], new int[256]};
+        int[] count = {0};
+        outline.forEach((x, y) ->
+        {
+            if (!layer.contains(x, y - 1))
+            {
+                addEdge(edges, count, x, y, 0);
+            }
+            if (!layer.contains(x + 1, y))
+            {
+                addEdge(edges, count, x + 1, y, 1);
+            }
+            if (!layer.contains(x, y + 1))
+            {
+                addEdge(edges, count, x + 1, y + 1, 2);
+            }
+            if (!layer.contains(x - 1, y))
+            {
+                addEdge(edges, count, x, y + 1, 3);
+            }
+        });
+
+        int n = count[0];
+        int[] ex = edges[0];
+        int[] ey = edges[1];
+        int[] ed = edges[2];
+
+        // Edges sorted by start corner, for lookup of the outgoing edges at a corner
+        long[] byStart = new long[n];
+        for (int i = 0; i < n; i++)
+        {
+            byStart[i] = (cornerKey(ex[i], ey[i]) << 32) | i;
+        }
+        Arrays.sort(byStart);
+
+        List<int[]> rings = new ArrayList<>();
+        boolean[] used = new boolean[n];
+        int[] ringDirs = new int[Math.max(16, n)];
+        int[] ringXs = new int[Math.max(16, n)];
+        int[] ringYs = new int[Math.max(16, n)];
+        for (int start = 0; start < n; start++)
+        {
+            if (used[start])
+            {
+                continue;
+            }
+
+            int length = 0;
+            int edge = start;
+            while (true)
+            {
+                used[edge] = true;
+                ringXs[length] = ex[edge];
+                ringYs[length] = ey[edge];
+                ringDirs[length] = ed[edge];
+                length++;
+
+                int next = nextEdge(byStart, ex, ey, ed, ex[edge] + DX[ed[edge]], ey[edge] + DY[ed[edge]], ed[edge]);
+                if (next < 0 || next == start || used[next])
+                {
+                    break;
+                }
+                edge = next;
+            }
+
+            // Keep only corners where the direction changes
+            int corners = 0;
+            for (int i = 0; i < length; i++)
+            {
+                if (ringDirs[i] != ringDirs[(i + length - 1) % length])
+                {
+                    corners++;
+                }
+            }
+            if (corners < 4)
+            {
+                continue;
+            }
+            int[] ring = new int[corners * 2];
+            int k = 0;
+            for (int i = 0; i < length; i++)
+            {
+                if (ringDirs[i] != ringDirs[(i + length - 1) % length])
+                {
+                    ring[k++] = ringXs[i];
+                    ring[k++] = ringYs[i];
+                }
+            }
+            rings.add(ring);
+        }
+        return rings;
+    }
+
+    /**
+     * Outgoing edge at a corner, preferring a left turn so that tiles touching only diagonally
+     * end up in separate rings (matching the four-way flood fill used to finish borders).
+     */
+    private static int nextEdge(long[] byStart, int[] ex, int[] ey, int[] ed, int x, int y, int dir)
+    {
+        long key = cornerKey(x, y);
+        int lo = lowerBound(byStart, key << 32);
+        int best = -1;
+        int bestRank = Integer.MAX_VALUE;
+        for (int i = lo; i < byStart.length && (byStart[i] >>> 32) == key; i++)
+        {
+            int edge = (int) byStart[i];
+            // 0 = left, 1 = straight, 2 = right
+            int rank = (dir - ed[edge] + 5) & 3;
+            if (rank < bestRank)
+            {
+                bestRank = rank;
+                best = edge;
+            }
+        }
+        return best;
+    }
+
+    private static void addEdge(int[][] edges, int[] count, int x, int y, int dir)
+    {
+        int i = count[0];
+        if (i == edges[0].length)
+        {
+            for (int k = 0; k < edges.length; k++)
+            {
+                edges[k] = Arrays.copyOf(edges[k], i * 2);
+            }
+        }
+        edges[0][i] = x;
+        edges[1][i] = y;
+        edges[2][i] = dir;
+        count[0] = i + 1;
+    }
+
+    private static long cornerKey(int x, int y)
+    {
+        return ((long) (x & 0xFFFF) << 16) | (y & 0xFFFF);
+    }
+
+    private static int[] distinctSorted(int[] values, int count)
+    {
+        int[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++)
+        {
+            if (n == 0 || sorted[n - 1] != sorted[i])
+            {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, n);
+    }
+
+    /**
+     * Index of the first value greater than {@code key}.
+     */
+    private static int upperBound(int[] values, int key)
+    {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= key)
+            {
+                lo = mid + 1;
+            }
+            else
+            {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int lowerBound(long[] values, long key)
+    {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key)
+            {
+                lo = mid + 1;
+            }
+            else
+            {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,102 @@
+package com.regionlockenforcer;
+
+/**
+ * Minimal open-addressing map from int keys to objects.
+ * Lookups do not box the key, so hot menu paths can probe it without allocating.
+ * Built once and read many times; not thread safe for concurrent writes.
+ */
+final class IntObjectMap<V>
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size = 0;
+
+    int size()
+    {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key)
+    {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask)
+        {
+            Object value = values[i];
+            if (value == null)
+            {
+                return null;
+            }
+            if (keys[i] == key)
+            {
+                return (V) value;
+            }
+        }
+    }
+
+    void put(int key, V value)
+    {
+        if (value == null)
+        {
+            throw new IllegalArgumentException("null values are not supported");
+        }
+
+        if ((size + 1) * 2 > keys.length)
+        {
+            resize(keys.length * 2);
+        }
+
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (values[i] != null)
+        {
+            if (keys[i] == key)
+            {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    void clear()
+    {
+        keys = new int[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    private void resize(int capacity)
+    {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++)
+        {
+            if (oldValues[j] == null)
+            {
+                continue;
+            }
+            int i = slot(oldKeys[j], mask);
+            while (values[i] != null)
+            {
+                i = (i + 1) & mask;
+            }
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    private static int slot(int key, int mask)
+    {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,54 @@
+package com.regionlockenforcer;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import net.runelite.api.Client;
+import net.runelite.api.MenuEntry;
+
+/**
+ * Removes menu entries in a single pass over a reusable buffer.
+ * The menu is only replaced (and a new array allocated) when at least one entry was removed.
+ * Not thread safe; use from the client thread only.
+ */
+class MenuEntryFilter
+{
+    private MenuEntry[] buffer = new MenuEntry[32];
+
+    /**
+     * Keep the entries accepted by {@code keep}, preserving their order.
+     *
+     * @return true if any entry was removed
+     */
+    boolean apply(Client client, Predicate<MenuEntry> keep)
+    {
+        MenuEntry[] entries = client.getMenuEntries();
+        if (entries == null || entries.length == 0)
+        {
+            return false;
+        }
+
+        if (buffer.length < entries.length)
+        {
+            buffer = new MenuEntry[Math.max(entries.length, buffer.length * 2)];
+        }
+
+        int kept = 0;
+        for (MenuEntry entry : entries)
+        {
+            if (keep.test(entry))
+            {
+                buffer[kept++] = entry;
+            }
+        }
+
+        boolean removed = kept != entries.length;
+        if (removed)
+        {
+            client.setMenuEntries(Arrays.copyOf(buffer, kept));
+        }
+
+        // Drop references so the buffer does not keep old menus alive
+        Arrays.fill(buffer, 0, kept, null);
+        return removed;
+    }
+}
@@ -0,0 +1,246 @@
+package com.regionlockenforcer;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import net.runelite.api.Client;
+import net.runelite.api.MenuAction;
+import net.runelite.api.Player;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Decides how each menu action is treated on tiles outside the border.
+ * Every {@link MenuAction} is mapped to an {@link ActionClass} once, in a table indexed by ordinal,
+ * so classifying a menu entry is a single array lookup. Further classes can be registered at runtime.
+ */
+public class MenuPolicy
+{
+    /**
+     * What happens to an action that targets a tile outside the border.
+     */
+    public enum Enforcement
+    {
+        // Never filtered or blocked
+        ALLOW,
+        // Filtered and blocked unless a player stands on (or next to) the tile
+        ALLOW_NEAR_PLAYER,
+        // Removed from the menu, but a click that slips through is not consumed
+        HIDE,
+        // Removed from the menu and blocked when clicked
+        BLOCK
+    }
+
+    /**
+     * A named group of menu actions that share one enforcement.
+     */
+    public static final class ActionClass
+    {
+        private final String name;
+        private final Enforcement enforcement;
+
+        public ActionClass(String name, Enforcement enforcement)
+        {
+            this.name = name;
+            this.enforcement = enforcement;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public Enforcement getEnforcement()
+        {
+            return enforcement;
+        }
+
+        @Override
+        public String toString()
+        {
+            return name;
+        }
+    }
+
+    public static final ActionClass UI = new ActionClass("UI", Enforcement.ALLOW);
+    public static final ActionClass PLAYER = new ActionClass("Player", Enforcement.ALLOW);
+    public static final ActionClass WALK = new ActionClass("Walk", Enforcement.ALLOW_NEAR_PLAYER);
+    public static final ActionClass GAME_WORLD = new ActionClass("Game world", Enforcement.BLOCK);
+    public static final ActionClass UNCLASSIFIED = new ActionClass("Unclassified", Enforcement.HIDE);
+
+    private static final MenuAction[] MENU_ACTIONS = MenuAction.values();
+
+    private final ActionClass[] classByOrdinal = new ActionClass[MENU_ACTIONS.length];
+
+    // Tiles occupied by players, rebuilt at most once per client frame
+    private final Set<Long> playerTiles = new HashSet<>();
+    private int playerTilesCycle = -1;
+
+    public MenuPolicy()
+    {
+        // Name checks run once here instead of on every menu entry
+        for (MenuAction action : MENU_ACTIONS)
+        {
+            String name = action.name();
+            ActionClass actionClass;
+            if (action == MenuAction.CC_OP
+                || action == MenuAction.CANCEL
+                || name.contains("WIDGET")
+                || name.contains("ITEM_USE"))
+            {
+                actionClass = UI;
+            }
+            else if (name.contains("PLAYER"))
+            {
+                actionClass = PLAYER;
+            }
+            else
+            {
+                actionClass = UNCLASSIFIED;
+            }
+            classByOrdinal[action.ordinal()] = actionClass;
+        }
+
+        register(WALK, MenuAction.WALK);
+        register(GAME_WORLD,
+            MenuAction.GAME_OBJECT_FIRST_OPTION,
+            MenuAction.GAME_OBJECT_SECOND_OPTION,
+            MenuAction.GAME_OBJECT_THIRD_OPTION,
+            MenuAction.GAME_OBJECT_FOURTH_OPTION,
+            MenuAction.GAME_OBJECT_FIFTH_OPTION,
+            MenuAction.GROUND_ITEM_FIRST_OPTION,
+            MenuAction.GROUND_ITEM_SECOND_OPTION,
+            MenuAction.GROUND_ITEM_THIRD_OPTION,
+            MenuAction.GROUND_ITEM_FOURTH_OPTION,
+            MenuAction.GROUND_ITEM_FIFTH_OPTION,
+            MenuAction.NPC_FIRST_OPTION,
+            MenuAction.NPC_SECOND_OPTION,
+            MenuAction.NPC_THIRD_OPTION,
+            MenuAction.NPC_FOURTH_OPTION,
+            MenuAction.NPC_FIFTH_OPTION);
+    }
+
+    /**
+     * Assign the given actions to a class, replacing their previous class.
+     */
+    public void register(ActionClass actionClass, MenuAction... actions)
+    {
+        for (MenuAction action : actions)
+        {
+            classByOrdinal[action.ordinal()] = actionClass;
+        }
+    }
+
+    public ActionClass classify(MenuAction action)
+    {
+        return action != null ? classByOrdinal[action.ordinal()] : UNCLASSIFIED;
+    }
+
+    public ActionClass classify(int typeId)
+    {
+        return classify(MenuAction.of(typeId));
+    }
+
+    public boolean isPlayerAction(MenuAction action)
+    {
+        return classify(action) == PLAYER;
+    }
+
+    /**
+     * Whether an entry of this action should be removed from a menu opened outside the border.
+     */
+    public boolean shouldHide(MenuAction action, boolean nearPlayer)
+    {
+        switch (classify(action).getEnforcement())
+        {
+            case ALLOW:
+                return false;
+            case ALLOW_NEAR_PLAYER:
+                return !nearPlayer;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Whether a click on this action outside the border should be consumed.
+     */
+    public boolean shouldBlockClick(MenuAction action, boolean nearPlayer)
+    {
+        switch (classify(action).getEnforcement())
+        {
+            case BLOCK:
+                return true;
+            case ALLOW_NEAR_PLAYER:
+                return !nearPlayer;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Check if a player stands within one tile (3x3 area) of the given tile.
+     * When you right-click a player, "Walk here" appears in the menu, and we want to allow it.
+     */
+    public boolean isNearPlayer(Client client, WorldPoint tile)
+    {
+        if (tile == null)
+        {
+            return false;
+        }
+
+        refreshPlayerTiles(client);
+        if (playerTiles.isEmpty())
+        {
+            return false;
+        }
+
+        for (int dx = -1; dx <= 1; dx++)
+        {
+            for (int dy = -1; dy <= 1; dy++)
+            {
+                if (playerTiles.contains(tileKey(tile.getX() + dx, tile.getY() + dy, tile.getPlane())))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void refreshPlayerTiles(Client client)
+    {
+        int cycle = client.getGameCycle();
+        if (cycle == playerTilesCycle)
+        {
+            return;
+        }
+        playerTilesCycle = cycle;
+        playerTiles.clear();
+
+        try
+        {
+            List<Player> players = client.getPlayers();
+            if (players == null)
+            {
+                return;
+            }
+            for (Player player : players)
+            {
+                WorldPoint location = player != null ? player.getWorldLocation() : null;
+                if (location != null)
+                {
+                    playerTiles.add(tileKey(location.getX(), location.getY(), location.getPlane()));
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            // getPlayers() might throw exceptions in some cases, ignore them
+        }
+    }
+
+    private static long tileKey(int x, int y, int plane)
+    {
+        return ((long) plane << 40) | ((long) (x & 0xFFFFF) << 20) | (y & 0xFFFFF);
+    }
+}
@@ -0,0 +1,134 @@
+package com.regionlockenforcer;
+
+import java.awt.Rectangle;
+import java.awt.geom.Ellipse2D;
+import net.runelite.api.Constants;
+
+/**
+ * What the mouse listener needs to judge a minimap walk click, published by the client thread:
+ * where the minimap shows the player, plus the scene mask bits and reachability labels of the
+ * player's plane. Only the clicked tile is looked up, on the input thread; every part is
+ * immutable, so the listener never touches the client, the scene mask or the reachability state.
+ */
+final class MinimapClickSnapshot
+{
+    private static final int SIZE = Constants.SCENE_SIZE;
+
+    /**
+     * The minimap's circular draw area, the player's position on it and the screen offset of one tile east.
+     */
+    static final class Projection
+    {
+        private final Ellipse2D area;
+        private final double centerX;
+        private final double centerY;
+        private final double eastX;
+        private final double eastY;
+        // Player position in scene tiles
+        private final double playerX;
+        private final double playerY;
+
+        /**
+         * Whether this was captured from the same minimap placement, so a new one need not be published.
+         */
+        boolean matches(Rectangle bounds, double centerX, double centerY, double eastX, double eastY, double playerX, double playerY)
+        {
+            return area.getX() == bounds.x && area.getY() == bounds.y
+                && area.getWidth() == bounds.width && area.getHeight() == bounds.height
+                && this.centerX == centerX && this.centerY == centerY && this.eastX == eastX && this.eastY == eastY
+                && this.playerX == playerX && this.playerY == playerY;
+        }
+
+        Projection(Rectangle bounds, double centerX, double centerY, double eastX, double eastY, double playerX, double playerY)
+        {
+            this.area = new Ellipse2D.Double(bounds.x, bounds.y, bounds.width, bounds.height);
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.eastX = eastX;
+            this.eastY = eastY;
+            this.playerX = playerX;
+            this.playerY = playerY;
+        }
+
+        /**
+         * The scene tile under a canvas point, or null if the point is off the minimap's draw area
+         * or outside the scene. The inverse of the projection used for drawing.
+         */
+        net.runelite.api.Point toScene(java.awt.Point point)
+        {
+            if (!area.contains(point))
+            {
+                return null;
+            }
+            // The north axis is the east axis turned a quarter, so both share one squared length
+            double lengthSquared = eastX * eastX + eastY * eastY;
+            if (lengthSquared == 0)
+            {
+                return null;
+            }
+            double dx = point.getX() - centerX;
+            double dy = point.getY() - centerY;
+            double east = (dx * eastX + dy * eastY) / lengthSquared;
+            double north = (dx * eastY - dy * eastX) / lengthSquared;
+
+            int sceneX = (int) Math.floor(playerX + east);
+            int sceneY = (int) Math.floor(playerY + north);
+            if (sceneX < 0 || sceneY < 0 || sceneX >= SIZE || sceneY >= SIZE)
+            {
+                return null;
+            }
+            return new net.runelite.api.Point(sceneX, sceneY);
+        }
+    }
+
+    private final Projection projection;
+    // The plane's bits from the scene mask rebuild they came from; never written afterwards
+    private final long[] clickable;
+    private final long[] blocked;
+    // Null unless walks that would leave the border are blocked too
+    private final SceneReachability.Areas areas;
+
+    MinimapClickSnapshot(Projection projection, long[] clickable, long[] blocked, SceneReachability.Areas areas)
+    {
+        this.projection = projection;
+        this.clickable = clickable;
+        this.blocked = blocked;
+        this.areas = areas;
+    }
+
+    /**
+     * Whether this snapshot already holds exactly these parts.
+     */
+    boolean holds(Projection projection, long[] clickable, long[] blocked, SceneReachability.Areas areas)
+    {
+        return this.projection == projection && this.clickable == clickable && this.blocked == blocked && this.areas == areas;
+    }
+
+    Projection getProjection()
+    {
+        return projection;
+    }
+
+    /**
+     * Whether a left click at the canvas point is a minimap walk the border blocks: its destination
+     * is outside the border, or, with reachability, inside it but only reachable by leaving it.
+     * A player standing outside may always walk back in.
+     */
+    boolean isBlocked(java.awt.Point point)
+    {
+        net.runelite.api.Point dest = projection.toScene(point);
+        if (dest == null)
+        {
+            return false;
+        }
+        if (SceneMask.test(blocked, dest.getX(), dest.getY()))
+        {
+            return true;
+        }
+        int startX = (int) Math.floor(projection.playerX);
+        int startY = (int) Math.floor(projection.playerY);
+        return areas != null
+            && SceneMask.test(clickable, startX, startY) && SceneMask.test(clickable, dest.getX(), dest.getY())
+            && !areas.isConnected(startX, startY, dest.getX(), dest.getY());
+    }
+}
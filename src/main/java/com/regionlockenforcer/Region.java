@@ -1,11 +1,15 @@
 package com.regionlockenforcer;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import net.runelite.api.coords.WorldPoint;
 
 /**
@@ -18,10 +22,24 @@ public class Region
     private List<Border> borders = new CopyOnWriteArrayList<>();
     private Set<String> teleportWhitelist = ConcurrentHashMap.newKeySet();
 
-    // Cached union of all clickable tiles across every border
-    private transient Set<WorldPoint> cachedClickableTiles;
-    // Cached union of all inner tiles across every border (for quick finished checks)
-    private transient Set<WorldPoint> cachedAllInnerTiles;
+    // Bumped on every whitelist change; the bitset snapshot is rebuilt when it falls behind
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile int whitelistVersion = 0;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile TeleportWhitelist whitelistSnapshot;
+
+    // Bit per plane that has a finished border (inner tiles); -1 when not yet computed
+    private transient volatile int finishedPlaneMask = -1;
+
+    // Bumped whenever any border's tiles change or a border is added or removed
+    @Setter(AccessLevel.NONE)
+    private transient volatile int areaVersion = 0;
+    // Distance-to-edge field for the current areaVersion, filled lazily per chunk
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile RegionDistanceField distanceField;
 
     public Region()
     {
@@ -98,63 +116,212 @@ public class Region
         return all;
     }
 
+    /**
+     * Union of the areas of every border, per plane, for set operations.
+     */
+    public TileLayer[] snapshotAreaLayers()
+    {
+        TileLayer[] area = new TileLayer[net.runelite.api.Constants.MAX_Z];
+        for (Border border : getBorders())
+        {
+            TileLayer[] borderArea = border.snapshotAreaLayers();
+            for (int plane = 0; plane < area.length; plane++)
+            {
+                if (borderArea[plane] == null)
+                {
+                    continue;
+                }
+                if (area[plane] == null)
+                {
+                    area[plane] = borderArea[plane];
+                }
+                else
+                {
+                    area[plane].addAll(borderArea[plane]);
+                }
+            }
+        }
+        return area;
+    }
+
+    /**
+     * Read-only view of the whitelisted teleport ids.
+     * Change it through {@link #setTeleportWhitelisted} or {@link #setTeleportWhitelist}.
+     */
     public Set<String> getTeleportWhitelist()
     {
         if (teleportWhitelist == null)
         {
             teleportWhitelist = ConcurrentHashMap.newKeySet();
         }
-        return teleportWhitelist;
+        return Collections.unmodifiableSet(teleportWhitelist);
     }
 
-    public Set<WorldPoint> getAllClickableTiles()
+    public void setTeleportWhitelisted(String teleportId, boolean whitelisted)
     {
-        Set<WorldPoint> cached = cachedClickableTiles;
-        if (cached != null)
+        if (teleportId == null)
+        {
+            return;
+        }
+        if (teleportWhitelist == null)
+        {
+            teleportWhitelist = ConcurrentHashMap.newKeySet();
+        }
+        boolean changed = whitelisted ? teleportWhitelist.add(teleportId) : teleportWhitelist.remove(teleportId);
+        if (changed)
         {
-            return cached;
+            whitelistVersion++;
         }
+    }
 
-        Set<WorldPoint> all = new HashSet<>();
+    /**
+     * The whitelist as a bitset over the registry's ordinals, rebuilt only after a change.
+     */
+    public TeleportWhitelist getTeleportWhitelistSnapshot(TeleportRegistry registry)
+    {
+        int version = whitelistVersion;
+        TeleportWhitelist snapshot = whitelistSnapshot;
+        if (snapshot == null || snapshot.version != version)
+        {
+            snapshot = TeleportWhitelist.of(getTeleportWhitelist(), registry, version);
+            whitelistSnapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Whether the tile lies on (or inside) any border of this region.
+     * Checks each border's layer for the tile's plane; no tile sets are built.
+     */
+    public boolean isClickable(WorldPoint tile)
+    {
+        if (tile == null)
+        {
+            return false;
+        }
         for (Border border : getBorders())
         {
-            all.addAll(border.getAllClickableTiles());
+            if (border.isClickable(tile))
+            {
+                return true;
+            }
         }
-        cachedClickableTiles = all;
-        return all;
+        return false;
     }
-    
-    public void invalidateClickableTilesCache()
+
+    /**
+     * Whitelist exactly the teleports whose every destination lands on or inside a finished border,
+     * and remove the rest; Tele Group spells follow their single teleport. Teleports without known
+     * destinations keep their current state.
+     *
+     * @return the number of teleports with destinations that are now whitelisted
+     */
+    public int autoWhitelistTeleports(TeleportRegistry registry)
     {
-        cachedClickableTiles = null;
-        cachedAllInnerTiles = null;
+        int whitelisted = 0;
+        for (int ordinal = 0; ordinal < registry.getTeleportCount(); ordinal++)
+        {
+            TeleportDefinition teleport = registry.getTeleportByOrdinal(ordinal);
+            if (teleport == null || teleport.getDestinations() == null)
+            {
+                continue;
+            }
+
+            boolean inside = true;
+            for (WorldPoint destination : teleport.getDestinations())
+            {
+                if (!hasFinishedBorder(destination.getPlane()) || !isClickable(destination))
+                {
+                    inside = false;
+                    break;
+                }
+            }
+
+            setTeleportWhitelisted(teleport.getId(), inside);
+            String teleGroupId = registry.getTeleGroupIdForSingleTeleport(teleport.getId());
+            if (teleGroupId != null)
+            {
+                setTeleportWhitelisted(teleGroupId, inside);
+            }
+            if (inside)
+            {
+                whitelisted++;
+            }
+        }
+        return whitelisted;
     }
-    
-    public void ensureCacheComputed()
+
+    /**
+     * Distance from each tile of the region's area to its edge, on planes with a finished border.
+     * The field is replaced after any tile change and computes chunks on first lookup.
+     */
+    RegionDistanceField getDistanceField()
     {
-        for (Border border : getBorders())
+        int version = areaVersion;
+        RegionDistanceField field = distanceField;
+        if (field == null || field.version != version)
         {
-            border.ensureCacheComputed();
+            field = new RegionDistanceField(getBorders(), getFinishedPlaneMask(), version);
+            distanceField = field;
         }
-        getAllClickableTiles();
-        getAllInnerTiles();
+        return field;
+    }
+
+    /**
+     * Whether any border has been finished on any plane.
+     */
+    public boolean hasFinishedBorder()
+    {
+        return getFinishedPlaneMask() != 0;
     }
 
-    public Set<WorldPoint> getAllInnerTiles()
+    /**
+     * Whether any border has been finished on the given plane.
+     * Planes without a finished border are not enforced.
+     */
+    public boolean hasFinishedBorder(int plane)
     {
-        Set<WorldPoint> cached = cachedAllInnerTiles;
-        if (cached != null)
+        return plane >= 0 && plane < 32 && (getFinishedPlaneMask() & (1 << plane)) != 0;
+    }
+
+    private int getFinishedPlaneMask()
+    {
+        int mask = finishedPlaneMask;
+        if (mask < 0)
         {
-            return cached;
+            mask = 0;
+            for (Border border : getBorders())
+            {
+                for (int plane = 0; plane < net.runelite.api.Constants.MAX_Z; plane++)
+                {
+                    if (border.hasInnerTiles(plane))
+                    {
+                        mask |= 1 << plane;
+                    }
+                }
+            }
+            finishedPlaneMask = mask;
         }
+        return mask;
+    }
 
-        Set<WorldPoint> all = new HashSet<>();
-        for (Border border : getBorders())
+    private void onBorderChanged(BorderChange change)
+    {
+        // Only the inner tiles decide which planes are finished
+        if (change.isInnerChanged())
         {
-            all.addAll(border.getInnerTiles());
+            invalidateClickableTilesCache();
         }
-        cachedAllInnerTiles = all;
-        return all;
+        else if (change.hasTiles())
+        {
+            areaVersion++;
+        }
+    }
+
+    public void invalidateClickableTilesCache()
+    {
+        finishedPlaneMask = -1;
+        areaVersion++;
     }
 
     public void setTeleportWhitelist(Set<String> teleportWhitelist)
@@ -165,6 +332,7 @@ public class Region
             newSet.addAll(teleportWhitelist);
         }
         this.teleportWhitelist = newSet;
+        whitelistVersion++;
     }
 
     // Legacy helpers retained for compatibility. They operate on the primary border.
@@ -180,14 +348,14 @@ public class Region
     public boolean isAreaFullyContained(int startX, int startY, int plane, int size) { Border b = getPrimaryBorder(); return b != null && b.isAreaFullyContained(startX, startY, plane, size); }
     public boolean isChunkFullyContained(int chunkX, int chunkY, int plane) { Border b = getPrimaryBorder(); return b != null && b.isChunkFullyContained(chunkX, chunkY, plane); }
     public boolean hasAnyTileInArea(int startX, int startY, int plane, int size) { Border b = getPrimaryBorder(); return b != null && b.hasAnyTileInArea(startX, startY, plane, size); }
-    public void setBoundaryTiles(Set<WorldPoint> boundaryTiles) { Border b = getPrimaryBorder(); if (b != null) { b.setBoundaryTiles(boundaryTiles); invalidateClickableTilesCache(); } }
-    public void setInnerTiles(Set<WorldPoint> innerTiles) { Border b = getPrimaryBorder(); if (b != null) { b.setInnerTiles(innerTiles); invalidateClickableTilesCache(); } }
+    public void setBoundaryTiles(Set<WorldPoint> boundaryTiles) { Border b = getPrimaryBorder(); if (b != null) { b.setBoundaryTiles(boundaryTiles); } }
+    public void setInnerTiles(Set<WorldPoint> innerTiles) { Border b = getPrimaryBorder(); if (b != null) { b.setInnerTiles(innerTiles); } }
 
     private void attachBorder(Border border)
     {
         if (border != null)
         {
-            border.setOnChange(this::invalidateClickableTilesCache);
+            border.setOnChange(this::onBorderChanged);
         }
     }
 
@@ -19,6 +19,7 @@ import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.JCheckBox;
@@ -55,6 +56,8 @@ public class RegionConfigComponent extends JPanel
     private final ImageIcon addIcon;
     private final ImageIcon propsIcon;
     private Border styleDialogBorderHighlight = null;
+    // Progress bars of borders currently finishing in the background (EDT only)
+    private final java.util.Map<Border, JProgressBar> finishProgressBars = new java.util.IdentityHashMap<>();
 
     public RegionConfigComponent(RegionLockEnforcerPlugin plugin, @SuppressWarnings("unused") ConfigManager configManager, TeleportRegistry teleportRegistry)
     {
@@ -660,6 +663,75 @@ public class RegionConfigComponent extends JPanel
         }
     }
 
+    /**
+     * Ask for two operands (a border or a whole region) and an operation,
+     * then add the combined area to the region as a new border.
+     */
+    private void openCombineDialog(Region target)
+    {
+        java.util.List<String> labels = new java.util.ArrayList<>();
+        java.util.List<Supplier<TileLayer[]>> areas = new java.util.ArrayList<>();
+        for (Region region : plugin.getRegions())
+        {
+            labels.add(region.getName() + " (all borders)");
+            areas.add(region::snapshotAreaLayers);
+            for (Border border : region.getBorders())
+            {
+                labels.add(region.getName() + " / " + border.getName());
+                areas.add(border::snapshotAreaLayers);
+            }
+        }
+        if (areas.isEmpty())
+        {
+            return;
+        }
+
+        javax.swing.JComboBox<String> leftBox = new javax.swing.JComboBox<>(labels.toArray(new String[0]));
+        javax.swing.JComboBox<Border.SetOperation> opBox = new javax.swing.JComboBox<>(Border.SetOperation.values());
+        javax.swing.JComboBox<String> rightBox = new javax.swing.JComboBox<>(labels.toArray(new String[0]));
+        rightBox.setSelectedIndex(Math.min(1, labels.size() - 1));
+        javax.swing.JTextField nameField = new javax.swing.JTextField();
+
+        JPanel form = new JPanel(new GridLayout(0, 1, 0, 4));
+        form.add(new JLabel("First:"));
+        form.add(leftBox);
+        form.add(new JLabel("Operation:"));
+        form.add(opBox);
+        form.add(new JLabel("Second:"));
+        form.add(rightBox);
+        form.add(new JLabel("New border name:"));
+        form.add(nameField);
+
+        int result = JOptionPane.showConfirmDialog(
+            this,
+            form,
+            "Combine Borders",
+            JOptionPane.OK_CANCEL_OPTION,
+            JOptionPane.PLAIN_MESSAGE
+        );
+        if (result != JOptionPane.OK_OPTION)
+        {
+            return;
+        }
+
+        Border created = plugin.createBorderFromAreas(
+            target,
+            nameField.getText(),
+            areas.get(leftBox.getSelectedIndex()).get(),
+            areas.get(rightBox.getSelectedIndex()).get(),
+            (Border.SetOperation) opBox.getSelectedItem()
+        );
+        if (created == null)
+        {
+            JOptionPane.showMessageDialog(
+                this,
+                "The combined area is empty.",
+                "Combine Borders",
+                JOptionPane.INFORMATION_MESSAGE
+            );
+        }
+    }
+
     private void importRegion()
     {
         JFileChooser fileChooser = new JFileChooser();
@@ -754,7 +826,7 @@ public class RegionConfigComponent extends JPanel
     
     private void finishBorderFromList(Border border)
     {
-        if (border.getBoundaryTiles().isEmpty())
+        if (!border.hasBoundaryTiles())
         {
             JOptionPane.showMessageDialog(
                 this,
@@ -765,35 +837,71 @@ public class RegionConfigComponent extends JPanel
             return;
         }
         
-        // Compute inner tiles
-        boolean success = plugin.computeInnerTiles(border);
-        
-        if (!success)
+        // Flood fill runs in the background; the row shows progress and a cancel button meanwhile
+        plugin.finishBorderAsync(border, new BorderFinishTask.Listener()
         {
-            // Shape cannot be processed - show error and keep in edit mode
-            JOptionPane.showMessageDialog(
-                this,
-                "Border must be fully enclosed before it can be finished.\n\n" +
-                "Close every gap so the outline surrounds a complete area,\n" +
-                "then click Finish again.",
-                "Border Is Not Fully Bounded",
-                JOptionPane.WARNING_MESSAGE
-            );
-            // Keep editing mode enabled (inner tiles are already cleared by computeInnerTiles)
-            plugin.saveRegions();
-            plugin.notifyRegionsChanged();
-            refreshBorderList();
-            return;
-        }
-        
-        // Success - turn off editing toggle when finishing
-        plugin.setEditing(false);
-        plugin.saveRegions();
-        plugin.notifyRegionsChanged();
-        refreshRegionList();
+            @Override
+            public void onProgress(int percent)
+            {
+                JProgressBar bar = finishProgressBars.get(border);
+                if (bar != null)
+                {
+                    bar.setValue(percent);
+                }
+            }
+
+            @Override
+            public void onFinished(BorderFinishTask.Result result)
+            {
+                finishProgressBars.remove(border);
+                onBorderFinished(result);
+            }
+        });
         refreshBorderList();
     }
 
+    private void onBorderFinished(BorderFinishTask.Result result)
+    {
+        switch (result)
+        {
+            case FINISHED:
+                // Success - turn off editing toggle when finishing
+                plugin.setEditing(false);
+                plugin.saveRegions();
+                plugin.notifyRegionsChanged();
+                refreshRegionList();
+                refreshBorderList();
+                break;
+            case NOT_ENCLOSED:
+                // Shape cannot be processed - show error and keep in edit mode
+                JOptionPane.showMessageDialog(
+                    this,
+                    "Border must be fully enclosed before it can be finished.\n\n" +
+                    "Close every gap so the outline surrounds a complete area,\n" +
+                    "then click Finish again.",
+                    "Border Is Not Fully Bounded",
+                    JOptionPane.WARNING_MESSAGE
+                );
+                plugin.saveRegions();
+                plugin.notifyRegionsChanged();
+                refreshBorderList();
+                break;
+            case FAILED:
+                JOptionPane.showMessageDialog(
+                    this,
+                    "Something went wrong while finishing the border.\nPlease try again.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE
+                );
+                refreshBorderList();
+                break;
+            default:
+                // Cancelled, or the border was edited while finishing - leave it as it is
+                refreshBorderList();
+                break;
+        }
+    }
+
 
     private void editBorder(Border border)
     {
@@ -930,7 +1038,7 @@ public class RegionConfigComponent extends JPanel
                         BorderFactory.createEmptyBorder(5, 10, 5, 10)
                     ));
 
-                    boolean hasInnerTiles = !border.getInnerTiles().isEmpty();
+                    boolean hasInnerTiles = border.hasInnerTiles();
                     int maxChars = hasInnerTiles ? 26 : 20;
                     JLabel nameLabel = new JLabel(ellipsize(border.getName(), maxChars));
                     nameLabel.setToolTipText(border.getName());
@@ -995,6 +1103,23 @@ public class RegionConfigComponent extends JPanel
                         });
                         buttonPanel.add(editButton);
                     }
+                    else if (plugin.isFinishingBorder(border))
+                    {
+                        JProgressBar progressBar = finishProgressBars.get(border);
+                        if (progressBar == null)
+                        {
+                            progressBar = new JProgressBar(0, 100);
+                            progressBar.setForeground(ColorScheme.BRAND_ORANGE);
+                            progressBar.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+                            progressBar.setStringPainted(true);
+                            finishProgressBars.put(border, progressBar);
+                        }
+                        progressBar.setPreferredSize(new Dimension(80, 25));
+                        progressBar.setMaximumSize(new Dimension(80, 25));
+                        progressBar.setMinimumSize(new Dimension(80, 25));
+                        progressBar.setToolTipText("Finishing Border...");
+                        buttonPanel.add(progressBar);
+                    }
                     else
                     {
                         JButton finishButton = new JButton("Finish");
@@ -1022,7 +1147,8 @@ public class RegionConfigComponent extends JPanel
                     deleteButton.setPreferredSize(new Dimension(24, 24));
                     deleteButton.setMaximumSize(new Dimension(24, 24));
                     deleteButton.setMinimumSize(new Dimension(24, 24));
-                    deleteButton.setToolTipText("Delete Border");
+                    boolean finishing = plugin.isFinishingBorder(border);
+                    deleteButton.setToolTipText(finishing ? "Cancel Finish" : "Delete Border");
                     if (deleteIcon != null && deleteIcon.getIconWidth() > 0)
                     {
                         java.awt.Image scaled = deleteIcon.getImage().getScaledInstance(18, 18, java.awt.Image.SCALE_SMOOTH);
@@ -1033,6 +1159,11 @@ public class RegionConfigComponent extends JPanel
                         deleteButton.setIcon(deleteIcon);
                     }
                     deleteButton.addActionListener(e -> {
+                        if (finishing)
+                        {
+                            plugin.cancelFinishBorder(border);
+                            return;
+                        }
                         int result = JOptionPane.showConfirmDialog(
                             RegionConfigComponent.this,
                             "Delete border '" + border.getName() + "'?",
@@ -1071,6 +1202,11 @@ public class RegionConfigComponent extends JPanel
                 });
 
                 addButtonPanel.add(addBorderButton, BorderLayout.CENTER);
+
+                JButton combineButton = createStyledButton("Combine", new Dimension(80, 30),
+                    e -> openCombineDialog(currentProfile));
+                combineButton.setToolTipText("Create a border from the union, intersection or difference of borders and regions");
+                addButtonPanel.add(combineButton, BorderLayout.EAST);
                 borderListPanel.add(addButtonPanel);
             }
 
@@ -1235,12 +1371,25 @@ public class RegionConfigComponent extends JPanel
             }
             else
             {
-                // Ensure whitelist exists
-                if (currentProfile.getTeleportWhitelist() == null)
+                // Batch action: allow exactly the teleports that land inside the finished borders
+                JPanel autoWhitelistPanel = new JPanel(new BorderLayout());
+                autoWhitelistPanel.setBackground(ColorScheme.DARK_GRAY_COLOR);
+                autoWhitelistPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 5, 0));
+                JButton autoWhitelistButton = createStyledButton("Auto Whitelist", new Dimension(120, 25), e ->
                 {
-                    currentProfile.setTeleportWhitelist(new java.util.HashSet<>());
-                }
-                
+                    if (!currentProfile.hasFinishedBorder())
+                    {
+                        JOptionPane.showMessageDialog(this,
+                            "Finish a border first; teleports are matched against the finished region.",
+                            "No Finished Border", JOptionPane.INFORMATION_MESSAGE);
+                        return;
+                    }
+                    plugin.autoWhitelistTeleports(currentProfile);
+                });
+                autoWhitelistButton.setToolTipText("Allow exactly the teleports whose destination is inside the region");
+                autoWhitelistPanel.add(autoWhitelistButton, BorderLayout.CENTER);
+                teleportsPanel.add(autoWhitelistPanel);
+
                 // Get categories grouped by type
                 java.util.Map<String, List<String>> categoriesByGroup = teleportRegistry.getCategoriesByGroup();
                 
@@ -1366,28 +1515,14 @@ public class RegionConfigComponent extends JPanel
                         teleportCheckBox.addActionListener(e -> {
                             boolean isSelected = teleportCheckBox.isSelected();
                             
-                            if (isSelected)
-                            {
-                                currentProfile.getTeleportWhitelist().add(teleportId);
-                            }
-                            else
-                            {
-                                currentProfile.getTeleportWhitelist().remove(teleportId);
-                            }
+                            currentProfile.setTeleportWhitelisted(teleportId, isSelected);
                             
                             // Auto-toggle corresponding Tele Group
                             String teleGroupId = teleportRegistry.getTeleGroupIdForSingleTeleport(teleportId);
                             if (teleGroupId != null)
                             {
                                 // This is a single teleport, toggle its Tele Group
-                                if (isSelected)
-                                {
-                                    currentProfile.getTeleportWhitelist().add(teleGroupId);
-                                }
-                                else
-                                {
-                                    currentProfile.getTeleportWhitelist().remove(teleGroupId);
-                                }
+                                currentProfile.setTeleportWhitelisted(teleGroupId, isSelected);
                             }
                             
                             applyTeleportSelectionStyles(teleportCheckBox);
@@ -0,0 +1,182 @@
+package com.regionlockenforcer;
+
+import java.util.List;
+import net.runelite.api.Constants;
+
+/**
+ * Distance from each tile of a region's area to the nearest tile outside it, in walking steps
+ * (8-way, so Chebyshev distance), on planes with a finished border.
+ * Computed lazily per 64x64 chunk by a two-pass chamfer transform over the chunk plus a margin
+ * of {@link #MAX_DISTANCE} tiles, so every stored value is exact up to the cap. A lookup is one
+ * map probe and one array read once the chunk has been computed.
+ * A field describes one version of the region's tiles; {@link Region#getDistanceField} replaces it after an edit.
+ * Client thread only.
+ */
+final class RegionDistanceField
+{
+    // Distances are capped here; larger values read as MAX_DISTANCE
+    static final int MAX_DISTANCE = 32;
+
+    private static final int CHUNK = TileLayer.CHUNK_SIZE;
+    private static final int WINDOW = CHUNK + 2 * MAX_DISTANCE;
+    private static final int WINDOW_WORDS = WINDOW >> 6;
+
+    private final List<Border> borders;
+    private final int finishedPlanes;
+    final int version;
+
+    @SuppressWarnings("unchecked")
+    private final IntObjectMap<byte[]>[] chunks = new IntObjectMap[Constants.MAX_Z];
+
+    // Scratch for one chunk window
+    private final long[] inside = new long[WINDOW * WINDOW_WORDS];
+    private final int[] dist = new int[WINDOW * WINDOW];
+
+    RegionDistanceField(List<Border> borders, int finishedPlanes, int version)
+    {
+        this.borders = borders;
+        this.finishedPlanes = finishedPlanes;
+        this.version = version;
+    }
+
+    /**
+     * Steps from the tile to the nearest tile outside the area: 1 on the area's edge, up to
+     * {@link #MAX_DISTANCE}. Returns 0 outside the area or on a plane without a finished border.
+     */
+    int distanceAt(int x, int y, int plane)
+    {
+        if (plane < 0 || plane >= Constants.MAX_Z || (finishedPlanes & (1 << plane)) == 0)
+        {
+            return 0;
+        }
+
+        IntObjectMap<byte[]> planeChunks = chunks[plane];
+        if (planeChunks == null)
+        {
+            planeChunks = new IntObjectMap<>();
+            chunks[plane] = planeChunks;
+        }
+        int key = TileLayer.chunkKey(x >> TileLayer.CHUNK_SHIFT, y >> TileLayer.CHUNK_SHIFT);
+        byte[] field = planeChunks.get(key);
+        if (field == null)
+        {
+            field = compute(TileLayer.chunkX(key), TileLayer.chunkY(key), plane);
+            planeChunks.put(key, field);
+        }
+        return field[(y & TileLayer.CHUNK_MASK) * CHUNK + (x & TileLayer.CHUNK_MASK)];
+    }
+
+    private byte[] compute(int chunkX, int chunkY, int plane)
+    {
+        int originX = (chunkX << TileLayer.CHUNK_SHIFT) - MAX_DISTANCE;
+        int originY = (chunkY << TileLayer.CHUNK_SHIFT) - MAX_DISTANCE;
+
+        // Area bits of the window, 64 tiles per read
+        java.util.Arrays.fill(inside, 0);
+        for (Border border : borders)
+        {
+            orLayer(border.getBoundaryLayer(plane), originX, originY);
+            orLayer(border.getInnerLayer(plane), originX, originY);
+        }
+
+        // Outside tiles are the sources; tiles beyond the window are treated as inside,
+        // which cannot change any capped value for the chunk at the window's centre
+        int far = MAX_DISTANCE;
+        for (int wy = 0; wy < WINDOW; wy++)
+        {
+            for (int wx = 0; wx < WINDOW; wx++)
+            {
+                boolean in = (inside[wy * WINDOW_WORDS + (wx >> 6)] & (1L << wx)) != 0;
+                dist[wy * WINDOW + wx] = in ? far : 0;
+            }
+        }
+
+        // Forward pass: west, south-west, south, south-east neighbours
+        for (int wy = 0; wy < WINDOW; wy++)
+        {
+            for (int wx = 0; wx < WINDOW; wx++)
+            {
+                int i = wy * WINDOW + wx;
+                int d = dist[i];
+                if (d == 0)
+                {
+                    continue;
+                }
+                if (wx > 0)
+                {
+                    d = Math.min(d, dist[i - 1] + 1);
+                }
+                if (wy > 0)
+                {
+                    d = Math.min(d, dist[i - WINDOW] + 1);
+                    if (wx > 0)
+                    {
+                        d = Math.min(d, dist[i - WINDOW - 1] + 1);
+                    }
+                    if (wx < WINDOW - 1)
+                    {
+                        d = Math.min(d, dist[i - WINDOW + 1] + 1);
+                    }
+                }
+                dist[i] = d;
+            }
+        }
+
+        // Backward pass: east, north-east, north, north-west neighbours
+        for (int wy = WINDOW - 1; wy >= 0; wy--)
+        {
+            for (int wx = WINDOW - 1; wx >= 0; wx--)
+            {
+                int i = wy * WINDOW + wx;
+                int d = dist[i];
+                if (d == 0)
+                {
+                    continue;
+                }
+                if (wx < WINDOW - 1)
+                {
+                    d = Math.min(d, dist[i + 1] + 1);
+                }
+                if (wy < WINDOW - 1)
+                {
+                    d = Math.min(d, dist[i + WINDOW] + 1);
+                    if (wx < WINDOW - 1)
+                    {
+                        d = Math.min(d, dist[i + WINDOW + 1] + 1);
+                    }
+                    if (wx > 0)
+                    {
+                        d = Math.min(d, dist[i + WINDOW - 1] + 1);
+                    }
+                }
+                dist[i] = d;
+            }
+        }
+
+        byte[] field = new byte[CHUNK * CHUNK];
+        for (int y = 0; y < CHUNK; y++)
+        {
+            int row = (y + MAX_DISTANCE) * WINDOW + MAX_DISTANCE;
+            for (int x = 0; x < CHUNK; x++)
+            {
+                field[y * CHUNK + x] = (byte) dist[row + x];
+            }
+        }
+        return field;
+    }
+
+    private void orLayer(TileLayer layer, int originX, int originY)
+    {
+        if (layer == null || layer.isEmpty())
+        {
+            return;
+        }
+        for (int wy = 0; wy < WINDOW; wy++)
+        {
+            for (int w = 0; w < WINDOW_WORDS; w++)
+            {
+                inside[wy * WINDOW_WORDS + w] |= layer.rowBits(originX + (w << 6), originY + wy);
+            }
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.regionlockenforcer;
 
+import java.awt.Color;
+import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
+import net.runelite.client.config.Alpha;
 import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
 import net.runelite.client.config.Keybind;
+import net.runelite.client.config.Range;
 
 @ConfigGroup(RegionLockEnforcerConfig.GROUP)
 public interface RegionLockEnforcerConfig extends Config
@@ -51,6 +55,88 @@ public interface RegionLockEnforcerConfig extends Config
     )
     default Keybind toggleEditor() { return new Keybind(KeyEvent.VK_F12, 0); }
 
+    @ConfigItem(
+            keyName = "undoEdit",
+            name = "Undo Edit Hotkey",
+            description = "Undo the last change to the border being edited",
+            position = 8
+    )
+    default Keybind undoEdit() { return new Keybind(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK); }
+
+    @ConfigItem(
+            keyName = "redoEdit",
+            name = "Redo Edit Hotkey",
+            description = "Redo the last undone change to the border being edited",
+            position = 9
+    )
+    default Keybind redoEdit() { return new Keybind(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK); }
+
+    @ConfigItem(
+            keyName = "enforceInInstances",
+            name = "Enforce In Instances",
+            description = "Block clicks in instanced copies of overworld areas that lie outside the border",
+            position = 10
+    )
+    default boolean enforceInInstances() { return true; }
+
+    @ConfigItem(
+            keyName = "preventPathCrossing",
+            name = "Prevent Walking Through Outside",
+            description = "Block walk clicks on tiles inside the border that can only be reached by walking outside it",
+            position = 11
+    )
+    default boolean preventPathCrossing() { return false; }
+
+    @ConfigItem(
+            keyName = "showBorderDistance",
+            name = "Show Border Distance",
+            description = "Show how many tiles you are from the edge of the region",
+            position = 12
+    )
+    default boolean showBorderDistance() { return false; }
+
+    @Range(max = RegionDistanceField.MAX_DISTANCE)
+    @ConfigItem(
+            keyName = "borderDistanceAlert",
+            name = "Border Distance Alert",
+            description = "Notify when you come within this many tiles of the region edge; 0 disables the alert",
+            position = 13
+    )
+    default int borderDistanceAlert() { return 0; }
+
+    @ConfigItem(
+            keyName = "shadeOutsideBorder",
+            name = "Shade Outside Border",
+            description = "Dim every tile outside the region in the game scene",
+            position = 14
+    )
+    default boolean shadeOutsideBorder() { return false; }
+
+    @Alpha
+    @ConfigItem(
+            keyName = "outsideShadeColor",
+            name = "Outside Shade Color",
+            description = "Colour and opacity used to dim tiles outside the region",
+            position = 15
+    )
+    default Color outsideShadeColor() { return new Color(0, 0, 0, 110); }
+
+    @ConfigItem(
+            keyName = "displayBorderOnMinimap",
+            name = "Display Border On Minimap",
+            description = "Draw the region edge on the minimap",
+            position = 16
+    )
+    default boolean displayBorderOnMinimap() { return true; }
+
+    @ConfigItem(
+            keyName = "autoWhitelistTeleports",
+            name = "Auto Whitelist Teleports",
+            description = "After a border is finished, allow exactly the teleports that land inside the region (teleports without a known destination are left as they are)",
+            position = 17
+    )
+    default boolean autoWhitelistTeleports() { return false; }
+
     enum PropStyle
     {
         SEA_ROCK,
@@ -66,4 +152,18 @@ public interface RegionLockEnforcerConfig extends Config
             position = 6
     )
     default int worldMapGridSize() { return 4; }
+
+    enum MenuFilterMode
+    {
+        DEFERRED,
+        PER_ENTRY
+    }
+
+    @ConfigItem(
+            keyName = "menuFilterMode",
+            name = "Menu Filter Mode",
+            description = "Deferred checks each new menu entry on its own and reconciles teleports once per menu build; Per Entry (the default, as before) re-filters the whole menu on every added entry",
+            position = 7
+    )
+    default MenuFilterMode menuFilterMode() { return MenuFilterMode.PER_ENTRY; }
 }
@@ -6,6 +6,7 @@ import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -19,16 +20,25 @@ import net.runelite.api.KeyCode;
 import net.runelite.api.MenuAction;
 import net.runelite.api.Tile;
 import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.BeforeRender;
 import net.runelite.api.events.ClientTick;
+import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
 import net.runelite.api.events.MenuEntryAdded;
 import net.runelite.api.events.MenuOpened;
 import net.runelite.api.events.MenuOptionClicked;
+import net.runelite.api.events.PostMenuSort;
 import net.runelite.api.events.ScriptCallbackEvent;
 import net.runelite.api.events.ScriptPostFired;
+import net.runelite.api.events.WallObjectDespawned;
+import net.runelite.api.events.WallObjectSpawned;
 import net.runelite.api.events.WidgetLoaded;
 import net.runelite.api.EnumComposition;
 import net.runelite.api.ItemComposition;
 import net.runelite.api.ParamID;
+import net.runelite.client.Notifier;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
@@ -59,6 +69,9 @@ public class RegionLockEnforcerPlugin extends Plugin
     @Inject private OverlayManager overlayManager;
     @Inject private RegionLockOverlay overlay;
     @Inject private RegionLockWorldMapOverlay worldMapOverlay;
+    @Inject private BorderDistanceOverlay distanceOverlay;
+    @Inject private RegionLockMinimapOverlay minimapOverlay;
+    @Inject private Notifier notifier;
     @Inject private MouseManager mouseManager;
     @Inject private KeyManager keyManager;
     @Inject private ClientToolbar clientToolbar;
@@ -86,7 +99,6 @@ public class RegionLockEnforcerPlugin extends Plugin
     private int charterShipSearchCooldown = 0; // Throttle widget searches
     
     // World map mouse listener reference for cleanup
-    private java.awt.event.MouseListener worldMapMouseListener;
 
     // Background executor for non-EDT work (saves/redraw coordination)
     private final ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor(r -> {
@@ -95,34 +107,45 @@ public class RegionLockEnforcerPlugin extends Plugin
         return t;
     });
 
+    // Separate worker for border finishing so long flood fills never hold up saves
+    private final ExecutorService finishExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "region-lock-finish");
+        t.setDaemon(true);
+        return t;
+    });
+    // Classifies menu actions for enforcement outside the border
+    private final MenuPolicy menuPolicy = new MenuPolicy();
+    // Reusable single-pass menu filter (client thread only)
+    private final MenuEntryFilter menuEntryFilter = new MenuEntryFilter();
+    // Drag-to-paint stroke for the editor, applied once per frame
+    private final BorderBrush brush = new BorderBrush();
+    // Clickable tiles of the current region over the loaded scene (client thread only)
+    private final SceneMask sceneMask = new SceneMask();
+    // Connected inside areas of the player's plane, for walk-through-outside checks
+    private final SceneReachability reachability = new SceneReachability();
+    // Minimap click state published by the client thread whenever it changes, read by the mouse listener
+    private volatile MinimapClickSnapshot minimapClickSnapshot;
+
+    // Steps from the player to the region edge, refreshed every game tick; 0 when not inside a finished border
+    @Getter private volatile int borderDistance = 0;
+
+    // Keyed by identity: Border equality follows its (changing) tile sets
+    private final Map<Border, BorderFinishTask> finishTasks = java.util.Collections.synchronizedMap(new java.util.IdentityHashMap<>());
+
     @Override protected void startUp()
     {
         overlay.setPlugin(this);
         worldMapOverlay.setPlugin(this);
+        distanceOverlay.setPlugin(this);
+        minimapOverlay.setPlugin(this);
         overlayManager.add(overlay);
         overlayManager.add(worldMapOverlay);
+        overlayManager.add(distanceOverlay);
+        overlayManager.add(minimapOverlay);
         mouseManager.registerMouseListener(editor);
-        // Register world map mouse listener on the client canvas
-        clientThread.invokeLater(() ->
-        {
-            java.awt.Canvas canvas = client.getCanvas();
-            if (canvas != null)
-            {
-                worldMapMouseListener = new java.awt.event.MouseAdapter()
-                {
-                    @Override
-                    public void mousePressed(java.awt.event.MouseEvent e)
-                    {
-                        if (worldMapOverlay.handleWorldMapClick(e))
-                        {
-                            e.consume(); // Consume the event if handled
-                        }
-                    }
-                };
-                canvas.addMouseListener(worldMapMouseListener);
-            }
-        });
         keyManager.registerKeyListener(editor.toggleEditHotkey);
+        keyManager.registerKeyListener(editor.undoHotkey);
+        keyManager.registerKeyListener(editor.redoHotkey);
         loadRegions();
         
         // Create and add side panel navigation button
@@ -155,24 +178,26 @@ public class RegionLockEnforcerPlugin extends Plugin
 
     @Override protected void shutDown()
     {
+        for (Border border : new ArrayList<>(finishTasks.keySet()))
+        {
+            cancelFinishBorder(border);
+        }
+        // Keep whatever an unfinished brush stroke has painted so far
+        brush.release();
+        endBrushStroke();
+        brush.clearPress();
+        minimapClickSnapshot = null;
         saveRegions();
         overlay.clearPropObjects();
         overlayManager.remove(overlay);
         overlayManager.remove(worldMapOverlay);
-        // Unregister world map mouse listener
-        if (worldMapMouseListener != null)
-        {
-            clientThread.invokeLater(() ->
-            {
-                java.awt.Canvas canvas = client.getCanvas();
-                if (canvas != null)
-                {
-                    canvas.removeMouseListener(worldMapMouseListener);
-                }
-            });
-        }
+        overlayManager.remove(distanceOverlay);
+        overlayManager.remove(minimapOverlay);
+        borderDistance = 0;
         mouseManager.unregisterMouseListener(editor);
         keyManager.unregisterKeyListener(editor.toggleEditHotkey);
+        keyManager.unregisterKeyListener(editor.undoHotkey);
+        keyManager.unregisterKeyListener(editor.redoHotkey);
         clientToolbar.removeNavigation(navButton);
         
         // Redraw spellbook to restore all spells when plugin is disabled
@@ -199,15 +224,15 @@ public class RegionLockEnforcerPlugin extends Plugin
 
     /**
      * Get the teleport whitelist from the current region, or null if not available.
-     * @return The whitelist Set, or null if filtering is disabled, no region is selected, or whitelist is null
+     * @return The whitelist bitset snapshot, or null if filtering is disabled or no region is selected
      */
-    private Set<String> getTeleportWhitelist()
+    private TeleportWhitelist getTeleportWhitelist()
     {
         if (config.disableTeleportFiltering() || currentRegion == null)
         {
             return null;
         }
-        return currentRegion.getTeleportWhitelist();
+        return currentRegion.getTeleportWhitelistSnapshot(teleportRegistry);
     }
 
     /**
@@ -249,6 +274,67 @@ public class RegionLockEnforcerPlugin extends Plugin
         return null;
     }
 
+    /**
+     * Teleports offered by the item, object or NPC a menu entry refers to, or null if the entry
+     * carries no id the registry knows. Submenu entries fall back to their parent's item.
+     */
+    private List<TeleportDefinition> getTeleportCandidates(net.runelite.api.MenuEntry entry, net.runelite.api.MenuEntry parent)
+    {
+        int itemId = entry.getItemId();
+        if (itemId <= 0 && parent != null)
+        {
+            itemId = parent.getItemId();
+        }
+        List<TeleportDefinition> candidates = teleportRegistry.getTeleportsForItem(itemId);
+        if (candidates != null)
+        {
+            return candidates;
+        }
+
+        switch (entry.getType())
+        {
+            case GAME_OBJECT_FIRST_OPTION:
+            case GAME_OBJECT_SECOND_OPTION:
+            case GAME_OBJECT_THIRD_OPTION:
+            case GAME_OBJECT_FOURTH_OPTION:
+            case GAME_OBJECT_FIFTH_OPTION:
+                return teleportRegistry.getTeleportsForObject(entry.getIdentifier());
+            case NPC_FIRST_OPTION:
+            case NPC_SECOND_OPTION:
+            case NPC_THIRD_OPTION:
+            case NPC_FOURTH_OPTION:
+            case NPC_FIFTH_OPTION:
+                net.runelite.api.NPC npc = entry.getNpc();
+                return npc != null ? teleportRegistry.getTeleportsForNpc(npc.getId()) : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Check if any of the given teleports is whitelisted.
+     */
+    private boolean hasAnyWhitelistedTeleport(List<TeleportDefinition> candidates, TeleportWhitelist whitelist)
+    {
+        for (TeleportDefinition teleport : candidates)
+        {
+            if (whitelist.contains(teleport))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A tablet may be broken if it is whitelisted itself or if the spell it casts is whitelisted.
+     */
+    private boolean isTabletWhitelisted(TeleportDefinition tablet, TeleportWhitelist whitelist)
+    {
+        return whitelist.contains(tablet)
+            || (tablet.getLinkedTeleportId() != null && whitelist.contains(tablet.getLinkedTeleportId()));
+    }
+
     /**
      * Check if a menu entry is a parent teleport entry (e.g., "Teleport" or "Rub" -> "Item name").
      */
@@ -275,7 +361,7 @@ public class RegionLockEnforcerPlugin extends Plugin
     /**
      * Check if any teleport for the given target item is whitelisted.
      */
-    private boolean hasAnyWhitelistedTeleport(String targetClean, Set<String> whitelist)
+    private boolean hasAnyWhitelistedTeleport(String targetClean, TeleportWhitelist whitelist)
                             {
         if (targetClean == null) return false;
         
@@ -285,7 +371,7 @@ public class RegionLockEnforcerPlugin extends Plugin
             if (teleport.getMenuTarget() != null)
             {
                 String menuTargetLower = teleport.getMenuTarget().toLowerCase();
-                if (targetLower.contains(menuTargetLower) && whitelist.contains(teleport.getId()))
+                if (targetLower.contains(menuTargetLower) && whitelist.contains(teleport))
                             {
                     return true;
                 }
@@ -311,13 +397,173 @@ public class RegionLockEnforcerPlugin extends Plugin
         return null;
     }
 
+    /**
+     * Advance the editor brush once per frame: sample the tile under the mouse, extend the stroke
+     * to it and apply everything painted since the last frame as one border edit.
+     */
+    @Subscribe
+    public void onBeforeRender(BeforeRender event)
+    {
+        updateMinimapClickSnapshot();
+
+        BorderBrush.Target pressed = brush.getPressedTarget();
+        if (pressed == null)
+        {
+            return;
+        }
+
+        Border border = getActiveBorder();
+        if (brush.isStroking() && (brush.getBorder() != border || brush.getTarget() != pressed))
+        {
+            endBrushStroke();
+        }
+
+        if (editor.editing && border != null && !config.disableBorder())
+        {
+            WorldPoint sample;
+            if (pressed == BorderBrush.Target.WORLD_MAP)
+            {
+                sample = worldMapOverlay.getMouseWorldPoint();
+            }
+            else
+            {
+                Tile hovered = client.getSelectedSceneTile();
+                sample = hovered != null ? hovered.getWorldLocation() : null;
+                if (sample == null && !brush.isStroking())
+                {
+                    // A scene press off every tile is no stroke, even if the drag later reaches one
+                    brush.dropPress();
+                    return;
+                }
+            }
+
+            if (sample != null)
+            {
+                if (!brush.isStroking())
+                {
+                    int cellSize = pressed == BorderBrush.Target.WORLD_MAP ? worldMapOverlay.getGridSize() : 1;
+                    brush.begin(border, pressed, sample, cellSize);
+                }
+                else
+                {
+                    brush.moveTo(sample);
+                }
+            }
+        }
+
+        if (!brush.isHeld() || !editor.editing)
+        {
+            endBrushStroke();
+            brush.clearPress();
+        }
+        else if (brush.flush())
+        {
+            hasUnsavedEdits = true; // defer save until exiting edit mode
+        }
+    }
+
+    /**
+     * Undo or redo one step on the border being edited. A stroke in progress is ended first
+     * so it becomes its own step.
+     */
+    private void stepEditHistory(boolean undo)
+    {
+        Border border = getActiveBorder();
+        if (border == null)
+        {
+            return;
+        }
+        if (brush.isStroking())
+        {
+            endBrushStroke();
+        }
+        if (undo ? border.undo() : border.redo())
+        {
+            hasUnsavedEdits = true; // defer save until exiting edit mode
+        }
+    }
+
+    private void endBrushStroke()
+    {
+        if (brush.end())
+        {
+            hasUnsavedEdits = true;
+        }
+    }
+
+    @Subscribe
+    public void onGameStateChanged(GameStateChanged event)
+    {
+        if (event.getGameState() == GameState.LOADING)
+        {
+            // The scene base moves; the mask is rebuilt on its next use
+            sceneMask.invalidate();
+        }
+    }
+
+    // Doors, gates and other objects change the collision flags as they spawn and despawn;
+    // the reachability labels are rebuilt on their next use rather than per event
+    @Subscribe
+    public void onWallObjectSpawned(WallObjectSpawned event)
+    {
+        reachability.invalidate();
+    }
+
+    @Subscribe
+    public void onWallObjectDespawned(WallObjectDespawned event)
+    {
+        reachability.invalidate();
+    }
+
+    @Subscribe
+    public void onGameObjectSpawned(GameObjectSpawned event)
+    {
+        reachability.invalidate();
+    }
+
+    @Subscribe
+    public void onGameObjectDespawned(GameObjectDespawned event)
+    {
+        reachability.invalidate();
+    }
+
+    /**
+     * Look up the player's distance to the region edge and raise the proximity alert when the
+     * player moves to within the configured number of tiles.
+     */
+    @Subscribe
+    public void onGameTick(GameTick tick)
+    {
+        int previous = borderDistance;
+        int distance = 0;
+        net.runelite.api.Player player = client.getLocalPlayer();
+        if (!config.disableBorder() && currentRegion != null && player != null && currentRegion.hasFinishedBorder()
+            && (config.showBorderDistance() || config.borderDistanceAlert() > 0))
+        {
+            WorldPoint position = client.isInInstancedRegion()
+                ? WorldPoint.fromLocalInstance(client, player.getLocalLocation())
+                : player.getWorldLocation();
+            if (position != null)
+            {
+                distance = currentRegion.getDistanceField().distanceAt(position.getX(), position.getY(), position.getPlane());
+            }
+        }
+        borderDistance = distance;
+
+        int alert = config.borderDistanceAlert();
+        if (alert > 0 && distance > 0 && distance <= alert && previous > alert)
+        {
+            notifier.notify("You are " + distance + (distance == 1 ? " tile" : " tiles") + " from the edge of " + currentRegion.getName() + ".");
+        }
+    }
+
     @Subscribe
     public void onClientTick(ClientTick t)
     {
         if (client.getGameState() != GameState.LOGGED_IN) return;
                     
         // Filter jewellery box widgets if interface is open
-        Set<String> whitelist = getTeleportWhitelist();
+        TeleportWhitelist whitelist = getTeleportWhitelist();
         if (whitelist != null)
         {
             net.runelite.api.widgets.Widget jewelleryBoxWidget = client.getWidget(590, 0);
@@ -345,28 +591,18 @@ public class RegionLockEnforcerPlugin extends Plugin
         }
         
         // Filter teleport entries (both minimenu and direct menu options) on every tick as a fallback
-        if (whitelist != null)
+        // Deferred mode already reconciles the menu once per build in onPostMenuSort
+        if (whitelist != null && config.menuFilterMode() != RegionLockEnforcerConfig.MenuFilterMode.DEFERRED)
         {
-            final var entries = client.getMenuEntries();
-            final List<net.runelite.api.MenuEntry> keep = new ArrayList<>(entries.length);
-            
-            for (var me : entries)
+            menuEntryFilter.apply(client, me ->
             {
-                String option = me.getOption();
-                String targetClean = cleanTarget(me.getTarget());
-                TeleportDefinition matchedTeleport = findMatchingTeleport(option, targetClean);
-                    
-                    // Keep if it's whitelisted or not a teleport destination entry
-                if (matchedTeleport == null || whitelist.contains(matchedTeleport.getId()))
-                    {
-                        keep.add(me);
-                    }
-                }
-                
-                if (keep.size() != entries.length)
-                {
-                    client.setMenuEntries(keep.toArray(new net.runelite.api.MenuEntry[0]));
-            }
+                List<TeleportDefinition> candidates = getTeleportCandidates(me, null);
+                TeleportDefinition matchedTeleport = candidates != null
+                    ? TeleportRegistry.findDestination(candidates, me.getOption())
+                    : findMatchingTeleport(me.getOption(), cleanTarget(me.getTarget()));
+                // Keep if it's whitelisted or not a teleport destination entry
+                return matchedTeleport == null || whitelist.contains(matchedTeleport);
+            });
         }
     }
 
@@ -466,7 +702,7 @@ public class RegionLockEnforcerPlugin extends Plugin
         
         // Filter teleport entries using the exact same approach as Custom Menu Swaps custom hides
         // This uses ForwardsMenuIterator pattern to handle submenus correctly
-        Set<String> whitelist = getTeleportWhitelist();
+        TeleportWhitelist whitelist = getTeleportWhitelist();
         if (whitelist == null)
         {
             return;
@@ -497,9 +733,10 @@ public class RegionLockEnforcerPlugin extends Plugin
             
             // For submenu entries, get the parent entry's target to identify the item
             String effectiveTarget = target;
+            net.runelite.api.MenuEntry parentEntry = null;
             if (isSubmenu && menuIterator.index >= 0 && menuIterator.index < menuIterator.menuEntries.length)
             {
-                net.runelite.api.MenuEntry parentEntry = menuIterator.menuEntries[menuIterator.index];
+                parentEntry = menuIterator.menuEntries[menuIterator.index];
                 effectiveTarget = Text.standardize(parentEntry.getTarget());
             }
             
@@ -518,7 +755,7 @@ public class RegionLockEnforcerPlugin extends Plugin
                         Text.standardize(teleport.getName()).equals(standardizedOption))
                     {
                         // This is a jewellery box teleport - check if whitelisted
-                        if (!whitelist.contains(teleport.getId()))
+                        if (!whitelist.contains(teleport))
                         {
                             shouldHide = true;
                         }
@@ -527,24 +764,37 @@ public class RegionLockEnforcerPlugin extends Plugin
                 }
             }
             
-            // Check if this is a "Break" option on a teleport tablet
-            if (option != null && option.equals("break") && effectiveTarget != null)
+            // Check if this is a "Break" option on a teleport tablet (resolved by item id, name as fallback)
+            if (option != null && option.equals("break"))
             {
-                String spellTeleportId = teleportRegistry.getSpellTeleportIdForTablet(effectiveTarget);
-                if (spellTeleportId != null)
+                TeleportDefinition tablet = teleportRegistry.getTabletForMenuEntry(entry.getItemId(), effectiveTarget);
+                if (tablet != null && !isTabletWhitelisted(tablet, whitelist))
                 {
-                    // This is a tablet break option - hide it if the corresponding spell is not whitelisted
-                    if (!whitelist.contains(spellTeleportId))
-                    {
-                        shouldHide = true;
-                    }
+                    shouldHide = true;
                 }
             }
             
-            if (!shouldHide && option != null)
+            // Entries whose item, object or NPC id is known resolve with a map probe,
+            // which also covers charge and eternal variants without matching on names
+            List<TeleportDefinition> candidates = shouldHide || option == null ? null : getTeleportCandidates(entry, parentEntry);
+            if (candidates != null)
+            {
+                TeleportDefinition destination = TeleportRegistry.findDestination(candidates, option);
+                if (destination != null && !whitelist.contains(destination))
+                {
+                    shouldHide = true;
+                }
+            }
+            else if (!shouldHide && option != null)
             {
                 for (TeleportDefinition teleport : teleportRegistry.getAllTeleports())
                 {
+                    // Tablets are handled by the "Break" check above
+                    if (teleport.getType() == TeleportType.TABLET)
+                    {
+                        continue;
+                    }
+                    
                     // For OBJECT and NPC_DIALOG teleports, match on menu option and target directly
                     // (e.g., "Travel" option on "Primio" target)
                     if (teleport.getType() == TeleportType.OBJECT || teleport.getType() == TeleportType.NPC_DIALOG)
@@ -559,7 +809,7 @@ public class RegionLockEnforcerPlugin extends Plugin
                         if (optionMatches && targetMatches)
                         {
                             // Found matching teleport - check if whitelisted
-                            if (!whitelist.contains(teleport.getId()))
+                            if (!whitelist.contains(teleport))
                             {
                                 shouldHide = true;
                             }
@@ -576,13 +826,13 @@ public class RegionLockEnforcerPlugin extends Plugin
                     // For submenu entries, use parent target; for main entries, use entry target
                     // option is guaranteed to be non-null here (checked at line 524)
                     boolean optionMatches = option.equals(teleportOption);
-                    boolean targetMatches = targetMatchesWithSpecialCases(effectiveTarget, teleportTarget);
+                    boolean targetMatches = teleportTarget.isEmpty() || teleportTarget.equals(effectiveTarget);
                     
                     if (optionMatches && targetMatches)
                     {
                         // This is a teleport destination entry
                         // Hide it if it's NOT whitelisted (same logic as custom hides)
-                        if (!whitelist.contains(teleport.getId()))
+                        if (!whitelist.contains(teleport))
                         {
                             shouldHide = true;
                             break;
@@ -690,7 +940,7 @@ public class RegionLockEnforcerPlugin extends Plugin
      */
     private void handleCharterShipFiltering()
     {
-        Set<String> whitelist = getTeleportWhitelist();
+        TeleportWhitelist whitelist = getTeleportWhitelist();
         if (whitelist == null)
         {
             return;
@@ -726,7 +976,7 @@ public class RegionLockEnforcerPlugin extends Plugin
         {
                 if (teleport.getCategory().equals("Charter Ships") &&
                     Text.standardize(teleport.getName()).equals(standardizedName) &&
-                    whitelist.contains(teleport.getId()))
+                    whitelist.contains(teleport))
                     {
                         isWhitelisted = true;
                     break;
@@ -742,7 +992,7 @@ public class RegionLockEnforcerPlugin extends Plugin
      */
     private void handleJewelleryBoxFiltering()
     {
-        Set<String> whitelist = getTeleportWhitelist();
+        TeleportWhitelist whitelist = getTeleportWhitelist();
         if (whitelist == null)
         {
             return;
@@ -776,7 +1026,7 @@ public class RegionLockEnforcerPlugin extends Plugin
                 Text.standardize(teleport.getName()).equals(standardizedName))
             {
                 // Found matching teleport - check if whitelisted
-                isWhitelisted = whitelist.contains(teleport.getId());
+                isWhitelisted = whitelist.contains(teleport);
                 break;
             }
         }
@@ -801,7 +1051,7 @@ public class RegionLockEnforcerPlugin extends Plugin
      */
     private void filterCharterShipInterface()
     {
-        Set<String> whitelist = getTeleportWhitelist();
+        TeleportWhitelist whitelist = getTeleportWhitelist();
         if (whitelist == null)
         {
             lastCharterShipWidgetId = -1; // Reset if conditions not met
@@ -1014,7 +1264,7 @@ public class RegionLockEnforcerPlugin extends Plugin
      */
     private void filterCharterShipWidgetsRecursive(net.runelite.api.widgets.Widget widget,
                                                   java.util.Map<String, String> destinationNameToId,
-                                                  Set<String> whitelist,
+                                                  TeleportWhitelist whitelist,
                                                   int depth)
     {
         traverseWidgetTreeForFiltering(widget, w -> {
@@ -1059,7 +1309,7 @@ public class RegionLockEnforcerPlugin extends Plugin
         int[] spells = client.getArray(spellArrayId); // enum indices
 
         // If teleport filtering is disabled or no profile, ensure all spells are visible and don't filter
-        Set<String> whitelist = getTeleportWhitelist();
+        TeleportWhitelist whitelist = getTeleportWhitelist();
         if (whitelist == null)
         {
             // Unhide all spell widgets
@@ -1141,7 +1391,7 @@ public class RegionLockEnforcerPlugin extends Plugin
      */
     private void filterJewelleryBoxWidgetsRecursive(net.runelite.api.widgets.Widget widget,
                                                     java.util.Map<String, String> teleportNameToId,
-                                                    Set<String> whitelist,
+                                                    TeleportWhitelist whitelist,
                                                     int depth)
     {
         traverseWidgetTreeForFiltering(widget, w -> {
@@ -1215,12 +1465,8 @@ public class RegionLockEnforcerPlugin extends Plugin
         Tile hovered = client.getSelectedSceneTile();
         WorldPoint wp = hovered != null ? hovered.getWorldLocation() : null;
         
-        // TODO: Handle world map chunk clicks when in editing mode
-        // Note: RuneLite's MouseAdapter has a different signature than standard Java MouseAdapter,
-        // so direct mouse event handling isn't straightforward. World map clicks may need to be
-        // detected through widget script events or a custom overlay approach.
-        // The chunk methods (addChunk, removeChunk, isChunkFullyContained) are implemented
-        // and ready to use once world map click detection is working.
+        // Shift + left presses in edit mode are taken by the brush (see EditorInput and onBeforeRender);
+        // this path covers tiles picked from the right-click menu with shift held
 
         boolean shiftDown = client.isKeyPressed(KeyCode.KC_SHIFT);
 
@@ -1235,17 +1481,12 @@ public class RegionLockEnforcerPlugin extends Plugin
         {
             e.consume();
             // Toggle: if marked, unmark it; if unmarked, mark it
-            if (editingBorder.getBoundaryTiles().contains(wp))
+            // Clear inner tiles when boundary changes; one notification covers both
+            editingBorder.edit(tx ->
             {
-                editingBorder.removeTile(wp);
-            }
-            else
-            {
-                editingBorder.addTile(wp);
-            }
-                // Clear inner tiles when boundary changes
-            editingBorder.getInnerTiles().clear();
-            currentRegion.invalidateClickableTilesCache();
+                tx.toggleTile(wp);
+                tx.clearInnerTiles();
+            });
             hasUnsavedEdits = true; // defer save until exiting edit mode
             return;
         }
@@ -1268,46 +1509,26 @@ public class RegionLockEnforcerPlugin extends Plugin
         }
 
         // Block ALL clicks outside the bordered region (only when inner tiles are computed)
-        // Only block within normal surface map bounds (excludes underground, instances, upper/lower floors)
+        // Only surface tiles on planes with a finished border are enforced, including instanced copies of them
+        // when Enforce In Instances is on; underground tiles never are (see isBlockedSceneTile)
         // Only block game world actions (WALK, GAME_OBJECT, GROUND_ITEM, NPC, etc.), not UI actions, player interactions, or "Walk here" on players
-        if (config.blockClicksOutsideBorder() && wp != null && currentRegion != null && !currentRegion.getAllInnerTiles().isEmpty())
+        if (config.blockClicksOutsideBorder() && hovered != null && currentRegion != null)
         {
-            // Only apply click blocking within normal surface map bounds
-            if (isWithinSurfaceBounds(wp))
+            // Surface tile (or instanced copy) outside every border
+            if (isBlockedSceneTile(hovered))
             {
-                // Allow "Walk here" if it's on a player, block it otherwise
-                if (typeId == MenuAction.WALK.getId())
-                {
-                    // Check if there are player actions in the menu (indicates we clicked on a player)
-                    final var entries = client.getMenuEntries();
-                    boolean isOnPlayer = false;
-                    for (var me : entries)
-                    {
-                        if (isPlayerAction(me.getType()))
-                        {
-                            isOnPlayer = true;
-                            break;
-                        }
-                    }
-                    // If not on a player, block "Walk here"
-                    if (!isOnPlayer)
+                // One table lookup decides; "Walk here" is only allowed when the menu targets a player
+                MenuAction action = e.getMenuAction();
+                boolean onPlayer = menuPolicy.classify(action).getEnforcement() == MenuPolicy.Enforcement.ALLOW_NEAR_PLAYER
+                    && menuHasPlayerAction();
+                if (menuPolicy.shouldBlockClick(action, onPlayer))
                 {
-                        Set<WorldPoint> clickableTiles = currentRegion.getAllClickableTiles();
-                    if (!clickableTiles.contains(wp))
-                    {
-            e.consume();
-                    }
+                    e.consume();
                 }
             }
-                // Block other game world actions
-                else if (isGameWorldAction(typeId))
-                {
-                    Set<WorldPoint> clickableTiles = currentRegion.getAllClickableTiles();
-                    if (!clickableTiles.contains(wp))
-                    {
-                        e.consume();
-                    }
-                }
+            else if (config.preventPathCrossing() && typeId == MenuAction.WALK.getId() && isWalkThroughOutside(hovered))
+            {
+                e.consume();
             }
         }
         // If wp is null or not a game world action, this is a UI click, player interaction, etc. - don't block it
@@ -1320,139 +1541,157 @@ public class RegionLockEnforcerPlugin extends Plugin
         if (config.disableBorder()) return;
 
         Tile hovered = client.getSelectedSceneTile();
-        WorldPoint hoveredWp = hovered != null ? hovered.getWorldLocation() : null;
-        
+
         // Filter teleports based on whitelist (if region has teleport whitelist configured)
         // We need to filter on EVERY MenuEntryAdded event to catch submenu entries as they're added
-        Set<String> whitelist = getTeleportWhitelist();
-        if (whitelist != null)
-        {
-            final var entries = client.getMenuEntries();
-            final List<net.runelite.api.MenuEntry> keep = new ArrayList<>(entries.length);
-            
-            for (var me : entries)
-            {
-                String option = me.getOption();
-                String targetClean = cleanTarget(me.getTarget());
-                
-                // Check if this is a submenu destination entry first
-                TeleportDefinition matchedTeleport = findSubmenuTeleport(option, targetClean);
-                
-                if (matchedTeleport != null)
-                        {
-                    // Submenu destination entry - keep if whitelisted
-                    if (whitelist.contains(matchedTeleport.getId()))
-                    {
-                        keep.add(me);
-                    }
-                }
-                else if (isParentTeleportEntry(option, targetClean))
-                {
-                    // Parent teleport entry - keep if any teleport for this item is whitelisted
-                    if (hasAnyWhitelistedTeleport(targetClean, whitelist))
-                    {
-                        keep.add(me);
-                    }
-                }
-                else
-                {
-                    // Not a teleport entry, keep it
-                    keep.add(me);
-                }
-            }
-            
-            if (keep.size() != entries.length)
-            {
-                client.setMenuEntries(keep.toArray(new net.runelite.api.MenuEntry[0]));
-            }
-        }
+        TeleportWhitelist whitelist = getTeleportWhitelist();
 
         // Check menu block rules to filter menu entries
-        if (currentProfile != null && currentProfile.getMenuRules() != null)
-        {
-            final var entries = client.getMenuEntries();
-            final List<net.runelite.api.MenuEntry> keep = new ArrayList<>(entries.length);
-            
-            for (var me : entries)
-            {
-                boolean shouldBlock = false;
-                
-                // Check against menu block rules
-                for (MenuBlockRule rule : currentProfile.getMenuRules())
-                {
-                    if (rule.isEnabled() && rule.matches(me.getType().getId(), me.getOption(), me.getTarget()))
-                    {
-                        shouldBlock = true;
-                        break;
-                    }
-                }
-                
-                if (!shouldBlock)
-                {
-                keep.add(me);
-                }
-            }
-            
-            if (keep.size() != entries.length)
-            {
-                client.setMenuEntries(keep.toArray(new net.runelite.api.MenuEntry[0]));
-            }
-        }
+        List<MenuBlockRule> rules = currentProfile != null ? currentProfile.getMenuRules() : null;
 
         // Remove ALL menu entries for tiles outside the border (only when inner tiles are computed)
-        // Only filter within normal surface map bounds (excludes underground, instances, upper/lower floors)
+        // Only surface tiles on planes with a finished border are filtered, including instanced copies of them
+        // when Enforce In Instances is on; underground tiles never are (see isBlockedSceneTile)
         // Whitelist approach: filter everything, then explicitly allow only UI actions, player interactions, and "Walk here" on players
-        if (config.blockClicksOutsideBorder() && hoveredWp != null && !editor.editing && currentRegion != null && !currentRegion.getAllInnerTiles().isEmpty())
+        // If no scene tile is hovered, this is a UI hover (inventory, chat, etc.) - don't filter by border
+        boolean outsideBorder = config.blockClicksOutsideBorder() && hovered != null && !editor.editing
+            && isBlockedSceneTile(hovered);
+
+        // Check if we're hovering over a player (do this once before filtering)
+        boolean hoveringOverPlayer = outsideBorder && menuPolicy.isNearPlayer(client, hovered.getWorldLocation());
+
+        if (config.menuFilterMode() == RegionLockEnforcerConfig.MenuFilterMode.DEFERRED)
         {
-            // Only apply menu filtering within normal surface map bounds
-            if (isWithinSurfaceBounds(hoveredWp))
+            // Only the new entry is checked here; teleports are reconciled once per menu build in onPostMenuSort
+            net.runelite.api.MenuEntry added = e.getMenuEntry();
+            if (added != null && (outsideBorder || (rules != null && !rules.isEmpty()))
+                && !keepMenuEntry(added, null, rules, outsideBorder, hoveringOverPlayer))
             {
-                Set<WorldPoint> clickableTiles = currentRegion.getAllClickableTiles();
-                if (!clickableTiles.contains(hoveredWp))
-                {
-                    // Check if we're hovering over a player (do this once before filtering)
-                    boolean hoveringOverPlayer = isHoveringOverPlayer(hoveredWp);
-                    
-                    // Filter ALL menu entries, then explicitly allow only UI actions, player interactions, and "Walk here" on players
-                    final var entries = client.getMenuEntries();
-                    final List<net.runelite.api.MenuEntry> keep = new ArrayList<>(entries.length);
-                    
-                    for (var me : entries)
-                    {
-                        MenuAction actionType = me.getType();
-                        // Allow UI actions and player interactions
-                        if (isUIAction(actionType) || isPlayerAction(actionType))
-                        {
-                            keep.add(me);
-                        }
-                        // Allow "Walk here" only if it's targeting a player
-                        else if (actionType == MenuAction.WALK && hoveringOverPlayer)
-                        {
-                            keep.add(me);
-                        }
-                    }
-                    
-                    // Update menu entries (even if empty, to remove all game world options)
-                    client.setMenuEntries(keep.toArray(new net.runelite.api.MenuEntry[0]));
-                }
+                client.getMenu().removeMenuEntry(added);
             }
+            return;
+        }
+
+        if (whitelist == null && (rules == null || rules.isEmpty()) && !outsideBorder)
+        {
+            return;
         }
-        // If hoveredWp is null, this is a UI hover (inventory, chat, etc.) - don't filter menu entries
+
+        // All three checks run in one pass; the menu is only replaced if something was removed
+        menuEntryFilter.apply(client, me -> keepMenuEntry(me, whitelist, rules, outsideBorder, hoveringOverPlayer));
     }
 
-    // Minimal editor: hotkey toggles edit mode; left-click toggles tile marking
-    class EditorInput extends MouseAdapter
+    // Deferred mode: reconcile teleport entries once the menu for this frame has been built
+    @Subscribe
+    public void onPostMenuSort(PostMenuSort e)
     {
-        @Getter boolean editing = false;
+        if (config.disableBorder() || config.menuFilterMode() != RegionLockEnforcerConfig.MenuFilterMode.DEFERRED)
+        {
+            return;
+        }
 
-        final HotkeyListener toggleEditHotkey = new HotkeyListener(() -> config.toggleEditor())
+        // An open menu is handled by onMenuOpened (including submenus)
+        if (client.isMenuOpen())
+        {
+            return;
+        }
+
+        TeleportWhitelist whitelist = getTeleportWhitelist();
+        if (whitelist == null)
+        {
+            return;
+        }
+
+        menuEntryFilter.apply(client, me -> keepMenuEntry(me, whitelist, null, false, false));
+    }
+
+    /**
+     * Decide whether a menu entry survives the teleport whitelist, the menu block rules
+     * and the border filter.
+     */
+    private boolean keepMenuEntry(net.runelite.api.MenuEntry me, TeleportWhitelist whitelist, List<MenuBlockRule> rules,
+        boolean outsideBorder, boolean hoveringOverPlayer)
+    {
+        // Cheapest check first: a single table lookup
+        if (outsideBorder && menuPolicy.shouldHide(me.getType(), hoveringOverPlayer))
+        {
+            return false;
+        }
+
+        if (rules != null)
+        {
+            for (MenuBlockRule rule : rules)
+            {
+                if (rule.isEnabled() && rule.matches(me.getType().getId(), me.getOption(), me.getTarget()))
+                {
+                    return false;
+                }
+            }
+        }
+
+        if (whitelist != null)
+        {
+            String option = me.getOption();
+            String targetClean = cleanTarget(me.getTarget());
+
+            // Tablet "Break" resolves with a single map probe on the item id
+            if ("Break".equalsIgnoreCase(option))
+            {
+                TeleportDefinition tablet = teleportRegistry.getTabletForMenuEntry(me.getItemId(), targetClean);
+                if (tablet != null)
+                {
+                    return isTabletWhitelisted(tablet, whitelist);
+                }
+            }
+
+            List<TeleportDefinition> candidates = getTeleportCandidates(me, null);
+            if (candidates != null)
+            {
+                TeleportDefinition destination = TeleportRegistry.findDestination(candidates, option);
+                if (destination != null)
+                {
+                    return whitelist.contains(destination);
+                }
+                if ("Teleport".equalsIgnoreCase(option) || "Rub".equalsIgnoreCase(option))
+                {
+                    // Parent teleport entry - keep if any teleport for this item is whitelisted
+                    return hasAnyWhitelistedTeleport(candidates, whitelist);
+                }
+                return true;
+            }
+
+            // Entries without a known id fall back to matching on names
+            // Check if this is a submenu destination entry first
+            TeleportDefinition matchedTeleport = findSubmenuTeleport(option, targetClean);
+            if (matchedTeleport != null)
+            {
+                // Submenu destination entry - keep if whitelisted
+                return whitelist.contains(matchedTeleport);
+            }
+            if (isParentTeleportEntry(option, targetClean))
+            {
+                // Parent teleport entry - keep if any teleport for this item is whitelisted
+                return hasAnyWhitelistedTeleport(targetClean, whitelist);
+            }
+        }
+
+        // Not a teleport entry, keep it
+        return true;
+    }
+
+    // Minimal editor: hotkey toggles edit mode; left-click toggles tile marking
+    class EditorInput extends MouseAdapter
+    {
+        @Getter boolean editing = false;
+
+        final HotkeyListener toggleEditHotkey = new HotkeyListener(() -> config.toggleEditor())
         {
             @Override public void hotkeyPressed() 
             { 
                 // Only allow toggle if current profile is in edit mode (has no inner tiles)
                 // If profile is finished (has inner tiles), don't allow toggle
                 Border border = getActiveBorder();
-                if (border != null && border.getInnerTiles().isEmpty())
+                if (border != null && !border.hasInnerTiles())
                 {
                     editing = !editing;
                 }
@@ -1467,119 +1706,82 @@ public class RegionLockEnforcerPlugin extends Plugin
             }
         };
 
-    }
+        final HotkeyListener undoHotkey = new HotkeyListener(() -> config.undoEdit())
+        {
+            @Override public void hotkeyPressed()
+            {
+                if (editing)
+                {
+                    clientThread.invoke(() -> stepEditHistory(true));
+                }
+            }
+        };
 
-    /**
-     * Check if a tile has at least one outer edge (neighbor not in hull).
-     */
-    private boolean hasOuterEdge(WorldPoint tile, Set<WorldPoint> hullTiles, int plane)
-    {
-        int x = tile.getX();
-        int y = tile.getY();
-        
-        WorldPoint northNeighbor = new WorldPoint(x, y + 1, plane);
-        WorldPoint southNeighbor = new WorldPoint(x, y - 1, plane);
-        WorldPoint eastNeighbor = new WorldPoint(x + 1, y, plane);
-        WorldPoint westNeighbor = new WorldPoint(x - 1, y, plane);
-        
-        return !hullTiles.contains(northNeighbor) || 
-               !hullTiles.contains(southNeighbor) || 
-               !hullTiles.contains(eastNeighbor) || 
-               !hullTiles.contains(westNeighbor);
-    }
+        final HotkeyListener redoHotkey = new HotkeyListener(() -> config.redoEdit())
+        {
+            @Override public void hotkeyPressed()
+            {
+                if (editing)
+                {
+                    clientThread.invoke(() -> stepEditHistory(false));
+                }
+            }
+        };
 
-    /**
-     * Check if a MenuAction is a UI-related action (widget, inventory, etc.).
-     */
-    private boolean isUIAction(MenuAction actionType)
-    {
-        return actionType == MenuAction.CC_OP ||
-               actionType == MenuAction.WIDGET_TARGET ||
-               actionType == MenuAction.WIDGET_TYPE_1 ||
-               actionType == MenuAction.WIDGET_TYPE_4 ||
-               actionType == MenuAction.WIDGET_TYPE_5 ||
-               actionType == MenuAction.CANCEL ||
-               actionType.name().contains("WIDGET") ||
-               actionType.name().contains("ITEM_USE");
-    }
+        @Override
+        public java.awt.event.MouseEvent mousePressed(java.awt.event.MouseEvent e)
+        {
+            // Minimap walks never reach onMenuOptionClicked, so their destination is checked here
+            if (!editing && e.getButton() == java.awt.event.MouseEvent.BUTTON1 && !client.isMenuOpen()
+                && isBlockedMinimapClick(e.getPoint()))
+            {
+                e.consume();
+                return e;
+            }
 
-    /**
-     * Check if a MenuAction is a player interaction (follow, trade, attack, etc.).
-     */
-    private boolean isPlayerAction(MenuAction actionType)
-    {
-        return actionType == MenuAction.PLAYER_FIRST_OPTION ||
-               actionType == MenuAction.PLAYER_SECOND_OPTION ||
-               actionType == MenuAction.PLAYER_THIRD_OPTION ||
-               actionType == MenuAction.PLAYER_FOURTH_OPTION ||
-               actionType == MenuAction.PLAYER_FIFTH_OPTION ||
-               actionType == MenuAction.PLAYER_SIXTH_OPTION ||
-               actionType == MenuAction.PLAYER_SEVENTH_OPTION ||
-               actionType == MenuAction.PLAYER_EIGHTH_OPTION ||
-               actionType.name().contains("PLAYER");
+            // Shift + left press in edit mode starts a brush stroke on the world map or the scene
+            if (!editing || e.getButton() != java.awt.event.MouseEvent.BUTTON1 || !e.isShiftDown()
+                || client.isMenuOpen() || getActiveBorder() == null)
+            {
+                return e;
+            }
+
+            // Whether a scene press hit a tile is only known on the client thread, which drops it if not
+            brush.press(worldMapOverlay.isOverWorldMap(e.getPoint()) ? BorderBrush.Target.WORLD_MAP : BorderBrush.Target.SCENE);
+            e.consume();
+            return e;
+        }
+
+        @Override
+        public java.awt.event.MouseEvent mouseReleased(java.awt.event.MouseEvent e)
+        {
+            if (e.getButton() == java.awt.event.MouseEvent.BUTTON1 && brush.getPressedTarget() != null)
+            {
+                brush.release();
+                e.consume();
+            }
+            return e;
+        }
     }
 
     /**
-     * Check if there's a player near the hovered tile location (within 3x3 area).
-     * When you right-click a player, "Walk here" appears in the menu, and we want to allow it.
-     * Returns true if hovering within 1 tile of a player (3x3 area).
+     * Check if the open menu contains a player interaction (indicates we clicked on a player).
      */
-    private boolean isHoveringOverPlayer(WorldPoint hoveredWp)
+    private boolean menuHasPlayerAction()
     {
-        if (hoveredWp == null) return false;
-        
-        // Check the scene for players within 1 tile (3x3 area)
-        try
+        for (var me : client.getMenuEntries())
         {
-            if (client.getPlayers() != null)
+            if (menuPolicy.isPlayerAction(me.getType()))
             {
-                for (net.runelite.api.Player player : client.getPlayers())
-                {
-                    if (player != null && player.getWorldLocation() != null)
-    {
-                        WorldPoint playerWp = player.getWorldLocation();
-                        // Check if player is within 1 tile (3x3 area)
-                        if (playerWp.getPlane() == hoveredWp.getPlane() &&
-                            Math.abs(playerWp.getX() - hoveredWp.getX()) <= 1 &&
-                            Math.abs(playerWp.getY() - hoveredWp.getY()) <= 1)
-                        {
-                            return true;
-                        }
-                    }
-                }
+                return true;
             }
         }
-        catch (Exception e)
-        {
-            // getPlayers() might throw exceptions in some cases, ignore them
-        }
-        
         return false;
     }
 
-    /**
-     * Check if a menu action type is a game world action (walk, interact with objects/NPCs/items).
-     * Note: Player interactions (PLAYER_*, FOLLOW, TRADE, etc.) are explicitly excluded and will not be blocked.
-     */
-    private boolean isGameWorldAction(int typeId)
-    {
-        return typeId == MenuAction.WALK.getId() ||
-               typeId == MenuAction.GAME_OBJECT_FIRST_OPTION.getId() ||
-               typeId == MenuAction.GAME_OBJECT_SECOND_OPTION.getId() ||
-               typeId == MenuAction.GAME_OBJECT_THIRD_OPTION.getId() ||
-               typeId == MenuAction.GAME_OBJECT_FOURTH_OPTION.getId() ||
-               typeId == MenuAction.GAME_OBJECT_FIFTH_OPTION.getId() ||
-               typeId == MenuAction.GROUND_ITEM_FIRST_OPTION.getId() ||
-               typeId == MenuAction.GROUND_ITEM_SECOND_OPTION.getId() ||
-               typeId == MenuAction.GROUND_ITEM_THIRD_OPTION.getId() ||
-               typeId == MenuAction.GROUND_ITEM_FOURTH_OPTION.getId() ||
-               typeId == MenuAction.GROUND_ITEM_FIFTH_OPTION.getId() ||
-               typeId == MenuAction.NPC_FIRST_OPTION.getId() ||
-               typeId == MenuAction.NPC_SECOND_OPTION.getId() ||
-               typeId == MenuAction.NPC_THIRD_OPTION.getId() ||
-               typeId == MenuAction.NPC_FOURTH_OPTION.getId() ||
-               typeId == MenuAction.NPC_FIFTH_OPTION.getId();
-        // Player actions (PLAYER_*, FOLLOW, TRADE, etc.) are NOT included here, so they won't be blocked
+    public MenuPolicy getMenuPolicy()
+    {
+        return menuPolicy;
     }
 
     /**
@@ -1619,36 +1821,6 @@ public class RegionLockEnforcerPlugin extends Plugin
         return false;
     }
 
-    /**
-     * Check if target matches teleport with special cases for amulet of glory and slayer ring.
-     */
-    private boolean targetMatchesWithSpecialCases(String effectiveTarget, String teleportTarget)
-    {
-        boolean targetMatches = teleportTarget.isEmpty() || (effectiveTarget != null && effectiveTarget.equals(teleportTarget));
-            
-        // Special case: Amulet of glory teleports also match "Amulet of eternal glory"
-        if (!targetMatches && teleportTarget.equals("amulet of glory") && effectiveTarget != null)
-        {
-            targetMatches = effectiveTarget.equals("amulet of eternal glory");
-        }
-        if (!targetMatches && teleportTarget.equals("amulet of eternal glory") && effectiveTarget != null)
-        {
-            targetMatches = effectiveTarget.equals("amulet of glory");
-        }
-        
-        // Special case: Slayer ring teleports also match "Slayer ring (eternal)"
-        if (!targetMatches && teleportTarget.equals("slayer ring") && effectiveTarget != null)
-        {
-            targetMatches = effectiveTarget.equals("slayer ring (eternal)");
-        }
-        if (!targetMatches && teleportTarget.equals("slayer ring (eternal)") && effectiveTarget != null)
-        {
-            targetMatches = effectiveTarget.equals("slayer ring");
-        }
-        
-        return targetMatches;
-    }
-
     /**
      * Check if target matches teleport for submenu entries (target contains item name OR matches destination name).
      */
@@ -1781,8 +1953,26 @@ public class RegionLockEnforcerPlugin extends Plugin
         {
             String whitelistKey = whitelistConfigKey(region.getName());
             String whitelistStr = configManager.getConfiguration(RegionLockEnforcerConfig.GROUP, whitelistKey);
-            if (whitelistStr != null)
+            if (whitelistStr == null)
+            {
+                continue;
+            }
+            if (TeleportWhitelist.isEncoded(whitelistStr))
             {
+                Set<String> ids = TeleportWhitelist.decodeIds(whitelistStr, teleportRegistry);
+                if (ids != null)
+                {
+                    region.setTeleportWhitelist(ids);
+                }
+                else
+                {
+                    // Written against different registry ordinals; keep the id list from the full region save
+                    log.warn("Ignoring whitelist bitset for region {} written by a different teleport registry", region.getName());
+                }
+            }
+            else
+            {
+                // Legacy semicolon-joined ids
                 region.setTeleportWhitelist(RegionSerializer.deserializeStrings(whitelistStr));
             }
         }
@@ -1816,14 +2006,15 @@ public class RegionLockEnforcerPlugin extends Plugin
         }
 
         String regionName = region.getName() != null ? region.getName() : "";
-        Set<String> whitelistSnapshot = new HashSet<>(region.getTeleportWhitelist());
+        TeleportWhitelist whitelistSnapshot = region.getTeleportWhitelistSnapshot(teleportRegistry);
         String whitelistKey = whitelistConfigKey(regionName);
 
         backgroundExecutor.submit(() ->
         {
             try
             {
-                String serialized = RegionSerializer.serializeStrings(whitelistSnapshot);
+                // A handful of hex words instead of every id
+                String serialized = whitelistSnapshot.encode();
                 configManager.setConfiguration(RegionLockEnforcerConfig.GROUP, whitelistKey, serialized);
                 // Keep selection in sync without touching heavy region serialization
                 configManager.setConfiguration(RegionLockEnforcerConfig.GROUP, "selectedRegion", regionName);
@@ -1887,6 +2078,46 @@ public class RegionLockEnforcerPlugin extends Plugin
         return border;
     }
 
+    /**
+     * Add a border to the region covering {@code left op right}.
+     *
+     * @return the new border, or null if the result is empty
+     */
+    public Border createBorderFromAreas(Region region, String name, TileLayer[] left, TileLayer[] right, Border.SetOperation op)
+    {
+        if (region == null || op == null)
+        {
+            return null;
+        }
+
+        TileLayer[] area = Border.combineAreas(left, right, op);
+        boolean empty = true;
+        for (TileLayer layer : area)
+        {
+            empty &= layer == null;
+        }
+        if (empty)
+        {
+            return null;
+        }
+
+        String preferredName = name;
+        if (preferredName == null || preferredName.trim().isEmpty())
+        {
+            preferredName = "Border " + (region.getBorders().size() + 1);
+        }
+        Border border = region.addBorder(preferredName);
+        border.setArea(area);
+        border.clearHistory();
+        if (region == currentRegion)
+        {
+            currentBorder = border;
+        }
+        saveRegions();
+        notifyRegionsChanged();
+        return border;
+    }
+
     public void deleteBorder(Region region, Border border)
     {
         if (region == null || border == null)
@@ -2110,7 +2341,7 @@ public class RegionLockEnforcerPlugin extends Plugin
     {
         if (border == null) return;
 
-        border.setInnerTiles(new HashSet<>());
+        border.clearInnerTiles();
 
         editor.editing = true;
 
@@ -2196,251 +2427,282 @@ public class RegionLockEnforcerPlugin extends Plugin
     }
 
     /**
-     * Check if a WorldPoint is within normal surface map bounds.
-     * This excludes underground areas (far north), instances, and upper/lower floors.
-     * 
-     * Map dimensions: 47 chunks × 64 = 3008 tiles wide, 33 chunks × 64 = 2112 tiles tall
-     * Left edge X = 960, Bottom edge Y = 1984
-     * 
-     * @param wp The WorldPoint to check
-     * @return true if the point is within normal surface map bounds
+     * Whether clicks on the scene tile are blocked by the current region: it is (or, in an instance,
+     * is a copy of) a surface tile on a plane with a finished border that is not on or inside any
+     * border. One bit test against the scene mask.
      */
-    private boolean isWithinSurfaceBounds(WorldPoint wp)
+    private boolean isBlockedSceneTile(Tile tile)
     {
-        if (wp == null)
+        if (tile == null || currentRegion == null)
         {
             return false;
         }
-
-        // Only block clicks on the main surface plane (plane 0).
-        // Upstairs floors (plane > 0) and underground/instance floors (plane != 0) are exempt.
-        if (wp.getPlane() != 0)
+        net.runelite.api.Point scene = tile.getSceneLocation();
+        if (scene == null)
         {
             return false;
         }
-
-        // Instanced regions (raids, dungeons, POH, etc.) should never be blocked.
-        if (client.isInInstancedRegion())
-        {
-            return false;
-        }
-        
-        // Normal OSRS surface map bounds
-        // Map is 3008 tiles wide (47 chunks × 64) and 2112 tiles tall (33 chunks × 64)
-        // Left edge X = 960, Bottom edge Y = 1984
-        // Underground areas are placed far north (outside these bounds)
-        // Instances and other special areas are outside these bounds
-        final int MIN_X = 960;
-        final int MAX_X = 960 + 3008 - 1; // 3967
-        final int MIN_Y = 1984;
-        final int MAX_Y = 1984 + 2112 - 1; // 4095
-        
-        int x = wp.getX();
-        int y = wp.getY();
-        
-        return x >= MIN_X && x <= MAX_X && y >= MIN_Y && y <= MAX_Y;
+        return getSceneMask().isBlocked(scene.getX(), scene.getY(), tile.getPlane());
     }
 
+    /**
+     * Whether a left click at the canvas point is a minimap walk that the border blocks: its destination
+     * is outside the border, or (with path crossing prevention) only reachable by leaving it.
+     * Runs on the input thread, so it only reads the last published snapshot.
+     */
+    private boolean isBlockedMinimapClick(java.awt.Point point)
+    {
+        MinimapClickSnapshot snapshot = minimapClickSnapshot;
+        return snapshot != null && snapshot.isBlocked(point);
+    }
 
     /**
-     * Compute all inner tiles (tiles inside the boundary) using an exterior flood fill.
-     * This enforces that the user draws a fully bounded shape.
-     *
-     * @param border The border to compute inner tiles for
-     * @return true if computation was successful, false if the border is not fully enclosed
+     * Publish the minimap's projection with the scene mask bits and reachability labels of the player's
+     * plane for the mouse listener, which looks up only the clicked tile. Per frame this is two minimap
+     * projections and a few reference checks; a new snapshot is only published when one of them changed.
      */
-    public boolean computeInnerTiles(Border border)
+    private void updateMinimapClickSnapshot()
     {
-        if (border == null)
+        if (config.disableBorder() || !config.blockClicksOutsideBorder() || currentRegion == null
+            || !currentRegion.hasFinishedBorder() || client.getGameState() != GameState.LOGGED_IN)
         {
-            return false;
+            minimapClickSnapshot = null;
+            return;
+        }
+        MinimapClickSnapshot previous = minimapClickSnapshot;
+        MinimapClickSnapshot.Projection projection = minimapOverlay.captureProjection(
+            previous != null ? previous.getProjection() : null);
+        if (projection == null)
+        {
+            minimapClickSnapshot = null;
+            return;
         }
 
-        Set<WorldPoint> boundaryTiles = border.getBoundaryTiles();
-        if (boundaryTiles.isEmpty())
+        int plane = client.getPlane();
+        SceneMask mask = getSceneMask();
+        SceneReachability.Areas areas = null;
+        int[][] flags = config.preventPathCrossing() ? collisionFlags(plane) : null;
+        if (flags != null)
         {
-            border.setInnerTiles(new HashSet<>());
-            return false;
+            reachability.refresh(mask, plane, flags);
+            areas = reachability.getAreas();
+        }
+        long[] clickable = mask.getClickableBits(plane);
+        long[] blocked = mask.getBlockedBits(plane);
+        if (previous == null || !previous.holds(projection, clickable, blocked, areas))
+        {
+            minimapClickSnapshot = new MinimapClickSnapshot(projection, clickable, blocked, areas);
         }
+    }
 
-        int plane = boundaryTiles.iterator().next().getPlane();
-        Set<WorldPoint> samePlaneBoundary = boundaryTiles.stream()
-            .filter(tile -> tile.getPlane() == plane)
-            .collect(java.util.stream.Collectors.toSet());
+    /**
+     * Whether walking to the scene tile would have to cross tiles outside the border: the player
+     * and the destination are both inside, but not in the same connected inside area.
+     * One lookup into labels computed per scene load, border change and collision change.
+     */
+    private boolean isWalkThroughOutside(Tile destination)
+    {
+        net.runelite.api.Point dest = destination.getSceneLocation();
+        return dest != null && isWalkThroughOutside(dest.getX(), dest.getY(), destination.getPlane());
+    }
 
-        if (samePlaneBoundary.isEmpty())
+    private boolean isWalkThroughOutside(int destX, int destY, int destPlane)
+    {
+        net.runelite.api.Player player = client.getLocalPlayer();
+        if (player == null || currentRegion == null || !currentRegion.hasFinishedBorder())
         {
-            border.setInnerTiles(new HashSet<>());
             return false;
         }
-
-        Set<WorldPoint> innerTiles = computeInteriorTiles(samePlaneBoundary, plane);
-        if (innerTiles.isEmpty())
+        net.runelite.api.coords.LocalPoint start = player.getLocalLocation();
+        int plane = client.getPlane();
+        if (start == null || destPlane != plane)
         {
-            border.setInnerTiles(new HashSet<>());
             return false;
         }
 
-        border.setInnerTiles(innerTiles);
-
-        Set<WorldPoint> solidTiles = new HashSet<>(innerTiles);
-        solidTiles.addAll(samePlaneBoundary);
-
-        Set<WorldPoint> borderTiles = new HashSet<>();
-        for (WorldPoint tile : samePlaneBoundary)
+        SceneMask mask = getSceneMask();
+        int startX = start.getSceneX();
+        int startY = start.getSceneY();
+        if (!mask.isClickable(startX, startY, plane) || !mask.isClickable(destX, destY, plane))
         {
-            if (hasOuterEdge(tile, solidTiles, plane))
-            {
-                borderTiles.add(tile);
-            }
+            // A player outside must still be able to walk back in
+            return false;
         }
 
-        border.getBoundaryTiles().clear();
-        border.getBoundaryTiles().addAll(borderTiles);
-        if (currentRegion != null)
+        int[][] flags = collisionFlags(plane);
+        if (flags == null)
         {
-            currentRegion.invalidateClickableTilesCache();
+            return false;
         }
+        reachability.refresh(mask, plane, flags);
+        return !reachability.isConnected(startX, startY, destX, destY);
+    }
 
-        return true;
+    private int[][] collisionFlags(int plane)
+    {
+        net.runelite.api.CollisionData[] maps = client.getCollisionMaps();
+        return maps != null && plane < maps.length && maps[plane] != null ? maps[plane].getFlags() : null;
     }
 
-    private Set<WorldPoint> computeInteriorTiles(Set<WorldPoint> boundaryTiles, int plane)
+    /**
+     * The current region's clickable tiles over the loaded scene, rebuilt if the scene or the region changed.
+     * Client thread only.
+     */
+    SceneMask getSceneMask()
     {
-        if (boundaryTiles.isEmpty())
+        // The template chunks are only copied and decoded when the scene changed
+        Region region = currentRegion;
+        int[][][] templateChunks = null;
+        if (client.isInInstancedRegion())
         {
-            return java.util.Collections.emptySet();
+            if (config.enforceInInstances())
+            {
+                templateChunks = client.getInstanceTemplateChunks();
+            }
+            else
+            {
+                // Nothing is enforced in this scene
+                region = null;
+            }
         }
+        sceneMask.refresh(region, client.getBaseX(), client.getBaseY(), templateChunks);
+        return sceneMask;
+    }
 
-        int minX = boundaryTiles.stream().mapToInt(WorldPoint::getX).min().orElse(0);
-        int maxX = boundaryTiles.stream().mapToInt(WorldPoint::getX).max().orElse(0);
-        int minY = boundaryTiles.stream().mapToInt(WorldPoint::getY).min().orElse(0);
-        int maxY = boundaryTiles.stream().mapToInt(WorldPoint::getY).max().orElse(0);
 
-        int padMinX = minX - 1;
-        int padMaxX = maxX + 1;
-        int padMinY = minY - 1;
-        int padMaxY = maxY + 1;
+    /**
+     * Finish a border on a background thread: compute its interior and prune the outline
+     * to tiles touching the exterior. Any finish already running for the border is cancelled.
+     * The result is swapped into the border on the client thread, and only if the border
+     * was not edited while the task was running. The marked tiles are snapshotted on the client
+     * thread, so callers on the EDT never pair a half-applied edit with the border's revision.
+     *
+     * @param border The border to finish
+     * @param listener Progress/completion callbacks, delivered on the EDT
+     * @return the running task, which can be cancelled
+     */
+    public BorderFinishTask finishBorderAsync(Border border, BorderFinishTask.Listener listener)
+    {
+        cancelFinishBorder(border);
 
-        int width = padMaxX - padMinX + 1;
-        int height = padMaxY - padMinY + 1;
+        BorderFinishTask task = new BorderFinishTask(border, listener);
+        finishTasks.put(border, task);
+        clientThread.invoke(() ->
+        {
+            if (task.isCancelled())
+            {
+                return;
+            }
+            task.takeSnapshot();
+            task.setFuture(finishExecutor.submit(() -> runFinishTask(task)));
+        });
+        return task;
+    }
 
-        if (width <= 2 || height <= 2)
+    /**
+     * Cancel a running finish for the given border, if any.
+     */
+    public void cancelFinishBorder(Border border)
+    {
+        if (border == null)
         {
-            return java.util.Collections.emptySet();
+            return;
         }
+        BorderFinishTask running = finishTasks.remove(border);
+        if (running != null)
+        {
+            running.cancel();
+            running.complete(BorderFinishTask.Result.CANCELLED);
+        }
+    }
 
-        Set<Long> boundaryKeys = boundaryTiles.stream()
-            .map(tile -> tileKey(tile.getX(), tile.getY()))
-            .collect(java.util.stream.Collectors.toSet());
-
-        boolean[][] outside = new boolean[width][height];
-        java.util.ArrayDeque<int[]> queue = new java.util.ArrayDeque<>();
+    public boolean isFinishingBorder(Border border)
+    {
+        return border != null && finishTasks.containsKey(border);
+    }
 
-        for (int x = 0; x < width; x++)
+    private void runFinishTask(BorderFinishTask task)
+    {
+        BorderFinishTask.Outcome outcome;
+        try
         {
-            tryQueueOutside(queue, outside, boundaryKeys, padMinX, padMinY, x, 0);
-            tryQueueOutside(queue, outside, boundaryKeys, padMinX, padMinY, x, height - 1);
+            outcome = task.compute();
         }
-        for (int y = 1; y < height - 1; y++)
+        catch (java.util.concurrent.CancellationException ex)
         {
-            tryQueueOutside(queue, outside, boundaryKeys, padMinX, padMinY, 0, y);
-            tryQueueOutside(queue, outside, boundaryKeys, padMinX, padMinY, width - 1, y);
+            // cancelFinishBorder already reported the cancellation
+            return;
         }
-
-        final int[][] directions = new int[][]{
-            {1, 0},
-            {-1, 0},
-            {0, 1},
-            {0, -1}
-        };
-
-        while (!queue.isEmpty())
+        catch (Exception ex)
         {
-            int[] cell = queue.removeFirst();
-            for (int[] dir : directions)
-            {
-                int nx = cell[0] + dir[0];
-                int ny = cell[1] + dir[1];
-
-                if (nx < 0 || ny < 0 || nx >= width || ny >= height)
-                {
-                    continue;
-                }
-
-                if (outside[nx][ny])
-                {
-                    continue;
-                }
-
-                int worldX = padMinX + nx;
-                int worldY = padMinY + ny;
-
-                if (boundaryKeys.contains(tileKey(worldX, worldY)))
-                {
-                    continue;
-                }
-
-                outside[nx][ny] = true;
-                queue.addLast(new int[]{nx, ny});
-            }
+            log.warn("Failed to finish border {}", task.getBorder().getName(), ex);
+            completeFinishTask(task, BorderFinishTask.Result.FAILED);
+            return;
         }
 
-        Set<WorldPoint> innerTiles = new HashSet<>();
-        for (int worldX = padMinX + 1; worldX <= padMaxX - 1; worldX++)
+        clientThread.invokeLater(() ->
         {
-            for (int worldY = padMinY + 1; worldY <= padMaxY - 1; worldY++)
+            if (task.isCancelled())
             {
-                int offsetX = worldX - padMinX;
-                int offsetY = worldY - padMinY;
-                if (outside[offsetX][offsetY])
-                {
-                    continue;
-                }
+                return;
+            }
 
-                long key = tileKey(worldX, worldY);
-                if (boundaryKeys.contains(key))
-                {
-                    continue;
-                }
+            Border border = task.getBorder();
+            if (border.getRevision() != task.getStartRevision())
+            {
+                completeFinishTask(task, BorderFinishTask.Result.STALE);
+                return;
+            }
 
-                innerTiles.add(new WorldPoint(worldX, worldY, plane));
+            if (outcome == null)
+            {
+                border.clearInnerTiles();
+                completeFinishTask(task, BorderFinishTask.Result.NOT_ENCLOSED);
+                return;
             }
-        }
 
-        return innerTiles;
+            border.applyFinishedTiles(outcome.getBoundaryLayers(), outcome.getInnerLayers());
+            Region region = currentRegion;
+            if (config.autoWhitelistTeleports() && region != null
+                && region.getBorders().stream().anyMatch(b -> b == border))
+            {
+                autoWhitelistTeleports(region);
+            }
+            completeFinishTask(task, BorderFinishTask.Result.FINISHED);
+        });
     }
 
-    private void tryQueueOutside(java.util.ArrayDeque<int[]> queue, boolean[][] outside, Set<Long> boundaryKeys,
-                                 int baseX, int baseY, int idxX, int idxY)
+    /**
+     * Whitelist exactly the teleports whose destinations land inside the region's finished borders,
+     * then persist and show the new whitelist. Teleports without known destinations are untouched.
+     *
+     * @return the number of teleports with destinations that are now whitelisted
+     */
+    public int autoWhitelistTeleports(Region region)
     {
-        if (idxX < 0 || idxY < 0 || idxX >= outside.length || idxY >= outside[0].length)
+        if (region == null)
         {
-            return;
+            return 0;
         }
-
-        if (outside[idxX][idxY])
+        int whitelisted = region.autoWhitelistTeleports(teleportRegistry);
+        if (region == currentRegion)
         {
-            return;
+            persistWhitelistAsync();
         }
-
-        int worldX = baseX + idxX;
-        int worldY = baseY + idxY;
-
-        if (boundaryKeys.contains(tileKey(worldX, worldY)))
+        if (panel != null && panel.getBorderComponent() != null)
         {
-            return;
+            panel.getBorderComponent().refreshTeleportsList();
         }
-
-        outside[idxX][idxY] = true;
-        queue.addLast(new int[]{idxX, idxY});
+        return whitelisted;
     }
 
-    private long tileKey(int x, int y)
+    private void completeFinishTask(BorderFinishTask task, BorderFinishTask.Result result)
     {
-        long keyX = ((long)x & 0xFFFFFFFFL) << 32;
-        long keyY = ((long)y & 0xFFFFFFFFL);
-        return keyX | keyY;
+        // Only the task still registered for its border may report; a replaced task stays silent
+        if (finishTasks.remove(task.getBorder(), task))
+        {
+            task.complete(result);
+        }
     }
 
     /**
@@ -2472,12 +2734,28 @@ public class RegionLockEnforcerPlugin extends Plugin
             {
                 BorderExport be = new BorderExport();
                 be.name = border.getName();
-                be.boundaryTiles = border.getBoundaryTiles().stream()
-                    .map(wp -> new TileData(wp.getX(), wp.getY(), wp.getPlane()))
-                    .collect(java.util.stream.Collectors.toList());
-                be.innerTiles = border.getInnerTiles().stream()
-                    .map(wp -> new TileData(wp.getX(), wp.getY(), wp.getPlane()))
-                    .collect(java.util.stream.Collectors.toList());
+                BorderPolygons polygons = border.getPolygons();
+                if (polygons != null && !polygons.isEmpty())
+                {
+                    // Finished borders export as their outline polygons instead of every tile
+                    be.polygons = new java.util.ArrayList<>();
+                    for (int plane = 0; plane < net.runelite.api.Constants.MAX_Z; plane++)
+                    {
+                        for (int[] ring : polygons.getRings(plane))
+                        {
+                            be.polygons.add(new PolygonData(plane, ring));
+                        }
+                    }
+                }
+                else
+                {
+                    be.boundaryTiles = border.getBoundaryTiles().stream()
+                        .map(wp -> new TileData(wp.getX(), wp.getY(), wp.getPlane()))
+                        .collect(java.util.stream.Collectors.toList());
+                    be.innerTiles = border.getInnerTiles().stream()
+                        .map(wp -> new TileData(wp.getX(), wp.getY(), wp.getPlane()))
+                        .collect(java.util.stream.Collectors.toList());
+                }
                 be.renderMode = border.getRenderMode() != null ? border.getRenderMode().name() : null;
                 be.propStyle = border.getPropStyle() != null ? border.getPropStyle().name() : null;
                 be.lineColor = border.getLineColor() != null ? border.getLineColor().getRGB() : null;
@@ -2541,18 +2819,26 @@ public class RegionLockEnforcerPlugin extends Plugin
                 for (BorderExport be : exportData.borders)
                 {
                     Border border = new Border(be != null && be.name != null ? be.name : "Border");
-                    Set<WorldPoint> boundaryTiles = be != null && be.boundaryTiles != null
-                        ? be.boundaryTiles.stream()
-                            .map(td -> new WorldPoint(td.x, td.y, td.plane))
-                            .collect(java.util.stream.Collectors.toSet())
-                        : new HashSet<>();
-                    Set<WorldPoint> innerTiles = be != null && be.innerTiles != null
-                        ? be.innerTiles.stream()
-                            .map(td -> new WorldPoint(td.x, td.y, td.plane))
-                            .collect(java.util.stream.Collectors.toSet())
-                        : new HashSet<>();
-                    border.setBoundaryTiles(boundaryTiles);
-                    border.setInnerTiles(innerTiles);
+                    if (be != null && be.polygons != null && !be.polygons.isEmpty())
+                    {
+                        border.setArea(decodePolygons(be.polygons).rasterize());
+                        border.clearHistory();
+                    }
+                    else
+                    {
+                        Set<WorldPoint> boundaryTiles = be != null && be.boundaryTiles != null
+                            ? be.boundaryTiles.stream()
+                                .map(td -> new WorldPoint(td.x, td.y, td.plane))
+                                .collect(java.util.stream.Collectors.toSet())
+                            : new HashSet<>();
+                        Set<WorldPoint> innerTiles = be != null && be.innerTiles != null
+                            ? be.innerTiles.stream()
+                                .map(td -> new WorldPoint(td.x, td.y, td.plane))
+                                .collect(java.util.stream.Collectors.toSet())
+                            : new HashSet<>();
+                        border.setBoundaryTiles(boundaryTiles);
+                        border.setInnerTiles(innerTiles);
+                    }
                 if (be != null)
                 {
                     if (be.propStyle != null && !be.propStyle.isEmpty())
@@ -2656,16 +2942,61 @@ public class RegionLockEnforcerPlugin extends Plugin
         List<String> teleportWhitelist;
     }
 
+    /**
+     * @throws IllegalArgumentException if a polygon is malformed, outside the world or too large
+     */
+    private static BorderPolygons decodePolygons(List<PolygonData> polygons)
+    {
+        List<List<int[]>> ringsByPlane = new ArrayList<>();
+        for (int plane = 0; plane < net.runelite.api.Constants.MAX_Z; plane++)
+        {
+            ringsByPlane.add(new ArrayList<>());
+        }
+        for (PolygonData polygon : polygons)
+        {
+            if (polygon == null || polygon.points == null)
+            {
+                continue;
+            }
+            if (polygon.plane < 0 || polygon.plane >= net.runelite.api.Constants.MAX_Z)
+            {
+                throw new IllegalArgumentException("Polygon on invalid plane " + polygon.plane);
+            }
+            ringsByPlane.get(polygon.plane).add(polygon.points);
+        }
+        // Reject the import rather than rasterize rings that are malformed or far too large
+        BorderPolygons.validateRings(ringsByPlane);
+        return BorderPolygons.fromRings(ringsByPlane);
+    }
+
     private static class BorderExport
     {
         String name;
         List<TileData> boundaryTiles;
         List<TileData> innerTiles;
+        List<PolygonData> polygons;
         String propStyle;
         String renderMode;
         Integer lineColor;
     }
 
+    /**
+     * One ring of a finished border as interleaved x, y tile-corner coordinates.
+     */
+    private static class PolygonData
+    {
+        int plane;
+        int[] points;
+
+        PolygonData() {} // Default constructor for Gson
+
+        PolygonData(int plane, int[] points)
+        {
+            this.plane = plane;
+            this.points = points;
+        }
+    }
+
     private static class TileData
     {
         int x;
@@ -0,0 +1,255 @@
+package com.regionlockenforcer;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.api.Client;
+import net.runelite.api.Constants;
+import net.runelite.api.GameState;
+import net.runelite.api.Perspective;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.widgets.ComponentID;
+import net.runelite.api.widgets.Widget;
+import net.runelite.client.ui.overlay.Overlay;
+import net.runelite.client.ui.overlay.OverlayLayer;
+import net.runelite.client.ui.overlay.OverlayPosition;
+
+/**
+ * Minimap overlay for the region border.
+ * The border edges of the whole scene are drawn once into an image (north up, a few pixels per tile)
+ * whenever the scene mask or plane changes; each frame only places that image under the minimap
+ * with one affine blit, taking scale and rotation from two projected points around the player.
+ */
+@Singleton
+public class RegionLockMinimapOverlay extends Overlay
+{
+    private static final Color DEFAULT_BORDER_COLOR = new Color(255, 255, 0, 220);
+    // Image pixels per tile; the minimap shows tiles at about this size
+    private static final int TILE_PIXELS = 4;
+    // Reference offset for measuring the minimap's scale and rotation, in tiles
+    private static final int PROBE_TILES = 16;
+
+    private static final int[] MINIMAP_DRAW_AREAS = {
+        ComponentID.FIXED_VIEWPORT_MINIMAP_DRAW_AREA,
+        ComponentID.RESIZABLE_VIEWPORT_MINIMAP_DRAW_AREA,
+        ComponentID.RESIZABLE_VIEWPORT_BOTTOM_LINE_MINIMAP_DRAW_AREA
+    };
+
+    private final Client client;
+    private final RegionLockEnforcerConfig config;
+    private RegionLockEnforcerPlugin plugin;
+
+    private BufferedImage image;
+    private int imageGeneration = -1;
+    private int imagePlane = -1;
+    private int imageColor;
+
+    @Inject
+    public RegionLockMinimapOverlay(Client client, RegionLockEnforcerConfig config)
+    {
+        this.client = client;
+        this.config = config;
+        setPosition(OverlayPosition.DYNAMIC);
+        setLayer(OverlayLayer.ABOVE_WIDGETS);
+    }
+
+    public void setPlugin(RegionLockEnforcerPlugin plugin)
+    {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public Dimension render(Graphics2D graphics)
+    {
+        if (plugin == null || !config.displayBorderOnMinimap() || config.disableBorder()
+            || client.getGameState() != GameState.LOGGED_IN)
+        {
+            return null;
+        }
+
+        Region region = plugin.getCurrentRegion();
+        net.runelite.api.Player player = client.getLocalPlayer();
+        Widget minimap = getMinimapDrawArea();
+        if (region == null || !region.hasFinishedBorder() || player == null || minimap == null)
+        {
+            return null;
+        }
+
+        LocalPoint position = player.getLocalLocation();
+        double[] axes = position != null ? minimapAxes(position) : null;
+        if (axes == null)
+        {
+            return null;
+        }
+
+        BufferedImage borderImage = getImage(plugin.getSceneMask(), client.getPlane(), borderColor(region));
+        double cx = axes[0];
+        double cy = axes[1];
+        double ex = axes[2];
+        double ey = axes[3];
+        double nx = ey;
+        double ny = -ex;
+
+        // Image pixel (ix, iy) is scene tile (ix / TILE_PIXELS, SCENE_SIZE - iy / TILE_PIXELS)
+        double px = position.getX() / (double) Perspective.LOCAL_TILE_SIZE;
+        double py = position.getY() / (double) Perspective.LOCAL_TILE_SIZE;
+        AffineTransform transform = new AffineTransform(
+            ex / TILE_PIXELS, ey / TILE_PIXELS,
+            -nx / TILE_PIXELS, -ny / TILE_PIXELS,
+            cx - px * ex + (Constants.SCENE_SIZE - py) * nx,
+            cy - px * ey + (Constants.SCENE_SIZE - py) * ny);
+
+        java.awt.Rectangle bounds = minimap.getBounds();
+        Shape oldClip = graphics.getClip();
+        Object oldInterpolation = graphics.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        graphics.clip(new Ellipse2D.Double(bounds.x, bounds.y, bounds.width, bounds.height));
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(borderImage, transform, null);
+        graphics.setClip(oldClip);
+        if (oldInterpolation != null)
+        {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, oldInterpolation);
+        }
+        return null;
+    }
+
+    /**
+     * Where the minimap currently shows the player, for mapping clicks back to tiles off the client
+     * thread; null when the minimap is hidden or cannot project the player. Returns {@code previous}
+     * when nothing moved. Client thread only.
+     */
+    MinimapClickSnapshot.Projection captureProjection(MinimapClickSnapshot.Projection previous)
+    {
+        Widget minimap = getMinimapDrawArea();
+        net.runelite.api.Player player = client.getLocalPlayer();
+        LocalPoint position = player != null ? player.getLocalLocation() : null;
+        double[] axes = minimap != null && position != null ? minimapAxes(position) : null;
+        if (axes == null)
+        {
+            return null;
+        }
+        java.awt.Rectangle bounds = minimap.getBounds();
+        double playerX = position.getX() / (double) Perspective.LOCAL_TILE_SIZE;
+        double playerY = position.getY() / (double) Perspective.LOCAL_TILE_SIZE;
+        if (previous != null && previous.matches(bounds, axes[0], axes[1], axes[2], axes[3], playerX, playerY))
+        {
+            return previous;
+        }
+        return new MinimapClickSnapshot.Projection(bounds, axes[0], axes[1], axes[2], axes[3], playerX, playerY);
+    }
+
+    /**
+     * Where the local point sits on the minimap and the screen offset of one tile east of it,
+     * as {centerX, centerY, eastX, eastY}; null when the minimap cannot project it.
+     */
+    private double[] minimapAxes(LocalPoint position)
+    {
+        net.runelite.api.Point center = Perspective.localToMinimap(client, position);
+        net.runelite.api.Point east = Perspective.localToMinimap(client,
+            new LocalPoint(position.getX() + PROBE_TILES * Perspective.LOCAL_TILE_SIZE, position.getY()));
+        if (center == null || east == null)
+        {
+            return null;
+        }
+        return new double[] {
+            center.getX(), center.getY(),
+            (east.getX() - center.getX()) / (double) PROBE_TILES,
+            (east.getY() - center.getY()) / (double) PROBE_TILES
+        };
+    }
+
+    private Widget getMinimapDrawArea()
+    {
+        for (int id : MINIMAP_DRAW_AREAS)
+        {
+            Widget widget = client.getWidget(id);
+            if (widget != null && !widget.isHidden())
+            {
+                return widget;
+            }
+        }
+        return null;
+    }
+
+    private static Color borderColor(Region region)
+    {
+        for (Border border : region.getBorders())
+        {
+            if (border.hasInnerTiles() && border.getLineColor() != null)
+            {
+                return border.getLineColor();
+            }
+        }
+        return DEFAULT_BORDER_COLOR;
+    }
+
+    /**
+     * The cached border image, redrawn only after the scene mask was rebuilt or the plane or colour changed.
+     */
+    private BufferedImage getImage(SceneMask mask, int plane, Color color)
+    {
+        if (image == null || imageGeneration != mask.getGeneration() || imagePlane != plane || imageColor != color.getRGB())
+        {
+            image = rasterize(mask, plane, color);
+            imageGeneration = mask.getGeneration();
+            imagePlane = plane;
+            imageColor = color.getRGB();
+        }
+        return image;
+    }
+
+    /**
+     * Draw every edge between a tile inside the border and a blocked tile beside it.
+     */
+    private static BufferedImage rasterize(SceneMask mask, int plane, Color color)
+    {
+        int size = Constants.SCENE_SIZE;
+        BufferedImage out = new BufferedImage(size * TILE_PIXELS, size * TILE_PIXELS, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        try
+        {
+            g.setColor(color);
+            for (int sy = 0; sy < size; sy++)
+            {
+                // Image rows run north to south
+                int top = (size - 1 - sy) * TILE_PIXELS;
+                for (int sx = 0; sx < size; sx++)
+                {
+                    if (!mask.isClickable(sx, sy, plane))
+                    {
+                        continue;
+                    }
+                    int left = sx * TILE_PIXELS;
+                    if (mask.isBlocked(sx, sy + 1, plane))
+                    {
+                        g.fillRect(left, top, TILE_PIXELS, 1);
+                    }
+                    if (mask.isBlocked(sx, sy - 1, plane))
+                    {
+                        g.fillRect(left, top + TILE_PIXELS - 1, TILE_PIXELS, 1);
+                    }
+                    if (mask.isBlocked(sx - 1, sy, plane))
+                    {
+                        g.fillRect(left, top, 1, TILE_PIXELS);
+                    }
+                    if (mask.isBlocked(sx + 1, sy, plane))
+                    {
+                        g.fillRect(left + TILE_PIXELS - 1, top, 1, TILE_PIXELS);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            g.dispose();
+        }
+        return out;
+    }
+}
@@ -21,6 +21,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import net.runelite.api.Client;
+import net.runelite.api.Constants;
 import net.runelite.api.GameState;
 import net.runelite.api.Model;
 import net.runelite.api.RuneLiteObject;
@@ -43,11 +44,17 @@ public class RegionLockOverlay extends Overlay
 
     private static final Color DEFAULT_BORDER_COLOR = new Color(255, 255, 0, 220);
     private static final Color DEFAULT_EDIT_COLOR = new Color(255, 0, 0, 120);
+    private static final Color OUTLINE_CLOSED_COLOR = new Color(80, 220, 80);
+    private static final Color OUTLINE_OPEN_COLOR = new Color(255, 80, 80);
 
     private final Map<WorldPoint, List<RuneLiteObject>> propObjects = new HashMap<>();
     private final Set<PlacementInstance> lastPlacements = new HashSet<>();
     private int lastPropHash = 0;
 
+    // Merged outline of every shaded outside tile, reused while the camera and scene mask are unchanged
+    private java.awt.geom.GeneralPath fogPath;
+    private final int[] fogKey = new int[10];
+
     @Inject
     public RegionLockOverlay(Client client, RegionLockEnforcerConfig config, ClientThread clientThread)
     {
@@ -77,6 +84,15 @@ public class RegionLockOverlay extends Overlay
         boolean editing = plugin.isEditing();
         List<PropPlacement> placements = new ArrayList<>();
 
+        if (currentProfile != null && config.shadeOutsideBorder() && !editing)
+        {
+            drawOutsideShade(g);
+        }
+        else
+        {
+            fogPath = null;
+        }
+
         if (currentProfile != null)
         {
             if (editing && activeBorder != null)
@@ -96,6 +112,14 @@ public class RegionLockOverlay extends Overlay
                         g.setComposite(old);
                     }
                 }
+
+                // Line ends of an open outline, where the gap usually is
+                BorderEnclosure enclosure = activeBorder.getEnclosure();
+                int plane = client.getPlane();
+                if (activeBorder.hasBoundaryTiles() && !enclosure.isClosed(plane))
+                {
+                    drawLeaks(g, enclosure.getLeaks(plane), plane);
+                }
             }
 
             // Draw finished borders (all of them) without copying into unions
@@ -108,7 +132,7 @@ public class RegionLockOverlay extends Overlay
                 Border.RenderMode mode = border.getRenderMode();
                 if (mode == Border.RenderMode.LINES)
                 {
-                    drawBorderLines(g, border.getBoundaryTiles(), border.getInnerTiles(), border.getLineColor());
+                    drawBorderPolygons(g, border.getPolygons(), border.getLineColor());
                 }
                 if (mode == Border.RenderMode.PROPS)
                 {
@@ -173,6 +197,20 @@ public class RegionLockOverlay extends Overlay
                         g.drawString(text, textX + 1, textY + 1); // Shadow
                         g.setColor(Color.WHITE);
                         g.drawString(text, textX, textY); // Main text
+
+                        // Live enclosure status, so an open outline shows before Finish is pressed
+                        Border editingBorder = plugin.getActiveBorder();
+                        if (editingBorder != null && editingBorder.hasBoundaryTiles())
+                        {
+                            boolean closed = editingBorder.getEnclosure().isClosed();
+                            String status = closed ? "Outline closed" : "Outline open";
+                            int statusX = playerPoint.getX() - (fm.stringWidth(status) / 2);
+                            int statusY = textY + fm.getHeight();
+                            g.setColor(Color.BLACK);
+                            g.drawString(status, statusX + 1, statusY + 1);
+                            g.setColor(closed ? OUTLINE_CLOSED_COLOR : OUTLINE_OPEN_COLOR);
+                            g.drawString(status, statusX, statusY);
+                        }
                         
                         g.setFont(oldFont);
                     }
@@ -609,141 +647,247 @@ public class RegionLockOverlay extends Overlay
     }
 
     /**
-     * Draw lines along the outer edges of boundary tiles.
-     * An edge is "outer" if:
-     * 1. It belongs to a boundary tile (in markedTiles)
-     * 2. The neighbor tile across that edge is outside (not in boundaryTiles AND not in innerTiles)
+     * Check if a tile is outside the region.
+     * A tile is outside if it's neither a boundary tile nor an inner tile.
      */
-    private void drawBorderLines(Graphics2D g, Set<WorldPoint> markedTiles, Set<WorldPoint> innerTiles, Color overrideColor)
+    private boolean isOutsideTile(WorldPoint tile, Set<WorldPoint> boundaryTiles, Set<WorldPoint> innerTiles)
     {
-        if (markedTiles.isEmpty()) return;
-        if (innerTiles == null || innerTiles.isEmpty()) 
+        return !boundaryTiles.contains(tile) && !innerTiles.contains(tile);
+    }
+
+    /**
+     * Outline the leak tiles that lie in the loaded scene.
+     */
+    private void drawLeaks(Graphics2D g, TileLayer leaks, int plane)
+    {
+        if (leaks == null || leaks.isEmpty())
         {
-            // If inner tiles are empty, we can't determine which edges are outer
-            // This shouldn't happen if computeInnerTiles was called, but handle gracefully
             return;
         }
+        int baseX = client.getBaseX();
+        int baseY = client.getBaseY();
+        Stroke oldStroke = g.getStroke();
+        g.setStroke(new BasicStroke(2f));
+        g.setColor(OUTLINE_OPEN_COLOR);
+        leaks.forEachInRange(baseX, baseY, baseX + Constants.SCENE_SIZE - 1, baseY + Constants.SCENE_SIZE - 1, (x, y) ->
+        {
+            LocalPoint lp = LocalPoint.fromWorld(client, new WorldPoint(x, y, plane));
+            Polygon tilePoly = lp != null ? Perspective.getCanvasTilePoly(client, lp) : null;
+            if (tilePoly != null)
+            {
+                g.draw(tilePoly);
+            }
+        });
+        g.setStroke(oldStroke);
+    }
 
-        // Get plane from first marked tile
-        int plane = -1;
-        for (WorldPoint wp : markedTiles)
+    /**
+     * Draw the finished outline from its polygon edges. Only edges inside the loaded scene are
+     * visited, and each is stepped one tile corner at a time so the line follows the terrain.
+     */
+    private void drawBorderPolygons(Graphics2D g, BorderPolygons polygons, Color overrideColor)
+    {
+        if (polygons == null)
         {
-            plane = wp.getPlane();
-            break;
+            return;
         }
-        if (plane == -1) return;
+
+        final int plane = client.getPlane();
+        final int baseX = client.getBaseX();
+        final int baseY = client.getBaseY();
+        final int last = Constants.SCENE_SIZE - 1;
 
         Stroke oldStroke = g.getStroke();
         g.setStroke(new BasicStroke(2.0f));
         g.setColor(overrideColor != null ? overrideColor : DEFAULT_BORDER_COLOR); // per-border or default color
 
-        for (WorldPoint wp : markedTiles)
+        polygons.forEachSegmentInRange(plane, baseX, baseY, baseX + last, baseY + last, (x0, y0, x1, y1) ->
         {
-            LocalPoint lp = LocalPoint.fromWorld(client, wp);
-            if (lp == null) continue;
+            // Scene-relative corners, clipped to the scene
+            int sx0 = Math.max(0, Math.min(x0, x1) - baseX);
+            int sx1 = Math.min(last, Math.max(x0, x1) - baseX);
+            int sy0 = Math.max(0, Math.min(y0, y1) - baseY);
+            int sy1 = Math.min(last, Math.max(y0, y1) - baseY);
+            if (sx0 > sx1 || sy0 > sy1)
+            {
+                return;
+            }
+            drawSceneEdge(g, plane, sx0, sy0, sx1, sy1);
+        });
 
-            int x = wp.getX();
-            int y = wp.getY();
+        g.setStroke(oldStroke);
+    }
 
-            // Check each of the 4 directions (N, S, E, W)
-            // An edge is "outer" if the neighbor across that edge is outside
-            // (not in boundaryTiles AND not in innerTiles)
-            
-            // North edge
-            WorldPoint northNeighbor = new WorldPoint(x, y + 1, plane);
-            if (isOutsideTile(northNeighbor, markedTiles, innerTiles))
+    /**
+     * Dim every tile outside the region on the player's plane with a single fill.
+     * Each row's runs of outside tiles (from the scene mask) become one polygon following the
+     * terrain along both tile edges; the merged path is rebuilt only when the camera, viewport,
+     * plane or scene mask changes.
+     */
+    private void drawOutsideShade(Graphics2D g)
+    {
+        SceneMask mask = plugin.getSceneMask();
+        int plane = client.getPlane();
+        int[] key = {
+            client.getCameraX(), client.getCameraY(), client.getCameraZ(),
+            client.getCameraPitch(), client.getCameraYaw(), client.getScale(),
+            client.getViewportWidth(), client.getViewportHeight(), plane, mask.getGeneration()
+        };
+        if (fogPath == null || !java.util.Arrays.equals(key, fogKey))
+        {
+            fogPath = buildOutsidePath(mask, plane);
+            System.arraycopy(key, 0, fogKey, 0, key.length);
+        }
+
+        g.setColor(config.outsideShadeColor());
+        g.fill(fogPath);
+    }
+
+    private java.awt.geom.GeneralPath buildOutsidePath(SceneMask mask, int plane)
+    {
+        java.awt.geom.GeneralPath path = new java.awt.geom.GeneralPath(java.awt.geom.Path2D.WIND_NON_ZERO);
+        int size = Constants.SCENE_SIZE;
+        // Projected corners of the south and north edge of the current row, indexed by scene x;
+        // a corner that does not project has its valid flag cleared
+        RowCorners south = new RowCorners(size + 1);
+        RowCorners north = new RowCorners(size + 1);
+        for (int sy = 0; sy < size; sy++)
+        {
+            int sx = 0;
+            while (sx < size)
             {
-                drawEdgeLine(g, wp, "north");
+                if (!mask.isBlocked(sx, sy, plane))
+                {
+                    sx++;
+                    continue;
+                }
+                int start = sx;
+                while (sx < size && mask.isBlocked(sx, sy, plane))
+                {
+                    sx++;
+                }
+                addRun(path, south, north, plane, start, sx, sy);
             }
+        }
+        return path;
+    }
 
-            // South edge
-            WorldPoint southNeighbor = new WorldPoint(x, y - 1, plane);
-            if (isOutsideTile(southNeighbor, markedTiles, innerTiles))
+    /**
+     * Append the run of tiles [x0, x1) on row sy as polygons: along the south edge west to east,
+     * back along the north edge. The run is split around tiles with a corner that does not project
+     * (e.g. behind the camera), so the rest of the row is still shaded.
+     */
+    private void addRun(java.awt.geom.GeneralPath path, RowCorners south, RowCorners north, int plane, int x0, int x1, int sy)
+    {
+        for (int x = x0; x <= x1; x++)
+        {
+            south.project(x, sy, plane);
+            north.project(x, sy + 1, plane);
+        }
+
+        int x = x0;
+        while (x < x1)
+        {
+            // Skip tiles that cannot be drawn, then take the longest drawable stretch
+            if (!isTileProjected(south, north, x))
+            {
+                x++;
+                continue;
+            }
+            int start = x;
+            while (x < x1 && isTileProjected(south, north, x))
             {
-                drawEdgeLine(g, wp, "south");
+                x++;
             }
 
-            // East edge
-            WorldPoint eastNeighbor = new WorldPoint(x + 1, y, plane);
-            if (isOutsideTile(eastNeighbor, markedTiles, innerTiles))
+            path.moveTo(south.xs[start], south.ys[start]);
+            for (int i = start + 1; i <= x; i++)
             {
-                drawEdgeLine(g, wp, "east");
+                path.lineTo(south.xs[i], south.ys[i]);
             }
-
-            // West edge
-            WorldPoint westNeighbor = new WorldPoint(x - 1, y, plane);
-            if (isOutsideTile(westNeighbor, markedTiles, innerTiles))
+            for (int i = x; i >= start; i--)
             {
-                drawEdgeLine(g, wp, "west");
+                path.lineTo(north.xs[i], north.ys[i]);
             }
+            path.closePath();
         }
+    }
 
-        g.setStroke(oldStroke);
+    private static boolean isTileProjected(RowCorners south, RowCorners north, int x)
+    {
+        return south.valid[x] && south.valid[x + 1] && north.valid[x] && north.valid[x + 1];
     }
 
     /**
-     * Check if a tile is outside the region.
-     * A tile is outside if it's neither a boundary tile nor an inner tile.
+     * Canvas positions of one row of tile corners, reused across rows.
      */
-    private boolean isOutsideTile(WorldPoint tile, Set<WorldPoint> boundaryTiles, Set<WorldPoint> innerTiles)
+    private final class RowCorners
     {
-        return !boundaryTiles.contains(tile) && !innerTiles.contains(tile);
+        final int[] xs;
+        final int[] ys;
+        final boolean[] valid;
+
+        RowCorners(int size)
+        {
+            xs = new int[size];
+            ys = new int[size];
+            valid = new boolean[size];
+        }
+
+        void project(int sx, int sy, int plane)
+        {
+            net.runelite.api.Point p = projectCorner(sx, sy, plane);
+            valid[sx] = p != null;
+            if (p != null)
+            {
+                xs[sx] = p.getX();
+                ys[sx] = p.getY();
+            }
+        }
+    }
+
+    private net.runelite.api.Point projectCorner(int sx, int sy, int plane)
+    {
+        // Corners on the far scene edge are pulled in by one local unit so they still project
+        int max = Constants.SCENE_SIZE * Perspective.LOCAL_TILE_SIZE - 1;
+        LocalPoint corner = new LocalPoint(Math.min(sx * Perspective.LOCAL_TILE_SIZE, max),
+            Math.min(sy * Perspective.LOCAL_TILE_SIZE, max));
+        return Perspective.localToCanvas(client, corner, plane);
     }
 
     /**
-     * Draw a line along a specific edge of a tile.
-     * Uses world coordinates to prevent rotation with camera.
-     * Similar to the west edge drawing approach that doesn't rotate.
+     * Draw a horizontal or vertical run of tile corners (scene coordinates) as a polyline,
+     * breaking it where a corner does not project onto the canvas.
      */
-    private void drawEdgeLine(Graphics2D g, WorldPoint wp, String direction)
+    private void drawSceneEdge(Graphics2D g, int plane, int sx0, int sy0, int sx1, int sy1)
     {
-        LocalPoint lp = LocalPoint.fromWorld(client, wp);
-        if (lp == null) return;
-
-        final int half = 64; // half tile in local units (tile size = 128)
-        int plane = wp.getPlane();
-        
-        // Calculate corner LocalPoints using offsets from center (same approach as west edge)
-        // These offsets are in world space and won't rotate with camera
-        LocalPoint swLocal = new LocalPoint((int)(lp.getX() - half), (int)(lp.getY() - half));
-        LocalPoint seLocal = new LocalPoint((int)(lp.getX() + half), (int)(lp.getY() - half));
-        LocalPoint neLocal = new LocalPoint((int)(lp.getX() + half), (int)(lp.getY() + half));
-        LocalPoint nwLocal = new LocalPoint((int)(lp.getX() - half), (int)(lp.getY() + half));
-
-        net.runelite.api.Point p1 = null;
-        net.runelite.api.Point p2 = null;
-
-        switch (direction.toLowerCase())
-        {
-            case "north":
-                // North edge: from NE corner to NW corner
-                p1 = Perspective.localToCanvas(client, neLocal, plane);
-                p2 = Perspective.localToCanvas(client, nwLocal, plane);
-                break;
-            case "south":
-                // South edge: from SE corner to SW corner
-                p1 = Perspective.localToCanvas(client, seLocal, plane);
-                p2 = Perspective.localToCanvas(client, swLocal, plane);
-                break;
-            case "east":
-                // East edge: from NE corner to SE corner
-                p1 = Perspective.localToCanvas(client, neLocal, plane);
-                p2 = Perspective.localToCanvas(client, seLocal, plane);
-                break;
-            case "west":
-                // West edge: from NW corner to SW corner
-                p1 = Perspective.localToCanvas(client, nwLocal, plane);
-                p2 = Perspective.localToCanvas(client, swLocal, plane);
-                break;
-        }
-
-        if (p1 != null && p2 != null)
-        {
-            // Only draw if both points are valid (on-screen)
-            // If either point is null, the edge is off-screen and we skip it
-            g.drawLine(p1.getX(), p1.getY(), p2.getX(), p2.getY());
-        }
-        // Note: If p1 or p2 is null, the edge is off-screen and we skip drawing it
-        // This is expected behavior - we only draw visible edges
+        int steps = (sx1 - sx0) + (sy1 - sy0);
+        int dx = sx1 > sx0 ? 1 : 0;
+        int dy = sy1 > sy0 ? 1 : 0;
+        int[] xs = new int[steps + 1];
+        int[] ys = new int[steps + 1];
+        int n = 0;
+        for (int i = 0; i <= steps; i++)
+        {
+            LocalPoint corner = new LocalPoint((sx0 + dx * i) * Perspective.LOCAL_TILE_SIZE,
+                (sy0 + dy * i) * Perspective.LOCAL_TILE_SIZE);
+            net.runelite.api.Point p = Perspective.localToCanvas(client, corner, plane);
+            if (p == null)
+            {
+                if (n > 1)
+                {
+                    g.drawPolyline(xs, ys, n);
+                }
+                n = 0;
+                continue;
+            }
+            xs[n] = p.getX();
+            ys[n] = p.getY();
+            n++;
+        }
+        if (n > 1)
+        {
+            g.drawPolyline(xs, ys, n);
+        }
     }
 }
@@ -8,7 +8,6 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.Stroke;
 import java.awt.event.MouseEvent;
-import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import net.runelite.api.Client;
@@ -36,6 +35,8 @@ public class RegionLockWorldMapOverlay extends Overlay
     private final ClientThread clientThread;
     private final RegionLockEnforcerConfig config;
     private RegionLockEnforcerPlugin plugin;
+    // Map bounds from the last edit-mode render, or null when the map is closed
+    private volatile Rectangle editMapBounds;
     private static final Color DEFAULT_BORDER_COLOR = new Color(255, 255, 0, 220);
     private static final Color DEFAULT_EDIT_COLOR = new Color(255, 0, 0, 120);
 
@@ -58,6 +59,7 @@ public class RegionLockWorldMapOverlay extends Overlay
     @Override
     public Dimension render(Graphics2D graphics)
     {
+        editMapBounds = null;
         if (plugin == null)
         {
             return null;
@@ -77,7 +79,11 @@ public class RegionLockWorldMapOverlay extends Overlay
         Border activeBorder = plugin.getActiveBorder();
         boolean editing = plugin.isEditing();
         int gridSize = getGridSize();
-        boolean hasInnerTiles = currentProfile.getBorders().stream().anyMatch(b -> !b.getInnerTiles().isEmpty());
+        boolean hasInnerTiles = currentProfile.hasFinishedBorder();
+
+        // Remember where the map is so brush presses can be routed from the input thread
+        WorldMapRenderContext editContext = editing ? buildWorldMapRenderContext() : null;
+        editMapBounds = editContext != null ? editContext.getMapBounds() : null;
 
         if (editing)
         {
@@ -128,7 +134,8 @@ public class RegionLockWorldMapOverlay extends Overlay
         graphics.setStroke(new BasicStroke(1.0f));
         graphics.setColor(Color.BLACK);
 
-        boolean hasSelectedAreas = activeBorder != null && !activeBorder.getBoundaryTiles().isEmpty();
+        int plane = context.getPlane();
+        boolean hasSelectedAreas = activeBorder != null && activeBorder.getBoundaryLayer(plane) != null;
 
         // Draw chunk grid lines and fill selected chunks
         for (int x = xRegionMin; x < xRegionMax; x += gridSize)
@@ -146,7 +153,7 @@ public class RegionLockWorldMapOverlay extends Overlay
                 // Check if this chunk is fully selected
                 if (hasSelectedAreas && activeBorder != null)
                 {
-                    if (activeBorder.isAreaFullyContained(x, y, 0, gridSize))
+                    if (activeBorder.isAreaFullyContained(x, y, plane, gridSize))
                     {
                         // Fill with semi-transparent dark grey/black
                         graphics.setColor(new Color(20, 20, 20, 140));
@@ -179,7 +186,7 @@ public class RegionLockWorldMapOverlay extends Overlay
             return;
         }
 
-            drawTiles(graphics, context, activeBorder.getBoundaryTiles(), DEFAULT_EDIT_COLOR);
+            drawTiles(graphics, context, activeBorder.getBoundaryLayer(context.getPlane()), DEFAULT_EDIT_COLOR);
     }
 
     private void drawFinishedTiles(Graphics2D graphics, Region currentProfile)
@@ -192,15 +199,53 @@ public class RegionLockWorldMapOverlay extends Overlay
 
         for (Border border : currentProfile.getBorders())
         {
-            if (border.getInnerTiles().isEmpty())
+            if (!border.hasInnerTiles(context.getPlane()))
             {
                 continue;
             }
-                drawTiles(graphics, context, border.getBoundaryTiles(), DEFAULT_BORDER_COLOR);
+            drawPolygons(graphics, context, border.getPolygons(), DEFAULT_BORDER_COLOR);
         }
     }
 
-    private void drawTiles(Graphics2D graphics, WorldMapRenderContext context, Set<WorldPoint> tilesToDraw, Color tileColor)
+    /**
+     * Draw the finished outline as polygon edges; a few hundred lines instead of every outline tile.
+     */
+    private void drawPolygons(Graphics2D graphics, WorldMapRenderContext context, BorderPolygons polygons, Color color)
+    {
+        if (polygons == null)
+        {
+            return;
+        }
+
+        Rectangle worldMapRect = context.getMapBounds();
+        float pixelsPerTile = context.getPixelsPerTile();
+        net.runelite.api.Point worldMapPosition = context.getWorldMapPosition();
+
+        int widthInTiles = (int) Math.ceil(worldMapRect.getWidth() / pixelsPerTile);
+        int heightInTiles = (int) Math.ceil(worldMapRect.getHeight() / pixelsPerTile);
+        int xTileMin = worldMapPosition.getX() - widthInTiles / 2;
+        int yTileMin = worldMapPosition.getY() - heightInTiles / 2;
+        int xTileMax = worldMapPosition.getX() + widthInTiles / 2 + 1;
+        int yTileMax = worldMapPosition.getY() + heightInTiles / 2 + 1;
+
+        // Tile corners map to the same pixels drawTiles uses for tile edges
+        int originX = (int) worldMapRect.getX();
+        int originY = (int) worldMapRect.getY() + worldMapRect.height;
+
+        graphics.setClip(worldMapRect);
+        graphics.setColor(color);
+        Stroke oldStroke = graphics.getStroke();
+        graphics.setStroke(new BasicStroke(Math.max(1f, Math.min(2f, pixelsPerTile / 2f))));
+        polygons.forEachSegmentInRange(context.getPlane(), xTileMin, yTileMin, xTileMax, yTileMax, (x0, y0, x1, y1) ->
+            graphics.drawLine(
+                originX + (int) ((x0 - xTileMin) * pixelsPerTile),
+                originY - (int) ((y0 - yTileMin) * pixelsPerTile),
+                originX + (int) ((x1 - xTileMin) * pixelsPerTile),
+                originY - (int) ((y1 - yTileMin) * pixelsPerTile)));
+        graphics.setStroke(oldStroke);
+    }
+
+    private void drawTiles(Graphics2D graphics, WorldMapRenderContext context, TileLayer tilesToDraw, Color tileColor)
     {
         if (tilesToDraw == null || tilesToDraw.isEmpty())
         {
@@ -224,18 +269,9 @@ public class RegionLockWorldMapOverlay extends Overlay
         graphics.setColor(tileColor);
         int tilePixelSize = Math.max(1, (int) pixelsPerTile);
 
-        for (WorldPoint tile : tilesToDraw)
+        // Only chunks overlapping the visible map are visited
+        tilesToDraw.forEachInRange(xTileMin, yTileMin, xTileMax, yTileMax, (tileX, tileY) ->
         {
-            if (tile.getPlane() != 0) continue;
-
-            int tileX = tile.getX();
-            int tileY = tile.getY();
-
-            if (tileX < xTileMin || tileX > xTileMax || tileY < yTileMin || tileY > yTileMax)
-            {
-                continue;
-            }
-
             int yTileOffset = -(yTileMin - tileY);
             int xTileOffset = tileX + widthInTiles / 2 - (int)worldMapPosition.getX();
 
@@ -244,96 +280,38 @@ public class RegionLockWorldMapOverlay extends Overlay
             yPos -= (int) pixelsPerTile;
 
             graphics.fillRect(xPos, yPos, tilePixelSize, tilePixelSize);
-        }
+        });
     }
 
     /**
-     * Handle mouse clicks on the world map.
-     * Called from the plugin when a click is detected.
-     * Must handle widget access on client thread.
+     * Whether a canvas point lies on the world map as it was last drawn in edit mode.
+     * Safe to call from the input thread.
      */
-    public boolean handleWorldMapClick(MouseEvent e)
+    public boolean isOverWorldMap(Point canvasPoint)
     {
-        // Only handle left clicks with Shift key when in editing mode
-        if (e.getButton() != MouseEvent.BUTTON1)
-        {
-            return false;
-        }
-        
-        // Require Shift key to be pressed
-        if ((e.getModifiersEx() & MouseEvent.SHIFT_DOWN_MASK) == 0)
-        {
-            return false;
-        }
+        Rectangle bounds = editMapBounds;
+        return bounds != null && canvasPoint != null && bounds.contains(canvasPoint);
+    }
 
-        Border activeBorder = plugin.getActiveBorder();
-        if (plugin == null || !plugin.isEditing() || plugin.getCurrentRegion() == null || activeBorder == null)
+    /**
+     * The world map tile under the mouse, or null when the mouse is not over the map.
+     * Must be called on the client thread.
+     */
+    public WorldPoint getMouseWorldPoint()
+    {
+        Point mousePoint = getMouseCanvasPoint(null);
+        if (mousePoint == null)
         {
-            return false;
+            return null;
         }
 
-        final int tileGroupSize = getGridSize();
-
-        // All widget access must be on client thread
-        // Use a wrapper to capture the result from invoke()
-        final boolean[] shouldHandle = {false};
-
-        clientThread.invoke(() ->
+        WorldMapRenderContext context = buildWorldMapRenderContext();
+        if (context == null || context.getMapBounds() == null || !context.getMapBounds().contains(mousePoint))
         {
-            Point clickPoint = getMouseCanvasPoint(e);
-            if (clickPoint == null)
-            {
-                return;
-            }
-
-            WorldMapRenderContext context = buildWorldMapRenderContext();
-            if (context == null)
-            {
-                return;
-            }
-
-            Rectangle mapBounds = context.getMapBounds();
-            if (mapBounds == null || !mapBounds.contains(clickPoint))
-            {
-                return;
-            }
-
-            WorldPoint worldPoint = screenToWorldPoint(clickPoint, context);
-            if (worldPoint == null)
-            {
-                return;
-            }
-
-            // Convert to chunk coordinates
-            int baseX = floorToMultiple(worldPoint.getX(), tileGroupSize);
-            int baseY = floorToMultiple(worldPoint.getY(), tileGroupSize);
-            int plane = worldPoint.getPlane();
-
-            Region currentProfile = plugin.getCurrentRegion();
-            Border border = plugin.getActiveBorder();
-            if (currentProfile == null || border == null)
-            {
-                return;
-            }
-
-            boolean areaHasTiles = border.hasAnyTileInArea(baseX, baseY, plane, tileGroupSize);
-
-            if (areaHasTiles)
-            {
-                border.removeArea(baseX, baseY, plane, tileGroupSize);
-            }
-            else
-            {
-                border.addArea(baseX, baseY, plane, tileGroupSize);
-            }
-
-            currentProfile.invalidateClickableTilesCache();
-            plugin.markUnsavedEdits();
-
-            shouldHandle[0] = true;
-        });
+            return null;
+        }
 
-        return shouldHandle[0];
+        return screenToWorldPoint(mousePoint, context);
     }
 
     /**
@@ -387,7 +365,13 @@ public class RegionLockWorldMapOverlay extends Overlay
             return null;
         }
 
-        return new WorldMapRenderContext(mapBounds, pixelsPerTile, worldMapPosition);
+        // The map has no floor selector; show and edit the floor the player is standing on
+        net.runelite.api.Player localPlayer = client.getLocalPlayer();
+        int plane = localPlayer != null && localPlayer.getWorldLocation() != null
+            ? localPlayer.getWorldLocation().getPlane()
+            : 0;
+
+        return new WorldMapRenderContext(mapBounds, pixelsPerTile, worldMapPosition, plane);
     }
 
     private WorldPoint screenToWorldPoint(Point screenPoint, WorldMapRenderContext context)
@@ -416,7 +400,7 @@ public class RegionLockWorldMapOverlay extends Overlay
         int worldX = xTileMin + xIndex;
         int worldY = yTileMin + yIndex;
 
-        return new WorldPoint(worldX, worldY, 0);
+        return new WorldPoint(worldX, worldY, context.getPlane());
     }
 
     private int clamp(int value, int min, int max)
@@ -432,7 +416,7 @@ public class RegionLockWorldMapOverlay extends Overlay
         return value;
     }
 
-    private int getGridSize()
+    int getGridSize()
     {
         int size = config.worldMapGridSize();
         if (size < 1)
@@ -461,12 +445,14 @@ public class RegionLockWorldMapOverlay extends Overlay
         private final Rectangle mapBounds;
         private final float pixelsPerTile;
         private final net.runelite.api.Point worldMapPosition;
+        private final int plane;
 
-        private WorldMapRenderContext(Rectangle mapBounds, float pixelsPerTile, net.runelite.api.Point worldMapPosition)
+        private WorldMapRenderContext(Rectangle mapBounds, float pixelsPerTile, net.runelite.api.Point worldMapPosition, int plane)
         {
             this.mapBounds = mapBounds;
             this.pixelsPerTile = pixelsPerTile;
             this.worldMapPosition = worldMapPosition;
+            this.plane = plane;
         }
 
         private Rectangle getMapBounds()
@@ -483,6 +469,11 @@ public class RegionLockWorldMapOverlay extends Overlay
         {
             return worldMapPosition;
         }
+
+        private int getPlane()
+        {
+            return plane;
+        }
     }
 }
 
@@ -136,12 +136,24 @@ public class RegionSerializer
                 bd.propStyle = border.getPropStyle() != null ? border.getPropStyle().name() : null;
                 bd.renderMode = border.getRenderMode() != null ? border.getRenderMode().name() : null;
                 bd.lineColor = border.getLineColor() != null ? border.getLineColor().getRGB() : null;
-                bd.boundaryTiles = border.getBoundaryTiles().stream()
-                        .map(wp -> new TileData(wp.getX(), wp.getY(), wp.getPlane()))
-                        .collect(Collectors.toList());
-                bd.innerTiles = border.getInnerTiles().stream()
-                        .map(wp -> new TileData(wp.getX(), wp.getY(), wp.getPlane()))
-                        .collect(Collectors.toList());
+                // Whole chunks are written as one chunk entry instead of 4096 tiles
+                bd.boundaryTiles = new ArrayList<>();
+                bd.innerTiles = new ArrayList<>();
+                bd.boundaryChunks = new ArrayList<>();
+                bd.innerChunks = new ArrayList<>();
+                for (int plane = 0; plane < net.runelite.api.Constants.MAX_Z; plane++)
+                {
+                    writeLayer(border.getBoundaryLayer(plane), plane, bd.boundaryChunks, bd.boundaryTiles);
+                    writeLayer(border.getInnerLayer(plane), plane, bd.innerChunks, bd.innerTiles);
+                }
+                if (bd.boundaryChunks.isEmpty())
+                {
+                    bd.boundaryChunks = null;
+                }
+                if (bd.innerChunks.isEmpty())
+                {
+                    bd.innerChunks = null;
+                }
                 data.borders.add(bd);
             }
 
@@ -178,18 +190,9 @@ public class RegionSerializer
                         Border border = new Border(bd != null && bd.name != null ? bd.name : "Border");
                         if (bd != null)
                         {
-                            Set<WorldPoint> boundaryTiles = bd.boundaryTiles != null
-                                    ? bd.boundaryTiles.stream()
-                                        .map(td -> new WorldPoint(td.x, td.y, td.plane))
-                                        .collect(Collectors.toSet())
-                                    : new HashSet<>();
-                            Set<WorldPoint> innerTiles = bd.innerTiles != null
-                                    ? bd.innerTiles.stream()
-                                        .map(td -> new WorldPoint(td.x, td.y, td.plane))
-                                        .collect(Collectors.toSet())
-                                    : new HashSet<>();
-                            border.setBoundaryTiles(boundaryTiles);
-                            border.setInnerTiles(innerTiles);
+                            border.applyFinishedTiles(readLayers(bd.boundaryChunks, bd.boundaryTiles),
+                                readLayers(bd.innerChunks, bd.innerTiles));
+                            border.clearHistory();
                             RegionLockEnforcerConfig.PropStyle mappedStyle = mapPropStyle(bd.propStyle);
                             if (mappedStyle != null)
                             {
@@ -219,7 +222,6 @@ public class RegionSerializer
                 region.setTeleportWhitelist(data != null && data.teleportWhitelist != null
                         ? new HashSet<>(data.teleportWhitelist)
                         : new HashSet<>());
-                region.ensureCacheComputed();
                 return region;
             }
 
@@ -261,7 +263,6 @@ public class RegionSerializer
                 region.setTeleportWhitelist(new HashSet<>());
             }
 
-            region.ensureCacheComputed();
             return region;
         }
         catch (Exception e)
@@ -312,6 +313,57 @@ public class RegionSerializer
         return regions;
     }
 
+    private static void writeLayer(TileLayer layer, int plane, List<ChunkData> chunks, List<TileData> tiles)
+    {
+        if (layer == null || layer.isEmpty())
+        {
+            return;
+        }
+        layer.forEachByChunk((cx, cy) -> chunks.add(new ChunkData(cx, cy, plane)),
+            (x, y) -> tiles.add(new TileData(x, y, plane)));
+    }
+
+    private static TileLayer[] readLayers(List<ChunkData> chunks, List<TileData> tiles)
+    {
+        TileLayer[] layers = new TileLayer[net.runelite.api.Constants.MAX_Z];
+        if (chunks != null)
+        {
+            for (ChunkData cd : chunks)
+            {
+                TileLayer layer = layerFor(layers, cd != null ? cd.plane : -1);
+                if (layer != null)
+                {
+                    layer.fillRect(cd.x * 64, cd.y * 64, cd.x * 64 + 63, cd.y * 64 + 63);
+                }
+            }
+        }
+        if (tiles != null)
+        {
+            for (TileData td : tiles)
+            {
+                TileLayer layer = layerFor(layers, td != null ? td.plane : -1);
+                if (layer != null)
+                {
+                    layer.add(td.x, td.y);
+                }
+            }
+        }
+        return layers;
+    }
+
+    private static TileLayer layerFor(TileLayer[] layers, int plane)
+    {
+        if (plane < 0 || plane >= layers.length)
+        {
+            return null;
+        }
+        if (layers[plane] == null)
+        {
+            layers[plane] = new TileLayer();
+        }
+        return layers[plane];
+    }
+
     private static class RegionData
     {
         String name;
@@ -324,6 +376,9 @@ public class RegionSerializer
         String name;
         List<TileData> boundaryTiles;
         List<TileData> innerTiles;
+        // Completely filled 64x64 chunks, in chunk coordinates
+        List<ChunkData> boundaryChunks;
+        List<ChunkData> innerChunks;
         String propStyle;
         String renderMode;
         Integer lineColor;
@@ -346,6 +401,23 @@ public class RegionSerializer
         }
     }
 
+    private static class ChunkData
+    {
+        int x;
+        int y;
+        int plane;
+
+        @SuppressWarnings("unused")
+        ChunkData() { }
+
+        ChunkData(int x, int y, int plane)
+        {
+            this.x = x;
+            this.y = y;
+            this.plane = plane;
+        }
+    }
+
     private static RegionLockEnforcerConfig.PropStyle mapPropStyle(String raw)
     {
         if (raw == null || raw.isEmpty())
@@ -0,0 +1,344 @@
+package com.regionlockenforcer;
+
+import net.runelite.api.Constants;
+
+/**
+ * The current region's clickable tiles (outline or interior of any border) over the loaded scene,
+ * as one bit per scene tile, plus the tiles on which clicks are blocked. Rebuilt when a scene loads
+ * or the region's tiles change, so enforcement checks are a single bit test in scene coordinates
+ * regardless of region size.
+ * In an instance, each scene chunk is resolved to its template chunk once per scene load; the
+ * mask then holds the template tiles' state, so containment costs the same as on the surface.
+ * Client thread only, apart from the bit arrays handed out by {@link #getClickableBits} and {@link #getBlockedBits}.
+ */
+final class SceneMask
+{
+    private static final int SIZE = Constants.SCENE_SIZE;
+    // Longs per scene row
+    private static final int ROW_WORDS = (SIZE + 63) >> 6;
+    private static final int CHUNKS = SIZE / Constants.CHUNK_SIZE;
+    private static final int CHUNK_MASK = Constants.CHUNK_SIZE - 1;
+
+    // Normal surface map bounds; underground areas and instance scenes lie outside them
+    static final int SURFACE_MIN_X = 960;
+    static final int SURFACE_MAX_X = 960 + 3008 - 1;
+    static final int SURFACE_MIN_Y = 1984;
+    static final int SURFACE_MAX_Y = 1984 + 2112 - 1;
+
+    // Replaced on every rebuild rather than cleared, so arrays handed to other threads never change
+    private long[][] clickable = new long[Constants.MAX_Z][SIZE * ROW_WORDS];
+    private long[][] blocked = new long[Constants.MAX_Z][SIZE * ROW_WORDS];
+
+    // Template chunk of each instance scene chunk, indexed [plane][chunkX][chunkY]; null outside instances
+    private int[][][] templateChunks;
+
+    // Bumped on every rebuild so derived scene caches know when to refresh
+    private int generation;
+    private boolean sceneLoaded;
+    private Region region;
+    private int version;
+    private int baseX;
+    private int baseY;
+
+    /**
+     * Drop the mask and the instance mapping, as when a new scene starts loading.
+     */
+    void invalidate()
+    {
+        sceneLoaded = false;
+        region = null;
+        templateChunks = null;
+    }
+
+    /**
+     * Rebuild the mask if the scene or the region's tiles changed since the last build.
+     *
+     * @param templateChunks the client's instance template chunks, or null when not in an
+     *                       instance (or when instances are not enforced)
+     */
+    void refresh(Region region, int baseX, int baseY, int[][][] templateChunks)
+    {
+        int version = region != null ? region.getAreaVersion() : 0;
+        boolean instanced = templateChunks != null;
+        if (sceneLoaded && this.baseX == baseX && this.baseY == baseY && (this.templateChunks != null) == instanced)
+        {
+            if (this.region == region && this.version == version)
+            {
+                return;
+            }
+        }
+        else
+        {
+            this.baseX = baseX;
+            this.baseY = baseY;
+            this.templateChunks = instanced ? copyTemplateChunks(templateChunks) : null;
+            this.sceneLoaded = true;
+        }
+
+        this.region = region;
+        this.version = version;
+        rebuild();
+    }
+
+    private static int[][][] copyTemplateChunks(int[][][] source)
+    {
+        int[][][] copy = new int[Constants.MAX_Z][CHUNKS][CHUNKS];
+        for (int z = 0; z < Constants.MAX_Z; z++)
+        {
+            for (int cx = 0; cx < CHUNKS; cx++)
+            {
+                java.util.Arrays.fill(copy[z][cx], -1);
+                if (z < source.length && source[z] != null && cx < source[z].length && source[z][cx] != null)
+                {
+                    System.arraycopy(source[z][cx], 0, copy[z][cx], 0, Math.min(CHUNKS, source[z][cx].length));
+                }
+            }
+        }
+        return copy;
+    }
+
+    int getGeneration()
+    {
+        return generation;
+    }
+
+    private void rebuild()
+    {
+        generation++;
+        clickable = new long[Constants.MAX_Z][SIZE * ROW_WORDS];
+        blocked = new long[Constants.MAX_Z][SIZE * ROW_WORDS];
+        if (region == null || !region.hasFinishedBorder())
+        {
+            return;
+        }
+
+        if (templateChunks != null)
+        {
+            rebuildInstance();
+        }
+        else
+        {
+            rebuildSurface();
+        }
+    }
+
+    private void rebuildSurface()
+    {
+        int minX = Math.max(0, SURFACE_MIN_X - baseX);
+        int minY = Math.max(0, SURFACE_MIN_Y - baseY);
+        int maxX = Math.min(SIZE - 1, SURFACE_MAX_X - baseX);
+        int maxY = Math.min(SIZE - 1, SURFACE_MAX_Y - baseY);
+        if (minX > maxX || minY > maxY)
+        {
+            return;
+        }
+
+        for (int plane = 0; plane < Constants.MAX_Z; plane++)
+        {
+            long[] bits = clickable[plane];
+            for (Border border : region.getBorders())
+            {
+                orLayer(bits, border.getBoundaryLayer(plane));
+                orLayer(bits, border.getInnerLayer(plane));
+            }
+
+            if (!region.hasFinishedBorder(plane))
+            {
+                continue;
+            }
+            long[] out = blocked[plane];
+            for (int sy = minY; sy <= maxY; sy++)
+            {
+                int row = sy * ROW_WORDS;
+                for (int w = 0; w < ROW_WORDS; w++)
+                {
+                    out[row + w] = spanMask(w, minX, maxX) & ~bits[row + w];
+                }
+            }
+        }
+    }
+
+    private void orLayer(long[] bits, TileLayer layer)
+    {
+        if (layer == null || layer.isEmpty())
+        {
+            return;
+        }
+        for (int sy = 0; sy < SIZE; sy++)
+        {
+            int row = sy * ROW_WORDS;
+            for (int w = 0; w < ROW_WORDS; w++)
+            {
+                bits[row + w] |= layer.rowBits(baseX + (w << 6), baseY + sy);
+            }
+        }
+    }
+
+    /**
+     * Bits of scene row word {@code w} covered by the inclusive x range.
+     */
+    private static long spanMask(int w, int minX, int maxX)
+    {
+        int base = w << 6;
+        int lo = Math.max(minX, base) - base;
+        int hi = Math.min(maxX, base + 63) - base;
+        return lo > hi ? 0 : (-1L >>> (63 - hi)) & (-1L << lo);
+    }
+
+    private void rebuildInstance()
+    {
+        java.util.List<Border> borders = region.getBorders();
+        for (int z = 0; z < Constants.MAX_Z; z++)
+        {
+            for (int cx = 0; cx < CHUNKS; cx++)
+            {
+                for (int cy = 0; cy < CHUNKS; cy++)
+                {
+                    int data = templateChunks[z][cx][cy];
+                    if (data == -1)
+                    {
+                        continue;
+                    }
+                    int rotation = data >> 1 & 0x3;
+                    int templateX = (data >> 14 & 0x3FF) * Constants.CHUNK_SIZE;
+                    int templateY = (data >> 3 & 0x7FF) * Constants.CHUNK_SIZE;
+                    int templatePlane = data >> 24 & 0x3;
+                    if (templateX < SURFACE_MIN_X || templateX > SURFACE_MAX_X
+                        || templateY < SURFACE_MIN_Y || templateY > SURFACE_MAX_Y)
+                    {
+                        // Copies of underground areas are not enforced
+                        continue;
+                    }
+                    mapChunk(z, cx, cy, borders, templateX, templateY, templatePlane, rotation,
+                        region.hasFinishedBorder(templatePlane));
+                }
+            }
+        }
+    }
+
+    /**
+     * Fill one instance scene chunk from its (rotated) template chunk.
+     * The scene tile at chunk offset (lx, ly) shows the template tile given by rotating the
+     * offset back by the chunk's rotation, as WorldPoint.fromLocalInstance does.
+     */
+    private void mapChunk(int z, int cx, int cy, java.util.List<Border> borders,
+        int templateX, int templateY, int templatePlane, int rotation, boolean enforced)
+    {
+        long[] click = clickable[z];
+        long[] block = blocked[z];
+        for (int ly = 0; ly < Constants.CHUNK_SIZE; ly++)
+        {
+            int sy = (cy << 3) + ly;
+            int row = sy * ROW_WORDS;
+            for (int lx = 0; lx < Constants.CHUNK_SIZE; lx++)
+            {
+                int tx;
+                int ty;
+                switch (rotation)
+                {
+                    case 1:
+                        tx = CHUNK_MASK - ly;
+                        ty = lx;
+                        break;
+                    case 2:
+                        tx = CHUNK_MASK - lx;
+                        ty = CHUNK_MASK - ly;
+                        break;
+                    case 3:
+                        tx = ly;
+                        ty = CHUNK_MASK - lx;
+                        break;
+                    default:
+                        tx = lx;
+                        ty = ly;
+                        break;
+                }
+
+                int sx = (cx << 3) + lx;
+                long bit = 1L << sx;
+                if (containsTile(borders, templateX + tx, templateY + ty, templatePlane))
+                {
+                    click[row + (sx >> 6)] |= bit;
+                }
+                else if (enforced)
+                {
+                    block[row + (sx >> 6)] |= bit;
+                }
+            }
+        }
+    }
+
+    private static boolean containsTile(java.util.List<Border> borders, int x, int y, int plane)
+    {
+        for (Border border : borders)
+        {
+            TileLayer inner = border.getInnerLayer(plane);
+            if (inner != null && inner.contains(x, y))
+            {
+                return true;
+            }
+            TileLayer boundary = border.getBoundaryLayer(plane);
+            if (boundary != null && boundary.contains(x, y))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the scene tile is on or inside a border of the region.
+     * In an instance this is the state of the tile's template tile.
+     */
+    boolean isClickable(int sceneX, int sceneY, int plane)
+    {
+        return test(clickable, sceneX, sceneY, plane);
+    }
+
+    /**
+     * Whether clicks on the scene tile are blocked: it maps to a surface tile on a plane with a
+     * finished border and that tile is not part of any border.
+     */
+    boolean isBlocked(int sceneX, int sceneY, int plane)
+    {
+        return test(blocked, sceneX, sceneY, plane);
+    }
+
+    /**
+     * The plane's clickable tiles as of the last rebuild, for {@link #test(long[], int, int)} from any thread.
+     * The array is never written after the rebuild that made it.
+     */
+    long[] getClickableBits(int plane)
+    {
+        return clickable[plane];
+    }
+
+    /**
+     * The plane's blocked tiles as of the last rebuild; see {@link #getClickableBits}.
+     */
+    long[] getBlockedBits(int plane)
+    {
+        return blocked[plane];
+    }
+
+    private static boolean test(long[][] bits, int sceneX, int sceneY, int plane)
+    {
+        if (plane < 0 || plane >= Constants.MAX_Z)
+        {
+            return false;
+        }
+        return test(bits[plane], sceneX, sceneY);
+    }
+
+    /**
+     * Whether the scene tile's bit is set in one plane's bits.
+     */
+    static boolean test(long[] bits, int sceneX, int sceneY)
+    {
+        if (sceneX < 0 || sceneY < 0 || sceneX >= SIZE || sceneY >= SIZE)
+        {
+            return false;
+        }
+        return (bits[sceneY * ROW_WORDS + (sceneX >> 6)] & (1L << sceneX)) != 0;
+    }
+}
@@ -0,0 +1,276 @@
+package com.regionlockenforcer;
+
+import net.runelite.api.CollisionDataFlag;
+import net.runelite.api.Constants;
+
+/**
+ * Connected areas of the border's tiles on one plane of the loaded scene, following the scene's
+ * collision flags without stepping onto any tile outside the border.
+ * Two tiles with the same label can be walked between while staying inside, so a walk click
+ * is checked with one array lookup instead of a pathfind. Labels are recomputed after a scene
+ * mask rebuild (scene load or border change), a plane change, or {@link #invalidate} when an
+ * object that may block movement spawns or despawns, such as a door or gate opening or closing.
+ * Client thread only, apart from the immutable {@link Areas} it publishes.
+ */
+final class SceneReachability
+{
+    private static final int SIZE = Constants.SCENE_SIZE;
+    // How far around a destination that cannot be stepped onto the game looks for a tile to walk to instead
+    private static final int ALTERNATIVE_RADIUS = 10;
+
+    private final int[] queue = new int[SIZE * SIZE];
+    // Labels of the last relabel; replaced, never modified, so a published instance stays valid
+    private Areas areas = new Areas(new int[SIZE * SIZE], new int[SIZE][SIZE]);
+
+    private int generation = -1;
+    private int plane = -1;
+    private boolean collisionChanged = true;
+
+    /**
+     * Note that the collision flags may have changed; the next refresh copies them and relabels.
+     */
+    void invalidate()
+    {
+        collisionChanged = true;
+    }
+
+    /**
+     * Relabel the plane if the scene mask was rebuilt, the plane changed or the collision flags
+     * were invalidated since the last call; otherwise this is a few field compares.
+     *
+     * @param flags the plane's collision flags, indexed [sceneX][sceneY]
+     */
+    void refresh(SceneMask mask, int plane, int[][] flags)
+    {
+        if (!collisionChanged && mask.getGeneration() == generation && this.plane == plane)
+        {
+            return;
+        }
+        collisionChanged = false;
+        generation = mask.getGeneration();
+        this.plane = plane;
+        int[][] copy = copyFlags(flags);
+        areas = new Areas(label(mask, plane, copy), copy);
+    }
+
+    /**
+     * The current labels, for reading off the client thread.
+     */
+    Areas getAreas()
+    {
+        return areas;
+    }
+
+    /**
+     * See {@link Areas#isConnected}.
+     */
+    boolean isConnected(int startX, int startY, int destX, int destY)
+    {
+        return areas.isConnected(startX, startY, destX, destY);
+    }
+
+    /**
+     * Labels and the collision flags they were computed from. Never written once built,
+     * so it may be read from any thread.
+     */
+    static final class Areas
+    {
+        // Component label per scene tile (index y * SIZE + x); 0 for tiles outside the border
+        private final int[] labels;
+        // Indexed [sceneX][sceneY]
+        private final int[][] flags;
+
+        private Areas(int[] labels, int[][] flags)
+        {
+            this.labels = labels;
+            this.flags = flags;
+        }
+
+        /**
+         * Whether the destination can be reached from the start without leaving the border.
+         * Both tiles must be inside the border. For a destination that cannot be stepped onto, such
+         * as water, a rock or a tree, the game walks the player to the nearest tile that can be
+         * instead; it counts as reached when one of those nearest tiles is in the player's area.
+         */
+        boolean isConnected(int startX, int startY, int destX, int destY)
+        {
+            if (!inScene(startX, startY) || !inScene(destX, destY))
+            {
+                return false;
+            }
+            int label = labels[startY * SIZE + startX];
+            if (label == 0)
+            {
+                return false;
+            }
+            if (label == labels[destY * SIZE + destX])
+            {
+                return true;
+            }
+            if (isEnterable(destX, destY))
+            {
+                return false;
+            }
+            // Square rings outward; the first ring with any enterable tile holds the walk's end
+            for (int radius = 1; radius <= ALTERNATIVE_RADIUS; radius++)
+            {
+                boolean found = false;
+                for (int dy = -radius; dy <= radius; dy++)
+                {
+                    int step = dy == -radius || dy == radius ? 1 : 2 * radius;
+                    for (int dx = -radius; dx <= radius; dx += step)
+                    {
+                        int x = destX + dx;
+                        int y = destY + dy;
+                        if (!inScene(x, y) || !isEnterable(x, y))
+                        {
+                            continue;
+                        }
+                        if (labels[y * SIZE + x] == label)
+                        {
+                            return true;
+                        }
+                        found = true;
+                    }
+                }
+                if (found)
+                {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Whether any straight step from a neighbouring tile onto the tile is open.
+         */
+        private boolean isEnterable(int x, int y)
+        {
+            return canStepStraight(flags, x - 1, y, 1, 0)
+                || canStepStraight(flags, x + 1, y, -1, 0)
+                || canStepStraight(flags, x, y - 1, 0, 1)
+                || canStepStraight(flags, x, y + 1, 0, -1);
+        }
+    }
+
+    /**
+     * Copy the collision flags, treating tiles missing from the source as fully blocked.
+     */
+    private static int[][] copyFlags(int[][] source)
+    {
+        int[][] flags = new int[SIZE][SIZE];
+        for (int x = 0; x < SIZE; x++)
+        {
+            int[] column = x < source.length ? source[x] : null;
+            int[] copy = flags[x];
+            for (int y = 0; y < SIZE; y++)
+            {
+                copy[y] = column != null && y < column.length ? column[y] : CollisionDataFlag.BLOCK_MOVEMENT_FULL;
+            }
+        }
+        return flags;
+    }
+
+    private int[] label(SceneMask mask, int plane, int[][] flags)
+    {
+        int[] labels = new int[SIZE * SIZE];
+        int next = 1;
+        for (int start = 0; start < labels.length; start++)
+        {
+            if (labels[start] != 0 || !mask.isClickable(start % SIZE, start / SIZE, plane))
+            {
+                continue;
+            }
+
+            // Breadth-first fill of one component
+            int label = next++;
+            labels[start] = label;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            while (head < tail)
+            {
+                int tile = queue[head++];
+                int x = tile % SIZE;
+                int y = tile / SIZE;
+                for (int dy = -1; dy <= 1; dy++)
+                {
+                    for (int dx = -1; dx <= 1; dx++)
+                    {
+                        if ((dx == 0 && dy == 0) || !inScene(x + dx, y + dy))
+                        {
+                            continue;
+                        }
+                        int neighbour = (y + dy) * SIZE + x + dx;
+                        if (labels[neighbour] != 0 || !mask.isClickable(x + dx, y + dy, plane)
+                            || !canStep(flags, x, y, dx, dy))
+                        {
+                            continue;
+                        }
+                        labels[neighbour] = label;
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Whether one step from (x, y) by (dx, dy) is allowed by the collision flags.
+     * A diagonal step also needs both orthogonal steps around the corner to be open,
+     * as the game's pathing requires; the corner tiles themselves are not entered.
+     */
+    private static boolean canStep(int[][] flags, int x, int y, int dx, int dy)
+    {
+        if (dx == 0 || dy == 0)
+        {
+            return canStepStraight(flags, x, y, dx, dy);
+        }
+        return canStepStraight(flags, x, y, dx, 0)
+            && canStepStraight(flags, x, y, 0, dy)
+            && canStepStraight(flags, x + dx, y, 0, dy)
+            && canStepStraight(flags, x, y + dy, dx, 0);
+    }
+
+    private static boolean canStepStraight(int[][] flags, int x, int y, int dx, int dy)
+    {
+        int tx = x + dx;
+        int ty = y + dy;
+        if (!inScene(x, y) || !inScene(tx, ty) || x >= flags.length || tx >= flags.length
+            || y >= flags[x].length || ty >= flags[tx].length)
+        {
+            return false;
+        }
+
+        int leaving;
+        int entering;
+        if (dx > 0)
+        {
+            leaving = CollisionDataFlag.BLOCK_MOVEMENT_EAST;
+            entering = CollisionDataFlag.BLOCK_MOVEMENT_WEST;
+        }
+        else if (dx < 0)
+        {
+            leaving = CollisionDataFlag.BLOCK_MOVEMENT_WEST;
+            entering = CollisionDataFlag.BLOCK_MOVEMENT_EAST;
+        }
+        else if (dy > 0)
+        {
+            leaving = CollisionDataFlag.BLOCK_MOVEMENT_NORTH;
+            entering = CollisionDataFlag.BLOCK_MOVEMENT_SOUTH;
+        }
+        else
+        {
+            leaving = CollisionDataFlag.BLOCK_MOVEMENT_SOUTH;
+            entering = CollisionDataFlag.BLOCK_MOVEMENT_NORTH;
+        }
+        return (flags[x][y] & leaving) == 0
+            && (flags[tx][ty] & (entering | CollisionDataFlag.BLOCK_MOVEMENT_FULL)) == 0;
+    }
+
+    private static boolean inScene(int x, int y)
+    {
+        return x >= 0 && y >= 0 && x < SIZE && y < SIZE;
+    }
+}
@@ -1,6 +1,8 @@
 package com.regionlockenforcer;
 
+import java.util.List;
 import lombok.Data;
+import net.runelite.api.coords.WorldPoint;
 
 /**
  * Represents a single teleport option in the game.
@@ -19,6 +21,9 @@ public class TeleportDefinition
     private Integer spellId; // Spell ID if this is a spell teleport (null otherwise)
     private Integer objectId; // Object ID if this is an object teleport (null otherwise)
     private Integer npcId; // NPC ID if this is an NPC dialog teleport (null otherwise)
+    private String linkedTeleportId; // For tablets: the spell that also allows this teleport (null otherwise)
+    private List<WorldPoint> destinations; // Where the teleport lands, one entry per possible spot (null if unknown)
+    private transient int ordinal = -1; // Position in the registry, assigned when the registry is built; bit index in whitelists
     
     public TeleportDefinition()
     {
@@ -8,6 +8,7 @@ public enum TeleportType
     ITEM,           // Teleport from an item (e.g., Ring of Duelling, Amulet of Glory)
     SPELL,          // Teleport spell in spellbook
     OBJECT,         // Teleport from a game object (e.g., Portal, Obelisk)
-    NPC_DIALOG      // Teleport from NPC dialog option
+    NPC_DIALOG,     // Teleport from NPC dialog option
+    TABLET          // Teleport tablet broken from the inventory
 }
 
@@ -0,0 +1,212 @@
+package com.regionlockenforcer;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of a teleport whitelist as a bitset over registry ordinals.
+ * Checking a teleport is a single bit test; string ids are only used to build and persist it.
+ */
+public final class TeleportWhitelist
+{
+    private static final String FORMAT_PREFIX = "b1:";
+
+    private final TeleportRegistry registry;
+    private final long[] words;
+    // Region whitelist version this snapshot was built from
+    final int version;
+
+    private TeleportWhitelist(TeleportRegistry registry, long[] words, int version)
+    {
+        this.registry = registry;
+        this.words = words;
+        this.version = version;
+    }
+
+    /**
+     * Build a snapshot from teleport ids. Ids the registry does not know are ignored.
+     */
+    public static TeleportWhitelist of(Collection<String> ids, TeleportRegistry registry)
+    {
+        return of(ids, registry, 0);
+    }
+
+    static TeleportWhitelist of(Collection<String> ids, TeleportRegistry registry, int version)
+    {
+        long[] words = new long[(registry.getTeleportCount() + 63) >>> 6];
+        if (ids != null)
+        {
+            for (String id : ids)
+            {
+                TeleportDefinition teleport = registry.getTeleportById(id);
+                if (teleport != null && teleport.getOrdinal() >= 0)
+                {
+                    int ordinal = teleport.getOrdinal();
+                    words[ordinal >>> 6] |= 1L << ordinal;
+                }
+            }
+        }
+        return new TeleportWhitelist(registry, words, version);
+    }
+
+    public boolean contains(TeleportDefinition teleport)
+    {
+        if (teleport == null)
+        {
+            return false;
+        }
+        int ordinal = teleport.getOrdinal();
+        return ordinal >= 0 && (ordinal >>> 6) < words.length && (words[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Check a teleport by id. Prefer {@link #contains(TeleportDefinition)} on hot paths.
+     */
+    public boolean contains(String id)
+    {
+        return id != null && contains(registry.getTeleportById(id));
+    }
+
+    public boolean isEmpty()
+    {
+        for (long word : words)
+        {
+            if (word != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The whitelisted teleport ids, for display and persistence.
+     */
+    public Set<String> toIds()
+    {
+        Set<String> ids = new HashSet<>();
+        for (int w = 0; w < words.length; w++)
+        {
+            long word = words[w];
+            while (word != 0)
+            {
+                int ordinal = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                TeleportDefinition teleport = registry.getTeleportByOrdinal(ordinal);
+                if (teleport != null)
+                {
+                    ids.add(teleport.getId());
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Encode as "b1:&lt;registry fingerprint&gt;:&lt;hex words&gt;[:&lt;ids&gt;]".
+     * The fingerprint ties the bits to the bundled registry ordinals they were written with.
+     * Teleports from the user's override file can get other ordinals on the next load,
+     * so they follow the bits by id, semicolon-joined.
+     */
+    public String encode()
+    {
+        long[] words = this.words.clone();
+        Set<String> overrideIds = new java.util.TreeSet<>();
+        for (int w = 0; w < words.length; w++)
+        {
+            long word = words[w];
+            while (word != 0)
+            {
+                int ordinal = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (!registry.isBundledOrdinal(ordinal))
+                {
+                    words[w] &= ~(1L << ordinal);
+                    TeleportDefinition teleport = registry.getTeleportByOrdinal(ordinal);
+                    if (teleport != null)
+                    {
+                        overrideIds.add(teleport.getId());
+                    }
+                }
+            }
+        }
+
+        StringBuilder sb = new StringBuilder(FORMAT_PREFIX);
+        sb.append(Integer.toHexString(registry.getOrdinalFingerprint())).append(':');
+        int last = words.length - 1;
+        while (last >= 0 && words[last] == 0)
+        {
+            last--;
+        }
+        for (int w = 0; w <= last; w++)
+        {
+            if (w > 0)
+            {
+                sb.append(',');
+            }
+            sb.append(Long.toHexString(words[w]));
+        }
+        if (!overrideIds.isEmpty())
+        {
+            sb.append(':').append(RegionSerializer.serializeStrings(overrideIds));
+        }
+        return sb.toString();
+    }
+
+    public static boolean isEncoded(String str)
+    {
+        return str != null && str.startsWith(FORMAT_PREFIX);
+    }
+
+    /**
+     * Decode a value written by {@link #encode()} into teleport ids.
+     *
+     * Bits are only read at bundled ordinals; override teleports come from the trailing id list.
+     *
+     * @return the ids, or null if the value is malformed or was written against different registry ordinals
+     */
+    public static Set<String> decodeIds(String str, TeleportRegistry registry)
+    {
+        if (!isEncoded(str))
+        {
+            return null;
+        }
+        try
+        {
+            String[] parts = str.substring(FORMAT_PREFIX.length()).split(":", 3);
+            if (parts.length < 2 || Integer.parseUnsignedInt(parts[0], 16) != registry.getOrdinalFingerprint())
+            {
+                return null;
+            }
+
+            long[] words = new long[(registry.getTeleportCount() + 63) >>> 6];
+            if (!parts[1].isEmpty())
+            {
+                String[] hexWords = parts[1].split(",");
+                for (int w = 0; w < hexWords.length && w < words.length; w++)
+                {
+                    words[w] = Long.parseUnsignedLong(hexWords[w], 16);
+                }
+            }
+            for (int ordinal = 0; ordinal < words.length << 6; ordinal++)
+            {
+                if (!registry.isBundledOrdinal(ordinal))
+                {
+                    words[ordinal >>> 6] &= ~(1L << ordinal);
+                }
+            }
+            Set<String> ids = new TeleportWhitelist(registry, words, 0).toIds();
+            if (parts.length == 3)
+            {
+                // Kept even if the override file no longer defines them, like a plain id list
+                ids.addAll(RegionSerializer.deserializeStrings(parts[2]));
+            }
+            return ids;
+        }
+        catch (NumberFormatException e)
+        {
+            return null;
+        }
+    }
+}
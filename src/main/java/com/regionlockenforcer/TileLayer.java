@@ -0,0 +1,1050 @@
+package com.regionlockenforcer;
+
+import java.util.Arrays;
+
+/**
+ * Set of tiles on a single plane, stored as sparse 64x64 chunk bitmaps.
+ * Each chunk is 64 longs (one per row, bit = x & 63) kept in a small open-addressing table,
+ * so containment is a hash probe and a bit test with no allocation.
+ * Completely filled chunks all share one read-only bitmap, so a region built from whole chunks
+ * costs one table slot per chunk; writers copy it before changing a shared chunk.
+ * Writers are serialized; readers are lock-free and may observe a concurrent edit partially.
+ */
+public final class TileLayer
+{
+    static final int CHUNK_SHIFT = 6;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int CHUNK_TILES = CHUNK_SIZE * CHUNK_SIZE;
+
+    // Shared by every completely filled chunk; never written
+    private static final long[] FULL_CHUNK = new long[CHUNK_SIZE];
+
+    static
+    {
+        Arrays.fill(FULL_CHUNK, -1L);
+    }
+
+    /**
+     * Receives tile coordinates during iteration.
+     */
+    public interface TileVisitor
+    {
+        void visit(int x, int y);
+    }
+
+    /**
+     * Keys and chunk bitmaps are swapped together on resize so readers never mix tables.
+     */
+    private static final class Table
+    {
+        final int[] keys;
+        final long[][] chunks;
+
+        Table(int capacity)
+        {
+            keys = new int[capacity];
+            chunks = new long[capacity][];
+        }
+    }
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+    private int chunkCount = 0;
+    private volatile int size = 0;
+
+    public TileLayer()
+    {
+    }
+
+    private TileLayer(TileLayer other)
+    {
+        Table source = other.table;
+        Table copy = new Table(source.keys.length);
+        for (int i = 0; i < source.keys.length; i++)
+        {
+            if (source.chunks[i] != null)
+            {
+                copy.keys[i] = source.keys[i];
+                copy.chunks[i] = source.chunks[i] == FULL_CHUNK ? FULL_CHUNK : source.chunks[i].clone();
+            }
+        }
+        this.table = copy;
+        this.chunkCount = other.chunkCount;
+        this.size = other.size;
+    }
+
+    public TileLayer copy()
+    {
+        synchronized (this)
+        {
+            return new TileLayer(this);
+        }
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public boolean contains(int x, int y)
+    {
+        long[] chunk = findChunk(chunkKey(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT));
+        return chunk != null && (chunk[y & CHUNK_MASK] & (1L << (x & CHUNK_MASK))) != 0;
+    }
+
+    public synchronized boolean add(int x, int y)
+    {
+        int key = chunkKey(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+        if (findChunk(key) == FULL_CHUNK)
+        {
+            return false;
+        }
+        long[] chunk = getOrCreateChunk(key);
+        int row = y & CHUNK_MASK;
+        long bit = 1L << (x & CHUNK_MASK);
+        if ((chunk[row] & bit) != 0)
+        {
+            return false;
+        }
+        chunk[row] |= bit;
+        size++;
+        if (chunk[row] == -1L)
+        {
+            shareIfFull(key, chunk);
+        }
+        return true;
+    }
+
+    public synchronized boolean remove(int x, int y)
+    {
+        long[] chunk = mutableChunk(chunkKey(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT));
+        if (chunk == null)
+        {
+            return false;
+        }
+        int row = y & CHUNK_MASK;
+        long bit = 1L << (x & CHUNK_MASK);
+        if ((chunk[row] & bit) == 0)
+        {
+            return false;
+        }
+        chunk[row] &= ~bit;
+        size--;
+        return true;
+    }
+
+    public synchronized void clear()
+    {
+        table = new Table(INITIAL_CAPACITY);
+        chunkCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Add every tile in the inclusive rectangle, one row word per chunk row.
+     *
+     * @return the number of tiles added
+     */
+    public synchronized int fillRect(int minX, int minY, int maxX, int maxY)
+    {
+        if (minX > maxX || minY > maxY)
+        {
+            return 0;
+        }
+
+        int added = 0;
+        for (int cy = minY >> CHUNK_SHIFT; cy <= maxY >> CHUNK_SHIFT; cy++)
+        {
+            int rowStart = Math.max(minY, cy << CHUNK_SHIFT) & CHUNK_MASK;
+            int rowEnd = Math.min(maxY, (cy << CHUNK_SHIFT) + CHUNK_MASK) & CHUNK_MASK;
+            for (int cx = minX >> CHUNK_SHIFT; cx <= maxX >> CHUNK_SHIFT; cx++)
+            {
+                long mask = spanMask(cx, minX, maxX);
+                int key = chunkKey(cx, cy);
+                if (mask == -1L && rowStart == 0 && rowEnd == CHUNK_MASK)
+                {
+                    // Whole chunk: share the full bitmap instead of writing 64 rows
+                    added += CHUNK_TILES - countChunk(findChunk(key));
+                    setChunk(key, FULL_CHUNK);
+                    continue;
+                }
+                long[] chunk = getOrCreateChunk(key);
+                for (int row = rowStart; row <= rowEnd; row++)
+                {
+                    added += Long.bitCount(mask & ~chunk[row]);
+                    chunk[row] |= mask;
+                }
+                shareIfFull(key, chunk);
+            }
+        }
+        size += added;
+        return added;
+    }
+
+    /**
+     * Remove every tile in the inclusive rectangle.
+     *
+     * @return the number of tiles removed
+     */
+    public synchronized int clearRect(int minX, int minY, int maxX, int maxY)
+    {
+        if (size == 0 || minX > maxX || minY > maxY)
+        {
+            return 0;
+        }
+
+        int removed = 0;
+        for (int cy = minY >> CHUNK_SHIFT; cy <= maxY >> CHUNK_SHIFT; cy++)
+        {
+            int rowStart = Math.max(minY, cy << CHUNK_SHIFT) & CHUNK_MASK;
+            int rowEnd = Math.min(maxY, (cy << CHUNK_SHIFT) + CHUNK_MASK) & CHUNK_MASK;
+            for (int cx = minX >> CHUNK_SHIFT; cx <= maxX >> CHUNK_SHIFT; cx++)
+            {
+                long[] chunk = mutableChunk(chunkKey(cx, cy));
+                if (chunk == null)
+                {
+                    continue;
+                }
+                long mask = spanMask(cx, minX, maxX);
+                for (int row = rowStart; row <= rowEnd; row++)
+                {
+                    removed += Long.bitCount(mask & chunk[row]);
+                    chunk[row] &= ~mask;
+                }
+            }
+        }
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * Add the tiles whose centres lie inside the polygon given by tile-corner coordinates.
+     * Rows are filled as spans from a scanline through the tile centres (even-odd rule).
+     *
+     * @return the number of tiles added
+     */
+    public synchronized int fillPolygon(int[] xs, int[] ys, int n)
+    {
+        if (n < 3)
+        {
+            return 0;
+        }
+
+        int minY = Integer.MAX_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++)
+        {
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+
+        int added = 0;
+        double[] crossings = new double[n];
+        for (int y = minY; y < maxY; y++)
+        {
+            double scanY = y + 0.5;
+            int count = 0;
+            for (int i = 0, j = n - 1; i < n; j = i++)
+            {
+                int y0 = ys[j];
+                int y1 = ys[i];
+                if ((y0 <= scanY) != (y1 <= scanY))
+                {
+                    crossings[count++] = xs[j] + (scanY - y0) * (xs[i] - xs[j]) / (double) (y1 - y0);
+                }
+            }
+            Arrays.sort(crossings, 0, count);
+            for (int k = 0; k + 1 < count; k += 2)
+            {
+                // Tiles whose centre x + 0.5 lies in [left, right)
+                int x0 = (int) Math.ceil(crossings[k] - 0.5);
+                int x1 = (int) Math.ceil(crossings[k + 1] - 0.5) - 1;
+                if (x0 <= x1)
+                {
+                    added += fillRect(x0, y, x1, y);
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Add every tile of another layer, one word per chunk row.
+     *
+     * @return the number of tiles added
+     */
+    public synchronized int addAll(TileLayer other)
+    {
+        if (other == null || other == this)
+        {
+            return 0;
+        }
+
+        int added = 0;
+        Table t = other.table;
+        for (int i = 0; i < t.keys.length; i++)
+        {
+            long[] source = t.chunks[i];
+            if (source == null || isEmptyChunk(source))
+            {
+                continue;
+            }
+            if (source == FULL_CHUNK)
+            {
+                added += CHUNK_TILES - countChunk(findChunk(t.keys[i]));
+                setChunk(t.keys[i], FULL_CHUNK);
+                continue;
+            }
+            long[] chunk = getOrCreateChunk(t.keys[i]);
+            for (int row = 0; row < CHUNK_SIZE; row++)
+            {
+                added += Long.bitCount(source[row] & ~chunk[row]);
+                chunk[row] |= source[row];
+            }
+            shareIfFull(t.keys[i], chunk);
+        }
+        size += added;
+        return added;
+    }
+
+    /**
+     * Remove every tile of another layer, one word per chunk row.
+     *
+     * @return the number of tiles removed
+     */
+    public synchronized int removeAll(TileLayer other)
+    {
+        if (other == null || size == 0)
+        {
+            return 0;
+        }
+        if (other == this)
+        {
+            int removed = size;
+            clear();
+            return removed;
+        }
+
+        int removed = 0;
+        Table t = other.table;
+        for (int i = 0; i < t.keys.length; i++)
+        {
+            long[] source = t.chunks[i];
+            if (source == null || isEmptyChunk(source))
+            {
+                continue;
+            }
+            long[] chunk = mutableChunk(t.keys[i]);
+            if (chunk == null)
+            {
+                continue;
+            }
+            for (int row = 0; row < CHUNK_SIZE; row++)
+            {
+                removed += Long.bitCount(source[row] & chunk[row]);
+                chunk[row] &= ~source[row];
+            }
+        }
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * Keep only the tiles that are also in another layer.
+     *
+     * @return the number of tiles removed
+     */
+    public synchronized int retainAll(TileLayer other)
+    {
+        if (other == this || size == 0)
+        {
+            return 0;
+        }
+        if (other == null)
+        {
+            int removed = size;
+            clear();
+            return removed;
+        }
+
+        int removed = 0;
+        Table t = table;
+        for (int i = 0; i < t.keys.length; i++)
+        {
+            long[] chunk = t.chunks[i];
+            if (chunk == null)
+            {
+                continue;
+            }
+            long[] source = other.findChunk(t.keys[i]);
+            if (source == FULL_CHUNK)
+            {
+                continue;
+            }
+            if (chunk == FULL_CHUNK)
+            {
+                chunk = FULL_CHUNK.clone();
+                t.chunks[i] = chunk;
+            }
+            for (int row = 0; row < CHUNK_SIZE; row++)
+            {
+                long kept = source != null ? chunk[row] & source[row] : 0;
+                removed += Long.bitCount(chunk[row] ^ kept);
+                chunk[row] = kept;
+            }
+        }
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * Toggle every tile of another layer (symmetric difference).
+     *
+     * @return the change in tile count
+     */
+    public synchronized int xorAll(TileLayer other)
+    {
+        if (other == null)
+        {
+            return 0;
+        }
+        if (other == this)
+        {
+            int removed = size;
+            clear();
+            return -removed;
+        }
+
+        int delta = 0;
+        Table t = other.table;
+        for (int i = 0; i < t.keys.length; i++)
+        {
+            long[] source = t.chunks[i];
+            if (source == null || isEmptyChunk(source))
+            {
+                continue;
+            }
+            long[] chunk = getOrCreateChunk(t.keys[i]);
+            for (int row = 0; row < CHUNK_SIZE; row++)
+            {
+                long before = chunk[row];
+                chunk[row] = before ^ source[row];
+                delta += Long.bitCount(chunk[row]) - Long.bitCount(before);
+            }
+            shareIfFull(t.keys[i], chunk);
+        }
+        size += delta;
+        return delta;
+    }
+
+    /**
+     * Tiles whose four orthogonal neighbours are all in the layer (a one-tile erosion).
+     * The remaining tiles form the layer's outline.
+     */
+    public TileLayer interior()
+    {
+        TileLayer result = new TileLayer();
+        Table t = table;
+        int added = 0;
+        for (int i = 0; i < t.keys.length; i++)
+        {
+            long[] chunk = t.chunks[i];
+            if (chunk == null || isEmptyChunk(chunk))
+            {
+                continue;
+            }
+            int cx = chunkX(t.keys[i]);
+            int cy = chunkY(t.keys[i]);
+            long[] west = findChunk(chunkKey(cx - 1, cy));
+            long[] east = findChunk(chunkKey(cx + 1, cy));
+            long[] north = findChunk(chunkKey(cx, cy + 1));
+            long[] south = findChunk(chunkKey(cx, cy - 1));
+
+            long[] out = null;
+            for (int row = 0; row < CHUNK_SIZE; row++)
+            {
+                long bits = chunk[row];
+                if (bits == 0)
+                {
+                    continue;
+                }
+                // Neighbour rows shifted so bit x reports the tile beside x; edge bits come from adjacent chunks
+                long westBits = (bits << 1) | (west != null ? west[row] >>> CHUNK_MASK : 0);
+                long eastBits = (bits >>> 1) | (east != null ? east[row] << CHUNK_MASK : 0);
+                long northBits = row < CHUNK_MASK ? chunk[row + 1] : north != null ? north[0] : 0;
+                long southBits = row > 0 ? chunk[row - 1] : south != null ? south[CHUNK_MASK] : 0;
+                long inner = bits & westBits & eastBits & northBits & southBits;
+                if (inner != 0)
+                {
+                    if (out == null)
+                    {
+                        out = result.getOrCreateChunk(t.keys[i]);
+                    }
+                    out[row] = inner;
+                    added += Long.bitCount(inner);
+                }
+            }
+            if (out != null)
+            {
+                result.shareIfFull(t.keys[i], out);
+            }
+        }
+        result.size = added;
+        return result;
+    }
+
+    /**
+     * XOR packed row words into one chunk: row {@code r} takes the next word from {@code words}
+     * for every bit {@code r} set in {@code rowMask}, starting at {@code offset}.
+     *
+     * @return the change in tile count
+     */
+    synchronized int xorChunk(int key, long rowMask, long[] words, int offset)
+    {
+        long[] chunk = getOrCreateChunk(key);
+        int delta = 0;
+        while (rowMask != 0)
+        {
+            int row = Long.numberOfTrailingZeros(rowMask);
+            rowMask &= rowMask - 1;
+            long before = chunk[row];
+            chunk[row] = before ^ words[offset++];
+            delta += Long.bitCount(chunk[row]) - Long.bitCount(before);
+        }
+        shareIfFull(key, chunk);
+        size += delta;
+        return delta;
+    }
+
+    /**
+     * Copy of one chunk's row words, or null if the chunk was never allocated.
+     */
+    long[] copyChunk(int key)
+    {
+        long[] chunk = findChunk(key);
+        return chunk != null ? chunk.clone() : null;
+    }
+
+    /**
+     * Live row words of one chunk, or null. Callers must not modify the array;
+     * full chunks share one bitmap.
+     */
+    long[] chunkAt(int key)
+    {
+        return findChunk(key);
+    }
+
+    /**
+     * Keys of every allocated chunk, including chunks that have since been emptied.
+     */
+    int[] chunkKeys()
+    {
+        Table t = table;
+        int[] keys = new int[t.keys.length];
+        int n = 0;
+        for (int i = 0; i < t.keys.length; i++)
+        {
+            if (t.chunks[i] != null)
+            {
+                keys[n++] = t.keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, n);
+    }
+
+    /**
+     * Whether every tile of the 64x64 chunk is in the layer. One probe, no row scan.
+     */
+    public boolean isChunkFull(int chunkX, int chunkY)
+    {
+        return findChunk(chunkKey(chunkX, chunkY)) == FULL_CHUNK;
+    }
+
+    /**
+     * Visit the chunk coordinates of every completely filled chunk, and every tile of the other chunks.
+     */
+    public void forEachByChunk(TileVisitor fullChunks, TileVisitor tiles)
+    {
+        Table t = table;
+        for (int i = 0; i < t.keys.length; i++)
+        {
+            long[] chunk = t.chunks[i];
+            if (chunk == FULL_CHUNK)
+            {
+                fullChunks.visit(chunkX(t.keys[i]), chunkY(t.keys[i]));
+            }
+            else if (chunk != null)
+            {
+                visitChunk(t.keys[i], chunk, tiles);
+            }
+        }
+    }
+
+    /**
+     * The 64 tiles of row {@code y} starting at {@code x}, as bits (bit i = tile x + i).
+     * Reads at most two chunk words; x need not be chunk aligned.
+     */
+    public long rowBits(int x, int y)
+    {
+        if (size == 0)
+        {
+            return 0;
+        }
+        int cx = x >> CHUNK_SHIFT;
+        int cy = y >> CHUNK_SHIFT;
+        int row = y & CHUNK_MASK;
+        int shift = x & CHUNK_MASK;
+        long[] low = findChunk(chunkKey(cx, cy));
+        long bits = low != null ? low[row] >>> shift : 0;
+        if (shift != 0)
+        {
+            long[] high = findChunk(chunkKey(cx + 1, cy));
+            if (high != null)
+            {
+                bits |= high[row] << (CHUNK_SIZE - shift);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Whether no tile of the inclusive rectangle is in the layer.
+     */
+    public boolean isRangeEmpty(int minX, int minY, int maxX, int maxY)
+    {
+        if (size == 0 || minX > maxX || minY > maxY)
+        {
+            return true;
+        }
+
+        for (int cy = minY >> CHUNK_SHIFT; cy <= maxY >> CHUNK_SHIFT; cy++)
+        {
+            int rowStart = Math.max(minY, cy << CHUNK_SHIFT) & CHUNK_MASK;
+            int rowEnd = Math.min(maxY, (cy << CHUNK_SHIFT) + CHUNK_MASK) & CHUNK_MASK;
+            for (int cx = minX >> CHUNK_SHIFT; cx <= maxX >> CHUNK_SHIFT; cx++)
+            {
+                long[] chunk = findChunk(chunkKey(cx, cy));
+                if (chunk == null)
+                {
+                    continue;
+                }
+                long mask = spanMask(cx, minX, maxX);
+                for (int row = rowStart; row <= rowEnd; row++)
+                {
+                    if ((chunk[row] & mask) != 0)
+                    {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether every tile of the inclusive rectangle is in the layer.
+     */
+    public boolean isRangeFull(int minX, int minY, int maxX, int maxY)
+    {
+        if (minX > maxX || minY > maxY)
+        {
+            return true;
+        }
+        if ((long) size < (long) (maxX - minX + 1) * (maxY - minY + 1))
+        {
+            return false;
+        }
+
+        for (int cy = minY >> CHUNK_SHIFT; cy <= maxY >> CHUNK_SHIFT; cy++)
+        {
+            int rowStart = Math.max(minY, cy << CHUNK_SHIFT) & CHUNK_MASK;
+            int rowEnd = Math.min(maxY, (cy << CHUNK_SHIFT) + CHUNK_MASK) & CHUNK_MASK;
+            for (int cx = minX >> CHUNK_SHIFT; cx <= maxX >> CHUNK_SHIFT; cx++)
+            {
+                long[] chunk = findChunk(chunkKey(cx, cy));
+                if (chunk == null)
+                {
+                    return false;
+                }
+                if (chunk == FULL_CHUNK)
+                {
+                    continue;
+                }
+                long mask = spanMask(cx, minX, maxX);
+                for (int row = rowStart; row <= rowEnd; row++)
+                {
+                    if ((chunk[row] & mask) != mask)
+                    {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visit every tile in the layer, chunk by chunk.
+     */
+    public void forEach(TileVisitor visitor)
+    {
+        Table t = table;
+        for (int i = 0; i < t.keys.length; i++)
+        {
+            long[] chunk = t.chunks[i];
+            if (chunk != null)
+            {
+                visitChunk(t.keys[i], chunk, visitor);
+            }
+        }
+    }
+
+    /**
+     * Visit the tiles inside the inclusive rectangle, skipping chunks that do not intersect it.
+     */
+    public void forEachInRange(int minX, int minY, int maxX, int maxY, TileVisitor visitor)
+    {
+        if (size == 0 || minX > maxX || minY > maxY)
+        {
+            return;
+        }
+
+        Table t = table;
+        for (int i = 0; i < t.keys.length; i++)
+        {
+            long[] chunk = t.chunks[i];
+            if (chunk == null)
+            {
+                continue;
+            }
+            int baseX = chunkX(t.keys[i]) << CHUNK_SHIFT;
+            int baseY = chunkY(t.keys[i]) << CHUNK_SHIFT;
+            if (baseX > maxX || baseX + CHUNK_MASK < minX || baseY > maxY || baseY + CHUNK_MASK < minY)
+            {
+                continue;
+            }
+            for (int row = 0; row < CHUNK_SIZE; row++)
+            {
+                int y = baseY + row;
+                long bits = chunk[row];
+                if (bits == 0 || y < minY || y > maxY)
+                {
+                    continue;
+                }
+                while (bits != 0)
+                {
+                    int x = baseX + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (x >= minX && x <= maxX)
+                    {
+                        visitor.visit(x, y);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Exact bounding box of the layer as {minX, minY, maxX, maxY}, or null when empty.
+     */
+    public int[] bounds()
+    {
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+
+        Table t = table;
+        for (int i = 0; i < t.keys.length; i++)
+        {
+            long[] chunk = t.chunks[i];
+            if (chunk == null)
+            {
+                continue;
+            }
+            int baseX = chunkX(t.keys[i]) << CHUNK_SHIFT;
+            int baseY = chunkY(t.keys[i]) << CHUNK_SHIFT;
+            for (int row = 0; row < CHUNK_SIZE; row++)
+            {
+                long bits = chunk[row];
+                if (bits == 0)
+                {
+                    continue;
+                }
+                minY = Math.min(minY, baseY + row);
+                maxY = Math.max(maxY, baseY + row);
+                minX = Math.min(minX, baseX + Long.numberOfTrailingZeros(bits));
+                maxX = Math.max(maxX, baseX + 63 - Long.numberOfLeadingZeros(bits));
+            }
+        }
+
+        return minX == Integer.MAX_VALUE ? null : new int[] {minX, minY, maxX, maxY};
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof TileLayer))
+        {
+            return false;
+        }
+        TileLayer other = (TileLayer) o;
+        if (size != other.size)
+        {
+            return false;
+        }
+
+        Table t = table;
+        for (int i = 0; i < t.keys.length; i++)
+        {
+            long[] chunk = t.chunks[i];
+            if (chunk == null || isEmptyChunk(chunk))
+            {
+                continue;
+            }
+            long[] otherChunk = other.findChunk(t.keys[i]);
+            if (otherChunk == null || !Arrays.equals(chunk, otherChunk))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        // Order independent so equal layers hash alike regardless of table layout
+        int hash = 0;
+        Table t = table;
+        for (int i = 0; i < t.keys.length; i++)
+        {
+            long[] chunk = t.chunks[i];
+            if (chunk != null && !isEmptyChunk(chunk))
+            {
+                hash += t.keys[i] * 31 + Arrays.hashCode(chunk);
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TileLayer(size=" + size + ", chunks=" + chunkCount + ")";
+    }
+
+    static int chunkKey(int chunkX, int chunkY)
+    {
+        return (chunkX << 16) | (chunkY & 0xFFFF);
+    }
+
+    static int chunkX(int key)
+    {
+        return key >> 16;
+    }
+
+    static int chunkY(int key)
+    {
+        return (short) key;
+    }
+
+    /**
+     * Row bits of chunk column {@code cx} covered by the inclusive x range.
+     */
+    private static long spanMask(int cx, int minX, int maxX)
+    {
+        int base = cx << CHUNK_SHIFT;
+        int lo = Math.max(minX, base) - base;
+        int hi = Math.min(maxX, base + CHUNK_MASK) - base;
+        return (-1L >>> (CHUNK_MASK - hi)) & (-1L << lo);
+    }
+
+    private static int slot(int key, int mask)
+    {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private long[] findChunk(int key)
+    {
+        Table t = table;
+        int mask = t.keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask)
+        {
+            long[] chunk = t.chunks[i];
+            if (chunk == null)
+            {
+                return null;
+            }
+            if (t.keys[i] == key)
+            {
+                return chunk;
+            }
+        }
+    }
+
+    /**
+     * The chunk for writing, allocated if absent and copied if it is the shared full bitmap.
+     */
+    private long[] getOrCreateChunk(int key)
+    {
+        long[] existing = mutableChunk(key);
+        if (existing != null)
+        {
+            return existing;
+        }
+        long[] chunk = new long[CHUNK_SIZE];
+        setChunk(key, chunk);
+        return chunk;
+    }
+
+    /**
+     * The existing chunk for writing, or null; a shared full chunk is replaced by its own copy first.
+     */
+    private long[] mutableChunk(int key)
+    {
+        long[] chunk = findChunk(key);
+        if (chunk == FULL_CHUNK)
+        {
+            chunk = FULL_CHUNK.clone();
+            setChunk(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Switch a chunk that just became completely filled to the shared full bitmap.
+     */
+    private void shareIfFull(int key, long[] chunk)
+    {
+        if (chunk != FULL_CHUNK && isFullChunk(chunk))
+        {
+            setChunk(key, FULL_CHUNK);
+        }
+    }
+
+    /**
+     * Store a chunk bitmap under the key, replacing the existing one or taking a new slot.
+     */
+    private void setChunk(int key, long[] chunk)
+    {
+        Table current = table;
+        int currentMask = current.keys.length - 1;
+        for (int i = slot(key, currentMask); current.chunks[i] != null; i = (i + 1) & currentMask)
+        {
+            if (current.keys[i] == key)
+            {
+                current.chunks[i] = chunk;
+                return;
+            }
+        }
+
+        // Keep the load factor at or below one half
+        if ((chunkCount + 1) * 2 > table.keys.length)
+        {
+            resize(table.keys.length * 2);
+        }
+
+        Table t = table;
+        int mask = t.keys.length - 1;
+        int i = slot(key, mask);
+        while (t.chunks[i] != null)
+        {
+            i = (i + 1) & mask;
+        }
+        t.keys[i] = key;
+        t.chunks[i] = chunk;
+        chunkCount++;
+    }
+
+    private void resize(int capacity)
+    {
+        Table old = table;
+        Table grown = new Table(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < old.keys.length; i++)
+        {
+            if (old.chunks[i] == null)
+            {
+                continue;
+            }
+            int j = slot(old.keys[i], mask);
+            while (grown.chunks[j] != null)
+            {
+                j = (j + 1) & mask;
+            }
+            grown.keys[j] = old.keys[i];
+            grown.chunks[j] = old.chunks[i];
+        }
+        table = grown;
+    }
+
+    private static void visitChunk(int key, long[] chunk, TileVisitor visitor)
+    {
+        int baseX = chunkX(key) << CHUNK_SHIFT;
+        int baseY = chunkY(key) << CHUNK_SHIFT;
+        for (int row = 0; row < CHUNK_SIZE; row++)
+        {
+            long bits = chunk[row];
+            while (bits != 0)
+            {
+                visitor.visit(baseX + Long.numberOfTrailingZeros(bits), baseY + row);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private static boolean isFullChunk(long[] chunk)
+    {
+        for (long bits : chunk)
+        {
+            if (bits != -1L)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int countChunk(long[] chunk)
+    {
+        if (chunk == null)
+        {
+            return 0;
+        }
+        if (chunk == FULL_CHUNK)
+        {
+            return CHUNK_TILES;
+        }
+        int count = 0;
+        for (long bits : chunk)
+        {
+            count += Long.bitCount(bits);
+        }
+        return count;
+    }
+
+    private static boolean isEmptyChunk(long[] chunk)
+    {
+        for (long bits : chunk)
+        {
+            if (bits != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
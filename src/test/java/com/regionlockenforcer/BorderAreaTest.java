@@ -0,0 +1,130 @@
+package com.regionlockenforcer;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BorderAreaTest
+{
+    @Test
+    public void combineAreasPerPlane()
+    {
+        Random random = new Random(13);
+        for (Border.SetOperation op : Border.SetOperation.values())
+        {
+            TileLayer[] left = new TileLayer[4];
+            TileLayer[] right = new TileLayer[4];
+            Set<WorldPoint> leftTiles = new HashSet<>();
+            Set<WorldPoint> rightTiles = new HashSet<>();
+            // Plane 0 in both, plane 1 only left, plane 2 only right, plane 3 in neither
+            left[0] = randomLayer(random, leftTiles, 0);
+            right[0] = randomLayer(random, rightTiles, 0);
+            left[1] = randomLayer(random, leftTiles, 1);
+            right[2] = randomLayer(random, rightTiles, 2);
+
+            Set<WorldPoint> expected = new HashSet<>(leftTiles);
+            switch (op)
+            {
+                case UNION:
+                    expected.addAll(rightTiles);
+                    break;
+                case INTERSECTION:
+                    expected.retainAll(rightTiles);
+                    break;
+                case DIFFERENCE:
+                    expected.removeAll(rightTiles);
+                    break;
+                case XOR:
+                    Set<WorldPoint> both = new HashSet<>(leftTiles);
+                    both.retainAll(rightTiles);
+                    expected.addAll(rightTiles);
+                    expected.removeAll(both);
+                    break;
+            }
+
+            TileLayer[] result = Border.combineAreas(left, right, op);
+            assertEquals(op.toString(), expected, tiles(result));
+            assertNull(result[3]);
+            for (TileLayer layer : result)
+            {
+                assertTrue(layer == null || !layer.isEmpty());
+            }
+            // The inputs are not modified
+            assertEquals(leftTiles, tiles(left));
+            assertEquals(rightTiles, tiles(right));
+        }
+    }
+
+    @Test
+    public void setAreaSplitsOutlineAndInterior()
+    {
+        Set<WorldPoint> tiles = new HashSet<>();
+        TileLayer[] area = new TileLayer[4];
+        area[0] = randomLayer(new Random(17), tiles, 0);
+        area[0].fillRect(0, 0, 63, 63);
+        TileLayerTest.fill(tiles, 0, 0, 63, 63, true);
+
+        Border border = new Border("test");
+        border.setArea(area);
+        assertEquals(tiles, tiles(border.snapshotAreaLayers()));
+        Set<WorldPoint> outline = new HashSet<>();
+        for (WorldPoint point : tiles)
+        {
+            if (!tiles.contains(point.dx(-1)) || !tiles.contains(point.dx(1))
+                || !tiles.contains(point.dy(-1)) || !tiles.contains(point.dy(1)))
+            {
+                outline.add(point);
+            }
+        }
+        assertEquals(outline, border.getBoundaryTiles());
+        assertEquals(tiles.size() - outline.size(), border.getInnerTiles().size());
+        assertTrue(border.getInnerLayer(0).contains(32, 32));
+
+        // A region's area is the union of its borders
+        Border other = new Border("other");
+        other.addArea(1000, 1000, 1, 8);
+        Region region = new Region("test");
+        region.getBorders().add(border);
+        region.getBorders().add(other);
+        Set<WorldPoint> expected = new HashSet<>(tiles);
+        for (int x = 1000; x < 1008; x++)
+        {
+            for (int y = 1000; y < 1008; y++)
+            {
+                expected.add(new WorldPoint(x, y, 1));
+            }
+        }
+        assertEquals(expected, tiles(region.snapshotAreaLayers()));
+    }
+
+    private static TileLayer randomLayer(Random random, Set<WorldPoint> oracle, int plane)
+    {
+        Set<WorldPoint> planeTiles = new HashSet<>();
+        TileLayer layer = TileLayerTest.randomLayer(random, planeTiles);
+        for (WorldPoint point : planeTiles)
+        {
+            oracle.add(new WorldPoint(point.getX(), point.getY(), plane));
+        }
+        return layer;
+    }
+
+    private static Set<WorldPoint> tiles(TileLayer[] layers)
+    {
+        Set<WorldPoint> tiles = new HashSet<>();
+        for (int plane = 0; plane < layers.length; plane++)
+        {
+            if (layers[plane] != null)
+            {
+                int z = plane;
+                layers[plane].forEach((x, y) -> tiles.add(new WorldPoint(x, y, z)));
+            }
+        }
+        return tiles;
+    }
+}
@@ -0,0 +1,134 @@
+package com.regionlockenforcer;
+
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BorderEnclosureTest
+{
+    private static final int BASE_X = 3200;
+    private static final int BASE_Y = 3200;
+
+    @Test
+    public void closedRing()
+    {
+        Border border = new Border("test");
+        ring(border, 0, 0, 4, 4);
+
+        BorderEnclosure enclosure = border.getEnclosure();
+        assertTrue(enclosure.isClosed());
+        assertEquals(1, enclosure.getEnclosedAreas(0));
+        assertTrue(enclosure.getLeaks(0).isEmpty());
+    }
+
+    @Test
+    public void ringWithGap()
+    {
+        Border border = new Border("test");
+        ring(border, 0, 0, 6, 6);
+        BorderEnclosure enclosure = border.getEnclosure();
+        border.removeTile(tile(3, 0));
+
+        assertFalse(enclosure.isClosed());
+        assertEquals(0, enclosure.getEnclosedAreas(0));
+        TileLayer leaks = enclosure.getLeaks(0);
+        assertEquals(2, leaks.size());
+        assertTrue(leaks.contains(BASE_X + 2, BASE_Y));
+        assertTrue(leaks.contains(BASE_X + 4, BASE_Y));
+
+        // Closing the gap again
+        border.addTile(tile(3, 0));
+        assertTrue(enclosure.isClosed());
+        assertTrue(enclosure.getLeaks(0).isEmpty());
+    }
+
+    @Test
+    public void diagonalOnlyContact()
+    {
+        Border border = new Border("test");
+        BorderEnclosure enclosure = border.getEnclosure();
+
+        // Two tiles touching at a corner form one line with two ends
+        border.addTile(tile(0, 0));
+        border.addTile(tile(1, 1));
+        assertFalse(enclosure.isClosed());
+        assertEquals(2, enclosure.getLeaks(0).size());
+
+        // A diamond of corner contacts walls in its centre tile
+        border.addTile(tile(2, 0));
+        border.addTile(tile(1, -1));
+        assertEquals(1, enclosure.getEnclosedAreas(0));
+        assertTrue(enclosure.getLeaks(0).isEmpty());
+
+        // Cutting one corner opens it
+        border.removeTile(tile(2, 0));
+        assertFalse(enclosure.isClosed());
+    }
+
+    @Test
+    public void twoSeparateLoops()
+    {
+        Border border = new Border("test");
+        ring(border, 0, 0, 2, 2);
+        ring(border, 10, 0, 14, 4);
+
+        BorderEnclosure enclosure = border.getEnclosure();
+        assertEquals(2, enclosure.getEnclosedAreas(0));
+
+        // Joining them with a line keeps both areas
+        for (int x = 3; x < 10; x++)
+        {
+            border.addTile(tile(x, 1));
+        }
+        assertEquals(2, enclosure.getEnclosedAreas(0));
+
+        // Cutting the line splits them apart again without changing the areas
+        border.removeTile(tile(6, 1));
+        assertEquals(2, enclosure.getEnclosedAreas(0));
+        assertEquals(2, enclosure.getLeaks(0).size());
+
+        // Opening one loop leaves the other
+        border.removeTile(tile(12, 4));
+        assertEquals(1, enclosure.getEnclosedAreas(0));
+        assertTrue(enclosure.isClosed());
+    }
+
+    @Test
+    public void cutLineSplitsComponents()
+    {
+        Border border = new Border("test");
+        BorderEnclosure enclosure = border.getEnclosure();
+        for (int x = 0; x < 20; x++)
+        {
+            border.addTile(tile(x, 0));
+        }
+        border.removeTile(tile(10, 0));
+
+        // Bending both halves into a ring each must close two areas, not one
+        ring(border, 0, 0, 4, 4);
+        ring(border, 15, 0, 19, 4);
+        assertEquals(2, enclosure.getEnclosedAreas(0));
+    }
+
+    private static void ring(Border border, int minX, int minY, int maxX, int maxY)
+    {
+        for (int x = minX; x <= maxX; x++)
+        {
+            border.addTile(tile(x, minY));
+            border.addTile(tile(x, maxY));
+        }
+        for (int y = minY + 1; y < maxY; y++)
+        {
+            border.addTile(tile(minX, y));
+            border.addTile(tile(maxX, y));
+        }
+    }
+
+    private static WorldPoint tile(int x, int y)
+    {
+        return new WorldPoint(BASE_X + x, BASE_Y + y, 0);
+    }
+}
@@ -0,0 +1,222 @@
+package com.regionlockenforcer;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BorderHistoryTest
+{
+    // Chunk-aligned, so a 64 tile area covers exactly one chunk
+    private static final int BASE_X = 3200;
+    private static final int BASE_Y = 3200;
+
+    @Test
+    public void undoRedoFullChunk()
+    {
+        Border border = new Border("test");
+        border.addTile(tile(5, 70));
+        border.addTile(tile(-1, 10));
+        Set<WorldPoint> before = copy(border);
+
+        assertEquals(64 * 64, border.addArea(BASE_X, BASE_Y, 0, 64));
+        Set<WorldPoint> filled = copy(border);
+        assertEquals(64 * 64 + 2, filled.size());
+
+        // Off the chunk grid: touches four chunks, one of them full
+        border.removeArea(BASE_X + 32, BASE_Y + 32, 0, 64);
+        Set<WorldPoint> cut = copy(border);
+        assertEquals(64 * 64 - 32 * 32 + 2, cut.size());
+
+        assertTrue(border.undo());
+        assertEquals(filled, copy(border));
+        assertTrue(border.undo());
+        assertEquals(before, copy(border));
+        assertTrue(border.undo());
+        assertTrue(border.undo());
+        assertTrue(border.getBoundaryTiles().isEmpty());
+        assertFalse(border.undo());
+
+        assertTrue(border.redo());
+        assertTrue(border.redo());
+        assertEquals(before, copy(border));
+        assertTrue(border.redo());
+        assertEquals(filled, copy(border));
+        assertTrue(border.redo());
+        assertEquals(cut, copy(border));
+        assertFalse(border.redo());
+    }
+
+    @Test
+    public void newEditDropsRedo()
+    {
+        Border border = new Border("test");
+        border.addTile(tile(0, 0));
+        border.addTile(tile(1, 0));
+        assertTrue(border.undo());
+        assertTrue(border.canRedo());
+
+        border.addTile(tile(2, 0));
+        assertFalse(border.canRedo());
+        assertFalse(border.redo());
+        assertEquals(set(tile(0, 0), tile(2, 0)), copy(border));
+
+        assertTrue(border.undo());
+        assertTrue(border.undo());
+        assertTrue(border.getBoundaryTiles().isEmpty());
+    }
+
+    @Test
+    public void setInnerTilesClearsHistory()
+    {
+        Border border = new Border("test");
+        border.addArea(BASE_X, BASE_Y, 0, 64);
+        border.setInnerTiles(set(tile(10, 10)));
+        Set<WorldPoint> loaded = copy(border);
+
+        assertFalse(border.canUndo());
+        assertFalse(border.undo());
+        assertEquals(loaded, copy(border));
+        assertEquals(set(tile(10, 10)), border.getInnerTiles());
+
+        // Edits after the clear undo back to the loaded state, not past it
+        border.removeArea(BASE_X, BASE_Y, 0, 64);
+        assertTrue(border.getBoundaryTiles().isEmpty());
+        assertTrue(border.undo());
+        assertEquals(loaded, copy(border));
+        assertFalse(border.undo());
+    }
+
+    @Test
+    public void groupedStrokeIsOneStep()
+    {
+        Border border = new Border("test");
+        border.addTile(tile(0, 0));
+        Set<WorldPoint> before = copy(border);
+
+        border.beginHistoryGroup();
+        border.addTile(tile(1, 0));
+        border.addArea(BASE_X + 60, BASE_Y, 0, 8);
+        border.removeTile(tile(0, 0));
+        // Undo and redo wait for the group to end
+        assertFalse(border.undo());
+        assertFalse(border.redo());
+        border.endHistoryGroup();
+        Set<WorldPoint> stroke = copy(border);
+
+        assertTrue(border.undo());
+        assertEquals(before, copy(border));
+        assertTrue(border.redo());
+        assertEquals(stroke, copy(border));
+        assertTrue(border.undo());
+        assertTrue(border.undo());
+        assertFalse(border.undo());
+    }
+
+    @Test
+    public void clearDuringGroup()
+    {
+        Border border = new Border("test");
+        border.beginHistoryGroup();
+        border.addTile(tile(0, 0));
+        border.setInnerTiles(Collections.emptySet());
+        border.addTile(tile(1, 0));
+        border.endHistoryGroup();
+
+        // Only the part of the stroke after the clear is undoable
+        assertTrue(border.undo());
+        assertEquals(set(tile(0, 0)), copy(border));
+        assertFalse(border.undo());
+    }
+
+    @Test
+    public void entryCapDropsOldest()
+    {
+        Border border = new Border("test");
+        int edits = BorderHistory.MAX_ENTRIES + 20;
+        for (int i = 0; i < edits; i++)
+        {
+            border.addTile(tile(i, 0));
+        }
+
+        int undone = 0;
+        while (border.undo())
+        {
+            undone++;
+        }
+        assertEquals(BorderHistory.MAX_ENTRIES, undone);
+        // The oldest tiles can no longer be taken back
+        assertEquals(edits - BorderHistory.MAX_ENTRIES, border.getBoundaryTiles().size());
+        assertTrue(border.isBoundaryTile(tile(edits - BorderHistory.MAX_ENTRIES - 1, 0)));
+        assertFalse(border.isBoundaryTile(tile(edits - BorderHistory.MAX_ENTRIES, 0)));
+    }
+
+    @Test
+    public void wordCapDropsOldest()
+    {
+        Border border = new Border("test");
+        // Each step flips 256 full chunks, so far fewer than MAX_ENTRIES fit in MAX_WORDS
+        int size = 1024;
+        int edits = 80;
+        for (int i = 0; i < edits; i++)
+        {
+            if (i % 2 == 0)
+            {
+                border.addArea(BASE_X, BASE_Y, 0, size);
+            }
+            else
+            {
+                border.removeArea(BASE_X, BASE_Y, 0, size);
+            }
+        }
+        assertTrue(border.getBoundaryTiles().isEmpty());
+
+        int undone = 0;
+        while (border.undo())
+        {
+            undone++;
+            // Undoing back to step n leaves the area filled exactly when n is odd
+            boolean filled = (edits - undone) % 2 == 1;
+            assertEquals(filled, border.getBoundaryLayer(0) != null && border.getBoundaryLayer(0).contains(BASE_X, BASE_Y));
+        }
+        assertTrue(undone > 0);
+        assertTrue(undone < edits);
+        assertTrue((long) undone * (size / 64) * (size / 64) * (64 + 2) <= BorderHistory.MAX_WORDS);
+    }
+
+    @Test
+    public void oversizedStepClearsHistory()
+    {
+        Border border = new Border("test");
+        border.addTile(tile(-10, -10));
+        // 128x128 full chunks weigh more than MAX_WORDS on their own
+        border.addArea(0, 0, 0, 128 * 64);
+
+        assertFalse(border.canUndo());
+        assertFalse(border.undo());
+        assertTrue(border.isBoundaryTile(tile(-10, -10)));
+        assertTrue(border.isBoundaryTile(new WorldPoint(128 * 64 - 1, 0, 0)));
+    }
+
+    private static Set<WorldPoint> copy(Border border)
+    {
+        return new HashSet<>(border.getBoundaryTiles());
+    }
+
+    private static Set<WorldPoint> set(WorldPoint... tiles)
+    {
+        Set<WorldPoint> set = new HashSet<>();
+        Collections.addAll(set, tiles);
+        return set;
+    }
+
+    private static WorldPoint tile(int x, int y)
+    {
+        return new WorldPoint(BASE_X + x, BASE_Y + y, 0);
+    }
+}
@@ -0,0 +1,185 @@
+package com.regionlockenforcer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class BorderPolygonsTest
+{
+    @Test
+    public void squareWithHole()
+    {
+        TileLayer layer = new TileLayer();
+        layer.fillRect(3200, 3200, 3209, 3209);
+        layer.clearRect(3203, 3203, 3206, 3205);
+
+        BorderPolygons polygons = assertRoundTrip(layer);
+        assertEquals(2, polygons.getRings(0).size());
+    }
+
+    @Test
+    public void holeTouchingOutsideDiagonally()
+    {
+        TileLayer layer = new TileLayer();
+        layer.fillRect(0, 0, 3, 3);
+        layer.remove(1, 1);
+        // Notch whose corner meets the hole's corner
+        layer.remove(0, 0);
+
+        assertRoundTrip(layer);
+    }
+
+    @Test
+    public void diagonalTouchingTiles()
+    {
+        TileLayer layer = new TileLayer();
+        layer.add(10, 10);
+        layer.add(11, 11);
+        layer.add(12, 10);
+
+        BorderPolygons polygons = assertRoundTrip(layer);
+        // Tiles meeting only at a corner are separate areas
+        assertEquals(3, polygons.getRings(0).size());
+    }
+
+    @Test
+    public void checkerboard()
+    {
+        TileLayer layer = new TileLayer();
+        for (int x = 0; x < 8; x++)
+        {
+            for (int y = 0; y < 8; y++)
+            {
+                if (((x + y) & 1) == 0)
+                {
+                    layer.add(x, y);
+                }
+            }
+        }
+        assertRoundTrip(layer);
+    }
+
+    @Test
+    public void randomAreasAcrossChunks()
+    {
+        Random random = new Random(40);
+        for (int trial = 0; trial < 50; trial++)
+        {
+            TileLayer layer = new TileLayer();
+            for (int i = 0; i < 40; i++)
+            {
+                int x = 3180 + random.nextInt(60);
+                int y = 3180 + random.nextInt(60);
+                int w = random.nextInt(8);
+                int h = random.nextInt(8);
+                if (random.nextInt(3) == 0)
+                {
+                    layer.clearRect(x, y, x + w, y + h);
+                }
+                else
+                {
+                    layer.fillRect(x, y, x + w, y + h);
+                }
+            }
+            assertRoundTrip(layer);
+        }
+    }
+
+    @Test
+    public void validRingsPass()
+    {
+        TileLayer layer = new TileLayer();
+        layer.fillRect(3200, 3200, 3209, 3209);
+        layer.clearRect(3203, 3203, 3206, 3205);
+        BorderPolygons polygons = BorderPolygons.trace(new TileLayer[] {layer});
+
+        List<List<int[]>> rings = new ArrayList<>();
+        rings.add(new ArrayList<>(polygons.getRings(0)));
+        BorderPolygons.validateRings(rings);
+    }
+
+    @Test
+    public void rejectsDiagonalEdge()
+    {
+        assertRejected(ring(0, 0, 4, 0, 4, 4, 1, 3));
+    }
+
+    @Test
+    public void rejectsDiagonalClosingEdge()
+    {
+        assertRejected(ring(0, 0, 4, 0, 4, 4, 0, 3, 1, 3));
+    }
+
+    @Test
+    public void rejectsCornersOutsideWorld()
+    {
+        assertRejected(ring(-4, 0, 4, 0, 4, 4, -4, 4));
+        int size = BorderPolygons.WORLD_SIZE;
+        assertRejected(ring(0, 0, size + 1, 0, size + 1, 4, 0, 4));
+    }
+
+    @Test
+    public void rejectsShortRings()
+    {
+        assertRejected(ring(0, 0, 4, 0, 4, 4));
+        assertRejected(ring(0, 0, 4, 0, 4, 4, 0));
+    }
+
+    @Test
+    public void rejectsTooManyVertices()
+    {
+        // A staircase with a few more vertices than allowed
+        int steps = BorderPolygons.MAX_VERTICES / 2;
+        int[] ring = new int[(steps + 1) * 4];
+        int k = 0;
+        for (int i = 0; i < steps; i++)
+        {
+            ring[k++] = i;
+            ring[k++] = i;
+            ring[k++] = i + 1;
+            ring[k++] = i;
+        }
+        ring[k++] = steps;
+        ring[k++] = steps;
+        ring[k++] = 0;
+        ring[k] = steps;
+        assertRejected(ring);
+    }
+
+    private static BorderPolygons assertRoundTrip(TileLayer layer)
+    {
+        BorderPolygons polygons = BorderPolygons.trace(new TileLayer[] {layer});
+        TileLayer[] raster = polygons.rasterize();
+        assertEquals(layer, raster[0]);
+        for (int plane = 1; plane < raster.length; plane++)
+        {
+            assertNull(raster[plane]);
+        }
+        return polygons;
+    }
+
+    private static int[] ring(int... coordinates)
+    {
+        return coordinates;
+    }
+
+    private static void assertRejected(int[] ring)
+    {
+        List<List<int[]>> rings = new ArrayList<>();
+        rings.add(Collections.singletonList(ring));
+        try
+        {
+            BorderPolygons.validateRings(rings);
+            fail("ring was accepted");
+        }
+        catch (IllegalArgumentException expected)
+        {
+        }
+    }
+}
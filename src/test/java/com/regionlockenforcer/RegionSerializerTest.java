@@ -0,0 +1,127 @@
+package com.regionlockenforcer;
+
+import com.google.gson.Gson;
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RegionSerializerTest
+{
+    private final Gson gson = new Gson();
+
+    @Test
+    public void roundTrip()
+    {
+        Region region = new Region("Misthalin");
+        region.setTeleportWhitelist(new HashSet<>(Arrays.asList("varrock_teleport", "lumbridge_home_teleport")));
+
+        Border finished = new Border("Varrock");
+        TileLayer[] area = new TileLayer[4];
+        area[0] = TileLayerTest.randomLayer(new Random(19), new HashSet<>());
+        // Their inner chunks are whole, including one at negative chunk coordinates
+        area[0].fillRect(3136, 3136, 3391, 3327);
+        area[0].fillRect(-192, -192, -1, -1);
+        area[1] = new TileLayer();
+        area[1].fillRect(3210, 3210, 3220, 3215);
+        finished.setArea(area);
+        finished.setPropStyle(RegionLockEnforcerConfig.PropStyle.IRON_FENCE);
+        finished.setRenderMode(Border.RenderMode.PROPS);
+        finished.setLineColor(new Color(10, 20, 30, 40));
+        region.getBorders().add(finished);
+
+        Border unfinished = new Border("Draft");
+        unfinished.addTile(new WorldPoint(3000, 3000, 2));
+        unfinished.addArea(2944, 3008, 2, 64);
+        region.getBorders().add(unfinished);
+
+        String saved = RegionSerializer.serializeRegion(region, gson);
+        assertTrue(saved.startsWith("v2|"));
+        // Whole chunks are stored by id rather than tile by tile
+        assertTrue(saved.contains("\"boundaryChunks\""));
+        assertTrue(saved.contains("\"innerChunks\""));
+
+        Region loaded = RegionSerializer.deserializeRegion(saved, gson);
+        assertEquals("Misthalin", loaded.getName());
+        assertEquals(region.getTeleportWhitelist(), loaded.getTeleportWhitelist());
+        assertEquals(2, loaded.getBorders().size());
+        for (int i = 0; i < 2; i++)
+        {
+            Border expected = region.getBorders().get(i);
+            Border actual = loaded.getBorders().get(i);
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getPropStyle(), actual.getPropStyle());
+            assertEquals(expected.getRenderMode(), actual.getRenderMode());
+            assertEquals(expected.getLineColor(), actual.getLineColor());
+            for (int plane = 0; plane < 4; plane++)
+            {
+                assertEquals(layer(expected.getBoundaryLayer(plane)), layer(actual.getBoundaryLayer(plane)));
+                assertEquals(layer(expected.getInnerLayer(plane)), layer(actual.getInnerLayer(plane)));
+            }
+            // Loading is not an undoable edit
+            assertFalse(actual.canUndo());
+        }
+        assertTrue(loaded.getBorders().get(0).getInnerLayer(0).isChunkFull(50, 50));
+        assertTrue(loaded.getBorders().get(0).getInnerLayer(0).isChunkFull(51, 50));
+        assertTrue(loaded.getBorders().get(0).getInnerLayer(0).isChunkFull(-2, -2));
+        assertTrue(loaded.getBorders().get(1).getBoundaryLayer(2).isChunkFull(46, 47));
+    }
+
+    @Test
+    public void loadsBaselineFormat()
+    {
+        // Written before full chunks were saved as chunk ids: every tile is listed
+        String saved = "v2|{\"name\":\"Old\",\"borders\":[{\"name\":\"Ring\","
+            + "\"boundaryTiles\":[" + ring(3200, 3200, 3202, 3202) + "],"
+            + "\"innerTiles\":[{\"x\":3201,\"y\":3201,\"plane\":0}],"
+            + "\"propStyle\":\"ROCK_WALL\",\"renderMode\":\"LINES\",\"lineColor\":-65536}],"
+            + "\"teleportWhitelist\":[\"varrock_teleport\"]}";
+
+        Region region = RegionSerializer.deserializeRegion(saved, gson);
+        assertEquals("Old", region.getName());
+        assertEquals(new HashSet<>(Arrays.asList("varrock_teleport")), region.getTeleportWhitelist());
+        assertEquals(1, region.getBorders().size());
+
+        Border border = region.getBorders().get(0);
+        assertEquals("Ring", border.getName());
+        assertEquals(8, border.getBoundaryTiles().size());
+        assertTrue(border.isBoundaryTile(new WorldPoint(3202, 3200, 0)));
+        assertEquals(new HashSet<>(Arrays.asList(new WorldPoint(3201, 3201, 0))), border.getInnerTiles());
+        assertEquals(RegionLockEnforcerConfig.PropStyle.ROCK_WALL, border.getPropStyle());
+        assertEquals(Border.RenderMode.LINES, border.getRenderMode());
+        assertEquals(new Color(-65536, true), border.getLineColor());
+
+        // Saved again it round-trips through the current format
+        Region again = RegionSerializer.deserializeRegion(RegionSerializer.serializeRegion(region, gson), gson);
+        assertEquals(border.getBoundaryTiles(), again.getBorders().get(0).getBoundaryTiles());
+        assertEquals(border.getInnerTiles(), again.getBorders().get(0).getInnerTiles());
+    }
+
+    private static TileLayer layer(TileLayer layer)
+    {
+        return layer != null ? layer : new TileLayer();
+    }
+
+    private static String ring(int minX, int minY, int maxX, int maxY)
+    {
+        Set<String> tiles = new HashSet<>();
+        for (int x = minX; x <= maxX; x++)
+        {
+            for (int y = minY; y <= maxY; y++)
+            {
+                if (x == minX || x == maxX || y == minY || y == maxY)
+                {
+                    tiles.add("{\"x\":" + x + ",\"y\":" + y + ",\"plane\":0}");
+                }
+            }
+        }
+        return String.join(",", tiles);
+    }
+}
@@ -0,0 +1,149 @@
+package com.regionlockenforcer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import net.runelite.api.Client;
+import net.runelite.api.Constants;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SceneMaskTest
+{
+    // Template chunk the instance copies; x and y differ so swapped axes show up
+    private static final int TEMPLATE_CHUNK_X = 400;
+    private static final int TEMPLATE_CHUNK_Y = 401;
+    private static final int TEMPLATE_PLANE = 0;
+    // Scene plane of the instance, unlike the template's
+    private static final int SCENE_PLANE = 1;
+    private static final int SCENE_CHUNK_Y = 3;
+
+    @Test
+    public void instanceRotationsMatchWorldPoint()
+    {
+        // An asymmetric pattern over the template chunk, so every rotation maps it differently
+        Set<WorldPoint> tiles = new HashSet<>();
+        TileLayer[] area = new TileLayer[Constants.MAX_Z];
+        area[TEMPLATE_PLANE] = new TileLayer();
+        int baseX = TEMPLATE_CHUNK_X * Constants.CHUNK_SIZE;
+        int baseY = TEMPLATE_CHUNK_Y * Constants.CHUNK_SIZE;
+        for (int x = 0; x < Constants.CHUNK_SIZE; x++)
+        {
+            for (int y = 0; y < Constants.CHUNK_SIZE; y++)
+            {
+                if (x + 2 * y < 8 || x == 6 && y == 5)
+                {
+                    area[TEMPLATE_PLANE].add(baseX + x, baseY + y);
+                    tiles.add(new WorldPoint(baseX + x, baseY + y, TEMPLATE_PLANE));
+                }
+            }
+        }
+        // Gives the plane interior tiles, so the border is finished and enforced
+        area[TEMPLATE_PLANE].fillRect(baseX + 40, baseY, baseX + 49, baseY + 9);
+        TileLayerTest.fill(tiles, baseX + 40, baseY, baseX + 49, baseY + 9, true);
+
+        Region region = new Region("test");
+        region.addBorder("test").setArea(area);
+        assertTrue(region.hasFinishedBorder(TEMPLATE_PLANE));
+
+        int chunks = Constants.SCENE_SIZE / Constants.CHUNK_SIZE;
+        int[][][] templateChunks = new int[Constants.MAX_Z][chunks][chunks];
+        for (int[][] plane : templateChunks)
+        {
+            for (int[] column : plane)
+            {
+                Arrays.fill(column, -1);
+            }
+        }
+        for (int rotation = 0; rotation < 4; rotation++)
+        {
+            templateChunks[SCENE_PLANE][rotation][SCENE_CHUNK_Y] = TEMPLATE_PLANE << 24 | TEMPLATE_CHUNK_X << 14
+                | TEMPLATE_CHUNK_Y << 3 | rotation << 1;
+        }
+
+        SceneMask mask = new SceneMask();
+        mask.refresh(region, 6400, 6400, templateChunks);
+        Client client = instanceClient(templateChunks, SCENE_PLANE);
+
+        Set<String> patterns = new HashSet<>();
+        for (int rotation = 0; rotation < 4; rotation++)
+        {
+            StringBuilder pattern = new StringBuilder();
+            for (int lx = 0; lx < Constants.CHUNK_SIZE; lx++)
+            {
+                for (int ly = 0; ly < Constants.CHUNK_SIZE; ly++)
+                {
+                    int sceneX = rotation * Constants.CHUNK_SIZE + lx;
+                    int sceneY = SCENE_CHUNK_Y * Constants.CHUNK_SIZE + ly;
+                    WorldPoint template = WorldPoint.fromLocalInstance(client, LocalPoint.fromScene(sceneX, sceneY));
+                    boolean inside = tiles.contains(template);
+                    String at = "rotation " + rotation + " scene " + sceneX + "," + sceneY;
+                    assertEquals(at, inside, mask.isClickable(sceneX, sceneY, SCENE_PLANE));
+                    assertEquals(at, !inside, mask.isBlocked(sceneX, sceneY, SCENE_PLANE));
+                    pattern.append(inside ? '#' : '.');
+                }
+            }
+            patterns.add(pattern.toString());
+        }
+        assertEquals(4, patterns.size());
+
+        // Scene chunks without a template chunk stay unmapped, on every plane
+        assertFalse(mask.isClickable(4 * Constants.CHUNK_SIZE, SCENE_CHUNK_Y * Constants.CHUNK_SIZE, SCENE_PLANE));
+        assertFalse(mask.isBlocked(4 * Constants.CHUNK_SIZE, SCENE_CHUNK_Y * Constants.CHUNK_SIZE, SCENE_PLANE));
+        assertFalse(mask.isClickable(0, SCENE_CHUNK_Y * Constants.CHUNK_SIZE, TEMPLATE_PLANE));
+    }
+
+    /**
+     * A client in an instance that answers only what instance mapping reads; every other call returns
+     * its type's default. World views, where the API has them, are answered by the same handler.
+     */
+    private static Client instanceClient(int[][][] templateChunks, int plane)
+    {
+        InvocationHandler handler = new InvocationHandler()
+        {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+            {
+                Class<?> type = method.getReturnType();
+                switch (method.getName())
+                {
+                    case "isInInstancedRegion":
+                    case "isInstance":
+                        return true;
+                    case "getInstanceTemplateChunks":
+                        return templateChunks;
+                    case "getPlane":
+                        return plane;
+                    default:
+                        break;
+                }
+                if (type.isInterface())
+                {
+                    return Proxy.newProxyInstance(SceneMaskTest.class.getClassLoader(), new Class<?>[] {type}, this);
+                }
+                if (type == boolean.class)
+                {
+                    return false;
+                }
+                if (type == int.class)
+                {
+                    return 0;
+                }
+                if (type == long.class)
+                {
+                    return 0L;
+                }
+                return null;
+            }
+        };
+        return (Client) Proxy.newProxyInstance(SceneMaskTest.class.getClassLoader(), new Class<?>[] {Client.class}, handler);
+    }
+}
@@ -0,0 +1,131 @@
+package com.regionlockenforcer;
+
+import com.google.gson.Gson;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TeleportWhitelistTest
+{
+    private static final String BUNDLED_FIRST = "ring_dueling_ferox_enclave";
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void roundTrip() throws IOException
+    {
+        TeleportRegistry registry = registry(override(
+            "{\"id\": \"custom_next\", \"name\": \"Next\", \"type\": \"ITEM\"}",
+            "{\"ordinal\": 300, \"id\": \"custom_gap\", \"name\": \"Gap\", \"type\": \"ITEM\"}"));
+        TeleportDefinition gap = registry.getTeleportById("custom_gap");
+        assertEquals(300, gap.getOrdinal());
+        assertFalse(registry.isBundledOrdinal(gap.getOrdinal()));
+        assertFalse(registry.isBundledOrdinal(registry.getTeleportById("custom_next").getOrdinal()));
+        assertNull(registry.getTeleportByOrdinal(299));
+
+        String lastBundled = registry.getTeleportByOrdinal(lastBundledOrdinal(registry)).getId();
+        Set<String> ids = set(BUNDLED_FIRST, lastBundled, "custom_next", "custom_gap");
+        TeleportWhitelist whitelist = TeleportWhitelist.of(ids, registry);
+        assertTrue(whitelist.contains(gap));
+        assertEquals(ids, whitelist.toIds());
+
+        String encoded = whitelist.encode();
+        assertTrue(encoded.startsWith("b1:" + Integer.toHexString(registry.getOrdinalFingerprint()) + ":"));
+        // Override teleports follow the bits by id
+        assertTrue(encoded.endsWith(":custom_gap;custom_next"));
+        assertEquals(ids, TeleportWhitelist.decodeIds(encoded, registry));
+        assertEquals(ids, TeleportWhitelist.of(TeleportWhitelist.decodeIds(encoded, registry), registry).toIds());
+    }
+
+    @Test
+    public void overrideOrdinalsAreNotTrusted() throws IOException
+    {
+        TeleportRegistry written = registry(override(
+            "{\"id\": \"custom_next\", \"name\": \"Next\", \"type\": \"ITEM\"}"));
+        String encoded = TeleportWhitelist.of(set(BUNDLED_FIRST, "custom_next"), written).encode();
+
+        // Next load, another override teleport takes the ordinal custom_next had
+        TeleportRegistry loaded = registry(override(
+            "{\"id\": \"custom_other\", \"name\": \"Other\", \"type\": \"ITEM\"}"));
+        assertEquals(written.getTeleportById("custom_next").getOrdinal(), loaded.getTeleportById("custom_other").getOrdinal());
+        assertEquals(set(BUNDLED_FIRST, "custom_next"), TeleportWhitelist.decodeIds(encoded, loaded));
+
+        // Without any override file the id is kept, like in a plain id list
+        assertEquals(set(BUNDLED_FIRST, "custom_next"), TeleportWhitelist.decodeIds(encoded, registry(null)));
+    }
+
+    @Test
+    public void bumpedOrdinalVersionFallsBackToIds()
+    {
+        TeleportRegistry registry = registry(null);
+        Set<String> ids = set(BUNDLED_FIRST, "games_necklace_burthorpe");
+        String encoded = TeleportWhitelist.of(ids, registry).encode();
+
+        // Written before the data file reassigned ordinals
+        String prefix = "b1:" + Integer.toHexString(registry.getOrdinalFingerprint()) + ":";
+        String stale = "b1:" + Integer.toHexString(registry.getOrdinalFingerprint() - 1) + ":" + encoded.substring(prefix.length());
+        assertTrue(TeleportWhitelist.isEncoded(stale));
+        assertNull(TeleportWhitelist.decodeIds(stale, registry));
+
+        // The bitset is ignored and the ids saved with the region are used
+        Region region = new Region("test");
+        region.setTeleportWhitelist(ids);
+        Region loaded = RegionSerializer.deserializeRegion(RegionSerializer.serializeRegion(region, gson), gson);
+        assertEquals(ids, TeleportWhitelist.of(loaded.getTeleportWhitelist(), registry).toIds());
+    }
+
+    @Test
+    public void malformed()
+    {
+        TeleportRegistry registry = registry(null);
+        String fingerprint = Integer.toHexString(registry.getOrdinalFingerprint());
+        assertNull(TeleportWhitelist.decodeIds("varrock_teleport", registry));
+        assertNull(TeleportWhitelist.decodeIds("b1:zz:1", registry));
+        assertNull(TeleportWhitelist.decodeIds("b1:" + fingerprint, registry));
+        assertNull(TeleportWhitelist.decodeIds("b1:" + fingerprint + ":xyz", registry));
+        assertEquals("b1:" + fingerprint + ":", TeleportWhitelist.of(null, registry).encode());
+        assertTrue(TeleportWhitelist.decodeIds("b1:" + fingerprint + ":", registry).isEmpty());
+    }
+
+    private TeleportRegistry registry(File override)
+    {
+        return new TeleportRegistry(gson, override != null ? override : new File("missing-teleport-overrides.json"));
+    }
+
+    private static File override(String... teleports) throws IOException
+    {
+        File file = File.createTempFile("teleports", ".json");
+        file.deleteOnExit();
+        String json = "{\"categories\": [{\"name\": \"Custom\", \"teleports\": [" + String.join(",", teleports) + "]}]}";
+        Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static int lastBundledOrdinal(TeleportRegistry registry)
+    {
+        int last = -1;
+        for (int ordinal = 0; ordinal < registry.getTeleportCount(); ordinal++)
+        {
+            if (registry.isBundledOrdinal(ordinal))
+            {
+                last = ordinal;
+            }
+        }
+        return last;
+    }
+
+    private static Set<String> set(String... ids)
+    {
+        return new HashSet<>(Arrays.asList(ids));
+    }
+}
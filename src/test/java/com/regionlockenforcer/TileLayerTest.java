@@ -0,0 +1,340 @@
+package com.regionlockenforcer;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TileLayerTest
+{
+    // Spans chunks -2 to 1 on both axes, so edits cross chunk edges and the sign change
+    private static final int MIN = -100;
+    private static final int MAX = 100;
+
+    @Test
+    public void randomEditsMatchSet()
+    {
+        Random random = new Random(7);
+        TileLayer layer = new TileLayer();
+        Set<WorldPoint> oracle = new HashSet<>();
+        for (int i = 0; i < 5000; i++)
+        {
+            int x = MIN + random.nextInt(MAX - MIN);
+            int y = MIN + random.nextInt(MAX - MIN);
+            switch (random.nextInt(4))
+            {
+                case 0:
+                    assertEquals(oracle.add(tile(x, y)), layer.add(x, y));
+                    break;
+                case 1:
+                    assertEquals(oracle.remove(tile(x, y)), layer.remove(x, y));
+                    break;
+                case 2:
+                {
+                    int maxX = x + random.nextInt(70);
+                    int maxY = y + random.nextInt(70);
+                    assertEquals(fill(oracle, x, y, maxX, maxY, true), layer.fillRect(x, y, maxX, maxY));
+                    break;
+                }
+                default:
+                {
+                    int maxX = x + random.nextInt(70);
+                    int maxY = y + random.nextInt(70);
+                    assertEquals(fill(oracle, x, y, maxX, maxY, false), layer.clearRect(x, y, maxX, maxY));
+                    break;
+                }
+            }
+            if (i % 250 == 0)
+            {
+                assertMatches(oracle, layer);
+            }
+        }
+        assertMatches(oracle, layer);
+    }
+
+    @Test
+    public void chunkEdges()
+    {
+        TileLayer layer = new TileLayer();
+        int[] edges = {-65, -64, -63, -1, 0, 1, 63, 64, 65};
+        Set<WorldPoint> oracle = new HashSet<>();
+        for (int x : edges)
+        {
+            for (int y : edges)
+            {
+                layer.add(x, y);
+                oracle.add(tile(x, y));
+            }
+        }
+        assertMatches(oracle, layer);
+        assertFalse(layer.contains(-2, 0));
+        assertFalse(layer.contains(62, 64));
+    }
+
+    @Test
+    public void fullChunkMadePartial()
+    {
+        TileLayer layer = new TileLayer();
+        assertEquals(64 * 64, layer.fillRect(-64, -64, -1, -1));
+        assertTrue(layer.isChunkFull(-1, -1));
+
+        Set<WorldPoint> oracle = new HashSet<>();
+        fill(oracle, -64, -64, -1, -1, true);
+        assertTrue(layer.remove(-1, -1));
+        oracle.remove(tile(-1, -1));
+        assertFalse(layer.isChunkFull(-1, -1));
+        assertMatches(oracle, layer);
+
+        // A copy taken while full must not see edits to the original
+        layer.add(-1, -1);
+        assertTrue(layer.isChunkFull(-1, -1));
+        TileLayer copy = layer.copy();
+        assertEquals(32, layer.clearRect(-40, -40, -9, -40));
+        assertTrue(copy.isChunkFull(-1, -1));
+        assertEquals(64 * 64, copy.size());
+        fill(oracle, -64, -64, -1, -1, true);
+        fill(oracle, -40, -40, -9, -40, false);
+        assertMatches(oracle, layer);
+    }
+
+    @Test
+    public void bounds()
+    {
+        TileLayer layer = new TileLayer();
+        assertNull(layer.bounds());
+
+        layer.add(5, -70);
+        assertBounds(layer, 5, -70, 5, -70);
+        layer.fillRect(-64, 0, -1, 63);
+        assertBounds(layer, -64, -70, 5, 63);
+        layer.add(128, 200);
+        assertBounds(layer, -64, -70, 128, 200);
+
+        layer.clearRect(-64, 0, -1, 63);
+        layer.remove(128, 200);
+        assertBounds(layer, 5, -70, 5, -70);
+        layer.remove(5, -70);
+        assertNull(layer.bounds());
+    }
+
+    @Test
+    public void equalsAcrossFullAndExplicitChunks()
+    {
+        TileLayer full = new TileLayer();
+        full.fillRect(0, -64, 63, -1);
+        full.add(100, 100);
+
+        TileLayer explicit = new TileLayer();
+        explicit.add(100, 100);
+        for (int x = 0; x < 64; x++)
+        {
+            for (int y = -64; y < 0; y++)
+            {
+                explicit.add(x, y);
+            }
+        }
+        assertEquals(full, explicit);
+        assertEquals(explicit, full);
+        assertEquals(full.hashCode(), explicit.hashCode());
+
+        // Chunks left empty by removals do not count
+        explicit.add(-500, 500);
+        explicit.remove(-500, 500);
+        assertEquals(full, explicit);
+        assertEquals(full.hashCode(), explicit.hashCode());
+
+        explicit.remove(0, -64);
+        assertNotEquals(full, explicit);
+        explicit.add(0, -64);
+        assertEquals(full, explicit);
+        assertEquals(full.hashCode(), explicit.hashCode());
+    }
+
+    @Test
+    public void setOperationsMatchSets()
+    {
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++)
+        {
+            Set<WorldPoint> leftTiles = new HashSet<>();
+            Set<WorldPoint> rightTiles = new HashSet<>();
+            TileLayer left = randomLayer(random, leftTiles);
+            TileLayer right = randomLayer(random, rightTiles);
+
+            TileLayer union = left.copy();
+            Set<WorldPoint> expected = new HashSet<>(leftTiles);
+            expected.addAll(rightTiles);
+            assertEquals(expected.size() - leftTiles.size(), union.addAll(right));
+            assertMatches(expected, union);
+
+            TileLayer intersection = left.copy();
+            expected = new HashSet<>(leftTiles);
+            expected.retainAll(rightTiles);
+            assertEquals(leftTiles.size() - expected.size(), intersection.retainAll(right));
+            assertMatches(expected, intersection);
+
+            TileLayer difference = left.copy();
+            expected = new HashSet<>(leftTiles);
+            expected.removeAll(rightTiles);
+            assertEquals(leftTiles.size() - expected.size(), difference.removeAll(right));
+            assertMatches(expected, difference);
+
+            TileLayer xor = left.copy();
+            expected = new HashSet<>(leftTiles);
+            expected.addAll(rightTiles);
+            Set<WorldPoint> both = new HashSet<>(leftTiles);
+            both.retainAll(rightTiles);
+            expected.removeAll(both);
+            xor.xorAll(right);
+            assertMatches(expected, xor);
+
+            // The operands are left alone
+            assertMatches(leftTiles, left);
+            assertMatches(rightTiles, right);
+        }
+    }
+
+    @Test
+    public void selfOperations()
+    {
+        Set<WorldPoint> tiles = new HashSet<>();
+        TileLayer layer = randomLayer(new Random(3), tiles);
+
+        assertEquals(0, layer.addAll(layer.copy()));
+        assertEquals(0, layer.retainAll(layer.copy()));
+        assertMatches(tiles, layer);
+        layer.xorAll(layer.copy());
+        assertTrue(layer.isEmpty());
+        assertNull(layer.bounds());
+    }
+
+    @Test
+    public void interiorIsErosion()
+    {
+        Random random = new Random(5);
+        for (int round = 0; round < 10; round++)
+        {
+            Set<WorldPoint> tiles = new HashSet<>();
+            TileLayer layer = randomLayer(random, tiles);
+
+            Set<WorldPoint> expected = new HashSet<>();
+            for (WorldPoint point : tiles)
+            {
+                int x = point.getX();
+                int y = point.getY();
+                if (tiles.contains(tile(x - 1, y)) && tiles.contains(tile(x + 1, y))
+                    && tiles.contains(tile(x, y - 1)) && tiles.contains(tile(x, y + 1)))
+                {
+                    expected.add(point);
+                }
+            }
+            assertMatches(expected, layer.interior());
+        }
+    }
+
+    static void assertMatches(Set<WorldPoint> oracle, TileLayer layer)
+    {
+        assertEquals(oracle.size(), layer.size());
+        assertEquals(oracle.isEmpty(), layer.isEmpty());
+        for (WorldPoint point : oracle)
+        {
+            assertTrue(point.toString(), layer.contains(point.getX(), point.getY()));
+        }
+        Set<WorldPoint> visited = new HashSet<>();
+        layer.forEach((x, y) -> assertTrue(visited.add(tile(x, y))));
+        assertEquals(oracle, visited);
+
+        int[] bounds = layer.bounds();
+        if (oracle.isEmpty())
+        {
+            assertNull(bounds);
+            return;
+        }
+        assertEquals(oracle.stream().mapToInt(WorldPoint::getX).min().getAsInt(), bounds[0]);
+        assertEquals(oracle.stream().mapToInt(WorldPoint::getY).min().getAsInt(), bounds[1]);
+        assertEquals(oracle.stream().mapToInt(WorldPoint::getX).max().getAsInt(), bounds[2]);
+        assertEquals(oracle.stream().mapToInt(WorldPoint::getY).max().getAsInt(), bounds[3]);
+    }
+
+    /**
+     * Add or remove the rectangle's tiles in the oracle.
+     *
+     * @return the number of tiles that changed
+     */
+    static int fill(Set<WorldPoint> oracle, int minX, int minY, int maxX, int maxY, boolean add)
+    {
+        int changed = 0;
+        for (int x = minX; x <= maxX; x++)
+        {
+            for (int y = minY; y <= maxY; y++)
+            {
+                if (add ? oracle.add(tile(x, y)) : oracle.remove(tile(x, y)))
+                {
+                    changed++;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * A layer of scattered tiles and rectangles, some of them whole chunks, mirrored into the oracle.
+     */
+    static TileLayer randomLayer(Random random, Set<WorldPoint> oracle)
+    {
+        TileLayer layer = new TileLayer();
+        for (int i = 0; i < 8; i++)
+        {
+            int x = MIN + random.nextInt(MAX - MIN);
+            int y = MIN + random.nextInt(MAX - MIN);
+            int maxX = x + random.nextInt(40);
+            int maxY = y + random.nextInt(40);
+            layer.fillRect(x, y, maxX, maxY);
+            fill(oracle, x, y, maxX, maxY, true);
+        }
+        if (random.nextBoolean())
+        {
+            int chunkX = random.nextInt(4) - 2;
+            int chunkY = random.nextInt(4) - 2;
+            layer.fillRect(chunkX * 64, chunkY * 64, chunkX * 64 + 63, chunkY * 64 + 63);
+            fill(oracle, chunkX * 64, chunkY * 64, chunkX * 64 + 63, chunkY * 64 + 63, true);
+        }
+        for (int i = 0; i < 300; i++)
+        {
+            int x = MIN + random.nextInt(MAX - MIN);
+            int y = MIN + random.nextInt(MAX - MIN);
+            if (random.nextBoolean())
+            {
+                layer.add(x, y);
+                oracle.add(tile(x, y));
+            }
+            else
+            {
+                layer.remove(x, y);
+                oracle.remove(tile(x, y));
+            }
+        }
+        return layer;
+    }
+
+    static WorldPoint tile(int x, int y)
+    {
+        return new WorldPoint(x, y, 0);
+    }
+
+    private static void assertBounds(TileLayer layer, int minX, int minY, int maxX, int maxY)
+    {
+        int[] bounds = layer.bounds();
+        assertEquals(minX, bounds[0]);
+        assertEquals(minY, bounds[1]);
+        assertEquals(maxX, bounds[2]);
+        assertEquals(maxY, bounds[3]);
+    }
+}